@@ -21,7 +21,6 @@ import org.commonmark.renderer.html.HtmlRenderer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -31,16 +30,16 @@ import org.springframework.web.bind.annotation.*;
 class AIDialogController {
     private final Logger logger = LoggerFactory.getLogger(AIDialogController.class);
     private final ChessEngine chessEngine;
+    private final SearchBudget searchBudget;
     private final BoardRepository repo;
-    private final StringRedisTemplate redis;
     private final ChatClient chatClient;
     private final int maxConversationEntries = 10;
 
-    AIDialogController(ChessEngine chessEngine, BoardRepository repo, StringRedisTemplate redis, ChatClient chatClient) {
+    AIDialogController(ChessEngine chessEngine, SearchBudget searchBudget, BoardRepository repo, ChatClient chatClient) {
         this.repo = repo;
-        this.redis = redis;
         this.chatClient = chatClient;
         this.chessEngine = chessEngine;
+        this.searchBudget = searchBudget;
     }
 
     @ModelAttribute
@@ -53,7 +52,7 @@ class AIDialogController {
                 @RequestParam(name = "show", required = false, defaultValue = "false") boolean showDialog,
                 @ModelAttribute("form") AIForm form, Model model) {
         // Let's see if the user has already used the AI prompt.
-        final var q = redis.opsForValue().get("chess::" + boardId + "::question");
+        final var q = repo.findQuestion(boardId).orElse(null);
         form.setQuestion(q);
 
         // If showDialog is true then the AI prompt is made visible.
@@ -68,21 +67,19 @@ class AIDialogController {
             q = q.strip();
         }
         if (q == null || q.isEmpty()) {
-            redis.delete("chess::" + boardId + "::question");
+            repo.saveQuestion(boardId, null);
             throw new IllegalArgumentException("Question is empty");
         }
         logger.atDebug().log("Saving question for board {}: {}", boardId, q);
-        redis.opsForValue().set("chess::" + boardId + "::question", q);
+        repo.saveQuestion(boardId, q);
         return "ai-dialog-fragment";
     }
 
     @GetMapping(value = "/chess/{boardId}/ai/answer", produces = MediaType.TEXT_HTML_VALUE)
     @ResponseBody
     String getAnswer(@PathVariable String boardId) {
-        final var q = redis.opsForValue().get("chess::" + boardId + "::question");
-        if (q == null) {
-            throw new IllegalStateException("No question found for board " + boardId);
-        }
+        final var q = repo.findQuestion(boardId).orElseThrow(() ->
+                new IllegalStateException("No question found for board " + boardId));
 
         logger.atInfo().log("Asking AI a question related to board {}: {}", boardId, q);
         final var board = repo.load(boardId).orElseThrow();
@@ -96,8 +93,8 @@ class AIDialogController {
                 Answer using the language used to ask the question.
                 For example: if the question is in French, answer in French.
                 """.trim());
-        final var convEntries = redis.opsForList().range("chess::" + boardId + "::conversation", 0, -1);
-        if (convEntries != null && !convEntries.isEmpty()) {
+        final var convEntries = repo.findConversation(boardId);
+        if (!convEntries.isEmpty()) {
             // Include past conversation entries in the prompt:
             // this provides additional context for the LLM.
             prompt.append("\n\nAlso consider the past questions / answers in chronological order:");
@@ -110,7 +107,7 @@ class AIDialogController {
         final var resp = chatClient.prompt()
                 .user(p -> p.text(prompt.toString()).param("question", q))
                 // Include tools that may be used by the LLM to generate an answer.
-                .tools(new ChessGameTools(board.game(), chessEngine))
+                .tools(new ChessGameTools(board, chessEngine, searchBudget))
                 .call()
                 .content();
 
@@ -121,9 +118,7 @@ class AIDialogController {
                 %s
                 </answer>
                 """.formatted(q.trim(), resp.trim()).trim();
-        redis.opsForList().rightPush("chess::" + boardId + "::conversation", newConvEntry);
-        // Clean up conversation entries: we remove the oldest elements.
-        redis.opsForList().trim("chess::" + boardId + "::conversation", -maxConversationEntries, -1);
+        repo.addConversationEntry(boardId, newConvEntry, maxConversationEntries);
 
         // The generated content should be Markdown formatted:
         // render this content as HTML.
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.move.Move;
+import io.github.wolfraam.chessgame.notation.NotationType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A line found by a chess engine analysis: a candidate move, with its score and the expected continuation.
+ * <p>
+ * Scores are given from the side to move: a positive score means an advantage for the side playing this move.
+ * Engines may not return any score, in which case both <code>centipawns</code> and <code>mate</code>
+ * are <code>null</code>.
+ *
+ * @param move               candidate move
+ * @param centipawns         score in centipawns (<code>null</code> if a mate is found or if the score is unknown)
+ * @param mate               number of moves before checkmate (negative when the side to move is checkmated)
+ * @param principalVariation expected moves, starting with the candidate move
+ */
+public record AnalysisLine(Move move, Integer centipawns, Integer mate, List<Move> principalVariation) {
+    public AnalysisLine {
+        principalVariation = principalVariation == null || principalVariation.isEmpty() ?
+                List.of(move) : List.copyOf(principalVariation);
+    }
+
+    /**
+     * Create a line for a move without any score.
+     */
+    public static AnalysisLine of(Move move) {
+        return new AnalysisLine(move, null, null, List.of(move));
+    }
+
+    /**
+     * Create a line from moves sent by an engine.
+     * The principal variation ends with the first move which cannot be played.
+     *
+     * @param game     board game instance, where the line starts
+     * @param uciMoves moves in the principal variation, using UCI notation
+     * @return a line, or <code>null</code> if the first move cannot be played
+     */
+    public static AnalysisLine of(ChessGame game, List<String> uciMoves, Integer centipawns, Integer mate) {
+        final var next = game.clone();
+        final var pv = new ArrayList<Move>(uciMoves.size());
+        for (final var uci : uciMoves) {
+            final Move move;
+            try {
+                move = next.getMove(NotationType.UCI, uci);
+            } catch (RuntimeException e) {
+                break;
+            }
+            if (!next.isLegalMove(move)) {
+                break;
+            }
+            pv.add(move);
+            next.playMove(move);
+        }
+        return pv.isEmpty() ? null : new AnalysisLine(pv.getFirst(), centipawns, mate, pv);
+    }
+}
@@ -16,56 +16,86 @@
 
 package com.broadcom.tanzu.demos.chessai;
 
-import io.github.wolfraam.chessgame.pgn.PGNExporter;
-import io.github.wolfraam.chessgame.pgn.PGNTag;
-import org.apache.hc.core5.http.HttpHeaders;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpStatus;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.ByteArrayOutputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
+@RegisterReflectionForBinding(GameAnalysis.MoveReview.class)
 class AnalyzeGameController {
     private final Logger logger = LoggerFactory.getLogger(AnalyzeGameController.class);
     private final BoardRepository repo;
+    private final GameAnalyzer analyzer;
+    private final Duration timeout;
 
-    AnalyzeGameController(BoardRepository repo) {
+    AnalyzeGameController(BoardRepository repo, GameAnalyzer analyzer,
+                          @Value("${app.chess.analysis.timeout:5m}") Duration timeout) {
         this.repo = repo;
+        this.analyzer = analyzer;
+        this.timeout = timeout;
     }
 
-    @GetMapping(value = "/chess/{boardId}/analyze")
-    ResponseEntity<?> analyze(@PathVariable String boardId) {
-        logger.atInfo().log("Redirecting to lichess.org to analyze board: {}", boardId);
-
+    @GetMapping("/chess/{boardId}/analyze")
+    String analyze(@PathVariable String boardId, Model model, HttpServletResponse resp) {
+        logger.atInfo().log("Analyzing board: {}", boardId);
         final var board = repo.load(boardId).orElseThrow();
-        if (!board.game().getAvailablePGNTags().contains(PGNTag.RESULT)) {
-            board.game().getPGNData().setPGNTag(PGNTag.RESULT, "*");
-        }
-        board.game().getPGNData().setPGNTag(PGNTag.WHITE, "Human");
-        board.game().getPGNData().setPGNTag(PGNTag.BLACK, "AI");
+        model.addAttribute("board", board);
+        model.addAttribute("moves", analyzer.analyze(board).moves());
+
+        // Ask browser not to cache nor store the page.
+        resp.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+
+        return "analysis";
+    }
 
-        // Export the board as PGN.
-        final var buf = new ByteArrayOutputStream(1024);
-        new PGNExporter(buf).write(board.game());
-        final var pgn = buf.toString(StandardCharsets.UTF_8);
+    @GetMapping(value = "/chess/{boardId}/analyze/reviews", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    SseEmitter reviews(@PathVariable String boardId) {
+        // Move reviews are sent as soon as they're available: the analysis is not done in order.
+        final var board = repo.load(boardId).orElseThrow();
+        final var analysis = analyzer.analyze(board);
+        final var emitter = new SseEmitter(timeout.toMillis());
+        final var sent = analysis.reviews().stream()
+                .map(review -> review.thenAccept(r -> send(emitter, SseEmitter.event().name("review").data(r))))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(sent).whenComplete((result, e) -> {
+            if (e != null) {
+                logger.atWarn().log("Failed to analyze board: {}", boardId, e);
+                emitter.completeWithError(e);
+            } else {
+                send(emitter, SseEmitter.event().name("done").data(""));
+                emitter.complete();
+            }
+        });
+        return emitter;
+    }
 
-        // Redirect to lichess.org and preload the PGN data.
-        final var uri = UriComponentsBuilder
-                .fromUriString("https://lichess.org/paste")
-                .queryParam("pgn", pgn)
-                .build();
-        return ResponseEntity.status(HttpStatus.FOUND)
-                .header(HttpHeaders.LOCATION, uri.toUriString())
-                .build();
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        // Reviews are completed by concurrent threads: events are sent one at a time.
+        synchronized (emitter) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // The page has been closed: the analysis goes on anyway, since it's cached.
+                logger.atTrace().log("Unable to send analysis event", e);
+            }
+        }
     }
 
     @ExceptionHandler(NoSuchElementException.class)
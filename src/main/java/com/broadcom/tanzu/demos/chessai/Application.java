@@ -24,7 +24,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 @SpringBootApplication
 @RegisterReflectionForBinding(Board.class)
-@RegisterReflection(classes = {BoardFormatter.class, Board.class},
+@RegisterReflection(classes = {BoardFormatter.class, Board.class, BoardView.class, BoardView.SquareView.class},
         memberCategories = {MemberCategory.INVOKE_PUBLIC_METHODS})
 public class Application {
     public static void main(String[] args) {
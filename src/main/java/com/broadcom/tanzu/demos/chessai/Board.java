@@ -17,13 +17,43 @@
 package com.broadcom.tanzu.demos.chessai;
 
 import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.notation.NotationType;
+
+import java.util.ArrayList;
+import java.util.List;
 
 record Board(
         String id,
         ChessGame game,
         String currentSquare,
-        Error error
+        Error error,
+        BoardSnapshot snapshot
 ) {
+    Board(String id, ChessGame game, String currentSquare, Error error) {
+        this(id, game, currentSquare, error, null);
+    }
+
+    List<String> moves() {
+        // When a board is loaded from a snapshot, the game instance starts from the snapshot checkpoint:
+        // the moves played before this checkpoint are only available from the snapshot.
+        final var gameMoves = game.getNotationList(NotationType.UCI);
+        if (snapshot == null || snapshot.checkpoint() == 0) {
+            return gameMoves;
+        }
+        final var moves = new ArrayList<String>(snapshot.checkpoint() + gameMoves.size());
+        moves.addAll(snapshot.moves().subList(0, snapshot.checkpoint()));
+        moves.addAll(gameMoves);
+        return moves;
+    }
+
+    ChessGame fullGame() {
+        // Use this method when the whole game history is required (PGN export for instance).
+        if (snapshot == null || snapshot.checkpoint() == 0) {
+            return game;
+        }
+        return BoardSnapshot.replay(snapshot.initialFen(), moves());
+    }
+
     enum Error {
         SERVER_ERROR,
         ILLEGAL_MOVE_FROM_AI,
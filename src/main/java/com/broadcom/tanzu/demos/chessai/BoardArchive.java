@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Local storage for archived games.
+ * <p>
+ * Games are appended to segment files: a new segment is created when the current one is full.
+ * Each record is made of a header (record length, CRC32 checksum, board id) followed by
+ * the game (initial position, moves, error, board revision and AI dialog), compressed using Deflate.
+ * Segments are memory-mapped when reading games, and an index (board id to record location)
+ * is rebuilt in memory when this archive is opened.
+ * If the same board is archived several times, the latest record wins.
+ * <p>
+ * Several app instances may share the same directory (on a volume supporting file locks):
+ * records are appended while holding an exclusive lock on this directory, and the index
+ * is refreshed with the records appended by other instances before looking up a game.
+ */
+class BoardArchive implements Closeable {
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_SIZE = 8;
+    private static final String LOCK_FILE = "archive.lock";
+
+    private final Logger logger = LoggerFactory.getLogger(BoardArchive.class);
+    private final Path dir;
+    private final long segmentSize;
+    private final List<FileChannel> segments = new ArrayList<>();
+    private final List<MappedByteBuffer> mappedSegments = new ArrayList<>();
+    // Size of each segment when it was last scanned: records after this offset are not indexed yet.
+    private final List<Long> scannedSizes = new ArrayList<>();
+    private final FileChannel lockChannel;
+    // The record location is stored as a single long value: segment index (high bits) and offset (low bits).
+    private final Map<String, Long> index = new HashMap<>();
+
+    record Entry(String id, String initialFen, List<String> moves, Board.Error error, long revision,
+                 String question, List<String> conversation) {
+        Entry(String id, String initialFen, List<String> moves, Board.Error error, long revision) {
+            this(id, initialFen, moves, error, revision, null, List.of());
+        }
+    }
+
+    BoardArchive(Path dir, long segmentSize) throws IOException {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(dir);
+        this.lockChannel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final var lock = lockChannel.lock();
+        try {
+            refresh();
+            if (segments.isEmpty()) {
+                openSegment(segmentPath(0));
+            }
+        } finally {
+            lock.release();
+        }
+        logger.atInfo().log("Opened board archive with {} game(s) in {} segment(s): {}", index.size(), segments.size(), dir);
+    }
+
+    synchronized void append(Entry entry) throws IOException {
+        final var id = entry.id().getBytes(StandardCharsets.UTF_8);
+        final var payload = compress(entry);
+        final var record = ByteBuffer.allocate(HEADER_SIZE + 2 + id.length + payload.length);
+        record.putInt(record.capacity() - 4).putInt(0).putShort((short) id.length).put(id).put(payload);
+        final var crc = new CRC32();
+        crc.update(record.array(), HEADER_SIZE, record.capacity() - HEADER_SIZE);
+        record.putInt(4, (int) crc.getValue());
+        record.flip();
+
+        // Other app instances may append records to the same segment:
+        // the segment size is only read while holding the lock.
+        final var lock = lockChannel.lock();
+        try {
+            refresh();
+            var segment = segments.getLast();
+            if (segment.size() > 0 && segment.size() + record.remaining() > segmentSize) {
+                segment = openSegment(segmentPath(segments.size()));
+            }
+            final var offset = segment.size();
+            while (record.hasRemaining()) {
+                segment.write(record, offset + record.position());
+            }
+            // Make sure this game is written to disk before it is removed from Redis.
+            segment.force(false);
+            index.put(entry.id(), (long) (segments.size() - 1) << 40 | offset);
+            scannedSizes.set(segments.size() - 1, offset + record.capacity());
+        } finally {
+            lock.release();
+        }
+    }
+
+    synchronized Optional<Entry> find(String id) {
+        // This game may have been archived (again) by another app instance since the index was updated.
+        try {
+            final var lock = lockChannel.lock();
+            try {
+                refresh();
+            } finally {
+                lock.release();
+            }
+        } catch (IOException e) {
+            logger.atWarn().log("Failed to refresh board archive index: {}", dir, e);
+        }
+        final var location = index.get(id);
+        if (location == null) {
+            return Optional.empty();
+        }
+        final var segmentIndex = (int) (location >>> 40);
+        final var offset = (int) (location & 0xff_ffff_ffffL);
+        try {
+            final var buf = mappedSegment(segmentIndex, offset);
+            final var length = buf.getInt(offset);
+            final var idLength = buf.getShort(offset + HEADER_SIZE);
+            final var payload = new byte[length - 4 - 2 - idLength];
+            buf.get(offset + HEADER_SIZE + 2 + idLength, payload);
+            return Optional.of(decompress(id, payload));
+        } catch (IOException e) {
+            logger.atWarn().log("Failed to read archived game: {}", id, e);
+            return Optional.empty();
+        }
+    }
+
+    synchronized int size() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (final var segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+        mappedSegments.clear();
+        scannedSizes.clear();
+        lockChannel.close();
+    }
+
+    private void refresh() throws IOException {
+        // Records are always appended to the last segment: previous segments are never updated.
+        if (!segments.isEmpty()) {
+            scanSegment(segments.size() - 1);
+        }
+        while (Files.exists(segmentPath(segments.size()))) {
+            openSegment(segmentPath(segments.size()));
+            scanSegment(segments.size() - 1);
+        }
+    }
+
+    private FileChannel openSegment(Path path) throws IOException {
+        final var channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segments.add(channel);
+        mappedSegments.add(null);
+        scannedSizes.add(0L);
+        return channel;
+    }
+
+    private Path segmentPath(int segmentIndex) {
+        return dir.resolve(SEGMENT_PREFIX + "%06d".formatted(segmentIndex) + SEGMENT_SUFFIX);
+    }
+
+    private MappedByteBuffer mappedSegment(int segmentIndex, long requiredSize) throws IOException {
+        var buf = mappedSegments.get(segmentIndex);
+        if (buf == null || buf.capacity() <= requiredSize) {
+            // The segment has grown since it was mapped.
+            final var channel = segments.get(segmentIndex);
+            buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mappedSegments.set(segmentIndex, buf);
+        }
+        return buf;
+    }
+
+    private void scanSegment(int segmentIndex) throws IOException {
+        final var segment = segments.get(segmentIndex);
+        final var size = segment.size();
+        var offset = (int) (long) scannedSizes.get(segmentIndex);
+        if (size <= offset) {
+            return;
+        }
+        final var buf = mappedSegment(segmentIndex, size - 1);
+        final var crc = new CRC32();
+        while (offset < size) {
+            // A record may be incomplete if the app was stopped while writing it:
+            // in this case we just ignore the end of the segment.
+            if (offset + HEADER_SIZE + 2 > size) {
+                break;
+            }
+            final var length = buf.getInt(offset);
+            if (length < HEADER_SIZE - 4 + 2 || offset + 4L + length > size) {
+                break;
+            }
+            crc.reset();
+            crc.update(buf.slice(offset + HEADER_SIZE, length - 4));
+            if ((int) crc.getValue() != buf.getInt(offset + 4)) {
+                break;
+            }
+            final var id = new byte[buf.getShort(offset + HEADER_SIZE)];
+            buf.get(offset + HEADER_SIZE + 2, id);
+            index.put(new String(id, StandardCharsets.UTF_8), (long) segmentIndex << 40 | offset);
+            offset += 4 + length;
+        }
+        scannedSizes.set(segmentIndex, (long) offset);
+        if (offset < size) {
+            logger.atWarn().log("Truncating corrupted archive segment {} at offset {}", segmentIndex, offset);
+            // This is safe as the lock is held: no other app instance is writing to this segment.
+            mappedSegments.set(segmentIndex, null);
+            segment.truncate(offset);
+        }
+    }
+
+    private static byte[] compress(Entry entry) throws IOException {
+        final var bytes = new ByteArrayOutputStream(256);
+        final var deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (final var out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeUTF(entry.initialFen());
+            out.writeUTF(entry.error() == null ? "" : entry.error().name());
+            out.writeLong(entry.revision());
+            final var moves = MoveCodec.encode(entry.moves());
+            out.writeInt(moves.length);
+            out.write(moves);
+            // The AI dialog may not fit in a modified UTF-8 string (64 KB at most).
+            writeString(out, entry.question() == null ? "" : entry.question());
+            out.writeInt(entry.conversation().size());
+            for (final var e : entry.conversation()) {
+                writeString(out, e);
+            }
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Entry decompress(String id, byte[] payload) throws IOException {
+        try (final var in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(payload)))) {
+            final var initialFen = in.readUTF();
+            final var error = in.readUTF();
+            final var revision = in.readLong();
+            final var moves = new byte[in.readInt()];
+            in.readFully(moves);
+            String question = null;
+            final var conversation = new ArrayList<String>();
+            try {
+                question = readString(in);
+                final var entries = in.readInt();
+                for (int i = 0; i < entries; ++i) {
+                    conversation.add(readString(in));
+                }
+            } catch (EOFException e) {
+                // Records written by a previous version of this app end with the moves.
+            }
+            return new Entry(id, initialFen, MoveCodec.decode(moves),
+                    error.isEmpty() ? null : Board.Error.valueOf(error), revision,
+                    question == null || question.isEmpty() ? null : question, List.copyOf(conversation));
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        final var bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final var bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration(proxyBeanMethods = false)
+// This feature is only available when boards are stored in Redis.
+@ConditionalOnExpression("'${app.chess.storage:redis}' == 'redis' and ${app.chess.archive.enabled:false}")
+@EnableScheduling
+class BoardArchiveConfig {
+    @Bean
+    BoardArchive boardArchive(@Value("${app.chess.archive.dir}") Path dir,
+                              @Value("${app.chess.archive.segment-size:64MB}") DataSize segmentSize) throws IOException {
+        // Archived games are only available from this directory: when running several app instances,
+        // every instance must use the same directory (on a shared volume supporting file locks),
+        // otherwise games archived by an instance are lost for other instances.
+        return new BoardArchive(dir, segmentSize.toBytes());
+    }
+
+    @Bean
+    BoardArchiver boardArchiver(RedisBoardRepository repo) {
+        return new BoardArchiver(repo);
+    }
+}
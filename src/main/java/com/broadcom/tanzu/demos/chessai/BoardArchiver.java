@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+class BoardArchiver {
+    private static final int BATCH_SIZE = 100;
+    private static final int MAX_BATCHES = 10;
+    private final Logger logger = LoggerFactory.getLogger(BoardArchiver.class);
+    private final RedisBoardRepository repo;
+
+    BoardArchiver(RedisBoardRepository repo) {
+        this.repo = repo;
+    }
+
+    @Scheduled(initialDelayString = "${app.chess.archive.interval:5m}", fixedDelayString = "${app.chess.archive.interval:5m}")
+    void archiveIdleBoards() {
+        // Process a limited number of boards at once: remaining boards will be archived during the next run.
+        var total = 0;
+        for (int i = 0; i < MAX_BATCHES; ++i) {
+            final var count = repo.archiveIdleBoards(BATCH_SIZE);
+            total += count;
+            if (count < BATCH_SIZE) {
+                break;
+            }
+        }
+        if (total != 0) {
+            logger.atInfo().log("Processed {} idle board(s) for archival", total);
+        }
+    }
+}
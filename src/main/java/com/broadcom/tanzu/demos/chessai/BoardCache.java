@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process cache for boards, used by {@link RedisBoardRepository}.
+ * <p>
+ * Every time a board is saved, an update message is published to a Redis channel:
+ * each app instance listens to this channel, and evicts the boards updated by other instances.
+ */
+class BoardCache implements MessageListener {
+    static final String CHANNEL = "chess::boards::updates";
+    private final Logger logger = LoggerFactory.getLogger(BoardCache.class);
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Cache<String, Board> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    BoardCache(long maximumSize, Duration ttl) {
+        // Evicting entries after some time limits the impact of any missed update message
+        // (for example when the connection to Redis is lost).
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+    }
+
+    Optional<Board> get(String id) {
+        // A board game is mutable: let's make sure cached entries are never updated by callers.
+        return Optional.ofNullable(cache.getIfPresent(id)).map(BoardCache::copy);
+    }
+
+    /**
+     * Get the revision of a cached board, or 0 if this board is not cached.
+     */
+    long revision(String id) {
+        // No need to copy the board here: only its snapshot is read.
+        final var board = cache.getIfPresent(id);
+        return board == null || board.snapshot() == null ? 0 : board.snapshot().revision();
+    }
+
+    long stamp() {
+        return invalidations.get();
+    }
+
+    void put(Board board, long stamp) {
+        // The board was read from / written to Redis when this stamp was taken:
+        // if an update message has been received since then, this board may be stale already.
+        if (invalidations.get() == stamp) {
+            cache.put(board.id(), copy(board));
+        }
+    }
+
+    void invalidate(String id) {
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    String updateMessage(String id) {
+        return instanceId + " " + id;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        final var body = new String(message.getBody(), StandardCharsets.UTF_8);
+        final var sep = body.indexOf(' ');
+        if (sep == -1) {
+            return;
+        }
+        if (!instanceId.equals(body.substring(0, sep))) {
+            final var id = body.substring(sep + 1);
+            logger.atTrace().log("Evicting board updated by another instance: {}", id);
+            invalidate(id);
+        }
+    }
+
+    Cache<String, Board> nativeCache() {
+        return cache;
+    }
+
+    private static Board copy(Board board) {
+        return new Board(board.id(), board.game().clone(), board.currentSquare(), board.error(), board.snapshot());
+    }
+}
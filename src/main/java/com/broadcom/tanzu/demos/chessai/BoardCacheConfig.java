@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+// This feature is only available when boards are stored in Redis.
+@ConditionalOnExpression("'${app.chess.storage:redis}' == 'redis' and ${app.chess.board-cache.enabled:false}")
+class BoardCacheConfig {
+    @Bean
+    BoardCache boardCache(@Value("${app.chess.board-cache.maximum-size:1000}") long maximumSize,
+                          @Value("${app.chess.board-cache.ttl:10m}") Duration ttl,
+                          MeterRegistry meterRegistry) {
+        final var cache = new BoardCache(maximumSize, ttl);
+        // Hits, misses and evictions are available from the metrics endpoint (cache.gets, cache.evictions).
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.nativeCache(), "boards");
+        return cache;
+    }
+
+    @Bean
+    RedisMessageListenerContainer boardCacheListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                              BoardCache boardCache) {
+        final var container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(boardCache, ChannelTopic.of(BoardCache.CHANNEL));
+        return container;
+    }
+}
@@ -22,39 +22,59 @@ import io.github.wolfraam.chessgame.board.Side;
 import io.github.wolfraam.chessgame.board.Square;
 import io.github.wolfraam.chessgame.move.Move;
 import io.github.wolfraam.chessgame.notation.NotationType;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.nio.charset.StandardCharsets;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Controller
 @RegisterReflectionForBinding({BoardController.ChessEvent.class, BoardController.ChessBestMove.class})
 class BoardController {
+    private static final MediaType FRAGMENT_TYPE = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
     private final Logger logger = LoggerFactory.getLogger(BoardController.class);
     private final ChessEngine chessEngine;
+    private final SearchBudget searchBudget;
     private final BoardRepository repo;
     private final SimpMessagingTemplate stomp;
     private final ChatClient chatClient;
     private final TaskExecutor taskExecutor;
+    private final ObjectProvider<Ponderer> ponderer;
+    private final SingleFlight<ChessBestMove> llmMoves;
+    private final BoardFragmentCache fragments;
 
-    BoardController(ChessEngine chessEngine, BoardRepository repo, SimpMessagingTemplate stomp, ChatClient chatClient, TaskExecutor taskExecutor) {
+    BoardController(ChessEngine chessEngine, SearchBudget searchBudget, BoardRepository repo, SimpMessagingTemplate stomp, ChatClient chatClient, TaskExecutor taskExecutor,
+                    ObjectProvider<Ponderer> ponderer, MeterRegistry meterRegistry, BoardFragmentCache fragments) {
         this.chessEngine = chessEngine;
+        this.searchBudget = searchBudget;
         this.repo = repo;
         this.stomp = stomp;
         this.chatClient = chatClient;
         this.taskExecutor = taskExecutor;
+        this.ponderer = ponderer;
+        this.llmMoves = new SingleFlight<>("llm-move", meterRegistry);
+        this.fragments = fragments;
     }
 
     @ModelAttribute("model")
@@ -88,28 +108,88 @@ class BoardController {
     }
 
     @GetMapping("/chess/{boardId}/board")
-    String boardFragment(@PathVariable String boardId, Model model, HttpServletResponse resp) {
+    ResponseEntity<String> boardFragment(@PathVariable String boardId, WebRequest webRequest,
+                                         HttpServletRequest req, HttpServletResponse resp) {
         // This method is called by HTMX to update the board state.
+        // Most of the time the board has not changed since the last poll: the board revision
+        // is checked first, and the game is only loaded if the fragment must be rendered again.
+        final var revision = repo.revision(boardId);
+        if (revision != 0) {
+            if (webRequest.checkNotModified(etag(revision))) {
+                logger.atTrace().log("Board fragment not modified: {}", boardId);
+                return null;
+            }
+            final var fragment = fragments.get(boardId, revision);
+            if (fragment != null) {
+                logger.atDebug().log("Sending cached board fragment: {}", boardId);
+                return fragmentResponse(fragment, CacheControl.noCache());
+            }
+        }
         logger.atDebug().log("Rendering board fragment: {}", boardId);
         final var board = repo.load(boardId).orElseThrow();
-        model.addAttribute("board", board);
 
-        // Ask browser not to cache nor store this fragment.
-        resp.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        // The browser keeps this fragment, but it must check it is still up-to-date before using it.
+        return fragmentResponse(fragments.render(board, req, resp),
+                revision == 0 ? CacheControl.noStore() : CacheControl.noCache());
+    }
 
-        return "board-fragment";
+    private static String etag(long revision) {
+        // The board revision is enough to identify a fragment (the board id is part of the URL):
+        // a recreated board starts from another random revision.
+        return "\"" + revision + "\"";
+    }
+
+    private static ResponseEntity<String> fragmentResponse(String fragment, CacheControl cacheControl) {
+        return ResponseEntity.ok()
+                .contentType(FRAGMENT_TYPE)
+                .cacheControl(cacheControl)
+                .body(fragment);
     }
 
     @PostMapping("/chess/{boardId}/click/{square}")
-    String click(@PathVariable String boardId, @PathVariable("square") String squareStr, Model model, HttpServletResponse resp) {
+    ResponseEntity<String> click(@PathVariable String boardId, @PathVariable("square") String squareStr,
+                                 HttpServletRequest req, HttpServletResponse resp) {
         logger.atDebug().log("Rendering board after clicking on square {}: {}", squareStr, boardId);
         final var square = Square.fromName(squareStr);
-        final var board = repo.load(boardId).orElseThrow();
-        model.addAttribute("board", board);
 
-        Board newBoard = null;
-        boolean triggerAI = false;
+        // The board may be concurrently updated (double click, AI move):
+        // in this case this click is replayed against the latest board state.
+        final var triggerAI = new AtomicBoolean();
+        final var newBoard = repo.update(boardId, board -> {
+            triggerAI.set(false);
+            return onClick(board, square, triggerAI);
+        });
+        if (triggerAI.get()) {
+            // Now it's time for AI to play!
+            taskExecutor.execute(() -> {
+                try {
+                    playNextMoveForBlack(boardId);
+                } catch (Exception e) {
+                    final Board.Error error;
+                    if (e instanceof AIMoveError) {
+                        error = ((AIMoveError) e).error;
+                    } else {
+                        error = Board.Error.SERVER_ERROR;
+                    }
+                    logger.atWarn().log("Failed to play next move for AI", e);
+                    try {
+                        repo.update(boardId, board -> new Board(board.id(), board.game(), null, error, board.snapshot()));
+                        refreshBoardUI(boardId);
+                    } catch (Exception updateError) {
+                        // Nobody else is going to catch this exception in this executor thread.
+                        logger.atWarn().log("Failed to save AI error for board: {}", boardId, updateError);
+                    }
+                }
+            });
+        }
+
+        // The new revision is rendered right away: the next poll gets this fragment from the cache.
+        // Ask browser not to cache nor store this fragment.
+        return fragmentResponse(fragments.render(newBoard, req, resp), CacheControl.noStore());
+    }
 
+    private Board onClick(Board board, Square square, AtomicBoolean triggerAI) {
+        final var boardId = board.id();
         logger.atTrace().log("Board game result: {}={}", boardId, board.game().getGameResult());
 
         // Main game loop: what happens when the player click on a square?
@@ -120,61 +200,29 @@ class BoardController {
                     // The player has clicked on a square, let's see if there is a White piece on it.
                     final var piece = board.game().getPiece(square);
                     if (piece != null && piece.side.equals(board.game().getSideToMove())) {
-                        newBoard = new Board(boardId, board.game(), square.name, null);
+                        return new Board(boardId, board.game(), square.name, null, board.snapshot());
                     }
                 } else {
                     // At this point we know that the player has previously selected a piece:
                     // let's see if we can move this piece to the selected square.
-                    boolean promotion = false;
                     final var sq = Square.fromName(board.currentSquare());
                     final var sourcePiece = board.game().getPiece(sq);
-                    final var targetPiece = board.game().getPiece(square);
-                    if (sourcePiece != null && sourcePiece.pieceType.equals(PieceType.PAWN) && targetPiece == null && sq.y == 6) {
-                        // TODO implement pawn promotion
-                        promotion = true;
-                    }
+                    // A pawn reaching the last rank (with or without a capture) is always promoted to a queen.
+                    final var promotion = sourcePiece != null && sourcePiece.pieceType.equals(PieceType.PAWN) && square.y == 7;
 
-                    final var move = new Move(Square.fromName(board.currentSquare()), square, promotion ? PieceType.QUEEN : null);
+                    final var move = new Move(sq, square, promotion ? PieceType.QUEEN : null);
                     if (board.game().isLegalMove(move)) {
                         // This is a legal move, moving on!
                         logger.atInfo().log("Playing user move on board {}: {}", boardId, board.game().getNotation(NotationType.UCI, move));
                         board.game().playMove(move);
-                        triggerAI = true;
+                        triggerAI.set(true);
                     }
-                    newBoard = new Board(boardId, board.game(), null, null);
+                    return new Board(boardId, board.game(), null, null, board.snapshot());
                 }
             }
         }
-
-        if (newBoard != null) {
-            logger.atDebug().log("Saving board: {}", newBoard.id());
-            repo.save(newBoard);
-            model.addAttribute("board", newBoard);
-        }
-
-        if (triggerAI) {
-            // Now it's time for AI to play!
-            taskExecutor.execute(() -> {
-                try {
-                    playNextMoveForBlack(boardId);
-                } catch (Exception e) {
-                    final Board.Error error;
-                    if (e instanceof AIMoveError) {
-                        error = ((AIMoveError) e).error;
-                    } else {
-                        error = Board.Error.SERVER_ERROR;
-                    }
-                    repo.save(new Board(board.id(), board.game(), null, error));
-                    refreshBoardUI(boardId);
-                    logger.atWarn().log("Failed to play next move for AI", e);
-                }
-            });
-        }
-
-        // Ask browser not to cache nor store this fragment.
-        resp.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
-
-        return "board-fragment";
+        // Nothing to save.
+        return null;
     }
 
     private void playNextMoveForBlack(String boardId) {
@@ -183,9 +231,60 @@ class BoardController {
             logger.atWarn().log("Skipping next move for black side using board: {}", boardId);
             return;
         }
+        // Speculative searches for other player moves are no longer needed:
+        // the AI reply may even be ready if the player has played the expected move.
+        final var p = ponderer.getIfAvailable();
+        final var ponderedReply = p == null ? Optional.<ChessBestMove>empty()
+                : p.settle(boardId, board.game(), ChessBestMove.class);
+        final var resp = ponderedReply.orElseGet(() -> guessNextMoveOnce(board));
+        logger.atInfo().log("Playing AI move on board {}: {}", boardId, resp.bestMove);
+        final Move move;
+        try {
+            // Find out if the LLM move does use UCI.
+            move = board.game().getMove(NotationType.UCI, resp.bestMove);
+        } catch (Exception e) {
+            logger.atDebug().log("Unable to parse move from AI for board {}: {}", boardId, resp.bestMove);
+            throw new AIMoveError(Board.Error.ILLEGAL_MOVE_FROM_AI, e);
+        }
+        if (!board.game().isLegalMove(move)) {
+            // During late game (and without a chess engine) the LLM sometimes makes illegal moves.
+            logger.atDebug().log("Invalid move from AI for board {}: {}", boardId, resp.bestMove);
+            throw new AIMoveError(Board.Error.ILLEGAL_MOVE_FROM_AI, null);
+        }
+
+        // Great, the AI has a move to play: let's update the board.
+        logger.atDebug().log("Playing next move from AI on board {}: {}", board.id(), resp.bestMove);
+        final var fen = board.game().getFen();
+        final var bestMove = resp.bestMove;
+        final var played = new AtomicBoolean();
+        final var newBoard = repo.update(boardId, latestBoard -> {
+            played.set(false);
+            if (!latestBoard.game().getFen().equals(fen)) {
+                // The position has changed while the AI was thinking: this move is no longer relevant.
+                logger.atWarn().log("Discarding AI move {} for updated board: {}", bestMove, boardId);
+                return null;
+            }
+            latestBoard.game().playMove(move);
+            played.set(true);
+            return new Board(latestBoard.id(), latestBoard.game(), null, null, latestBoard.snapshot());
+        });
+        refreshBoardUI(boardId);
+
+        if (played.get() && p != null) {
+            // The player is now thinking: let's think about the next move as well.
+            p.ponder(boardId, newBoard.game(),
+                    game -> guessNextMoveOnce(new Board(boardId, game, null, null, newBoard.snapshot())));
+        }
+    }
+
+    private ChessBestMove guessNextMoveOnce(Board board) {
+        // Boards reaching the same position at the same time share a single LLM call.
+        return llmMoves.execute(Long.toHexString(ChessPosition.of(board.game()).hash()), () -> guessNextMove(board));
+    }
 
+    private ChessBestMove guessNextMove(Board board) {
         // Trigger the LLM: let's find out the next move to play.
-        logger.atDebug().log("Guessing next move using chess game tools for board: {}", boardId);
+        logger.atDebug().log("Guessing next move using chess game tools for board: {}", board.id());
         var resp = chatClient.prompt()
                 .user("""
                         What is the next move to play in this chess game?
@@ -193,10 +292,10 @@ class BoardController {
                         Do not include anything else in your answer.
                         """)
                 // Include additional tools that the LLM can use to identify the next move.
-                .tools(new ChessGameTools(board.game(), chessEngine))
+                .tools(new ChessGameTools(board, chessEngine, searchBudget))
                 .call().entity(ChessBestMove.class);
         if (resp == null || resp.isNull()) {
-            logger.atDebug().log("Failed to get next move using chess game tools, trying with a FEN only for board: {}", boardId);
+            logger.atDebug().log("Failed to get next move using chess game tools, trying with a FEN only for board: {}", board.id());
             resp = chatClient.prompt()
                     .user(p -> p.text("""
                                     You're playing a chess game: you're playing Black.
@@ -212,36 +311,17 @@ class BoardController {
                                     Do not include anything else in your answer.
                                     """)
                             .param("fen", board.game().getFen())
-                            .param("pgn", ChessGameUtils.getPGNData(board.game())))
+                            .param("pgn", ChessGameUtils.getPGNData(board.fullGame())))
                     .call().entity(ChessBestMove.class);
             if (resp == null || resp.isNull()) {
                 // The LLM failed to identify the next move: this may happen if the game is done,
                 // if the chess engine is unable to provide the next move, or if the LLM failed to
                 // use the tools and cannot identify the move by itself.
-                logger.atDebug().log("No best move found for board {}", boardId);
+                logger.atDebug().log("No best move found for board {}", board.id());
                 throw new AIMoveError(Board.Error.UNABLE_TO_GUESS_NEXT_MOVE, null);
             }
         }
-        logger.atInfo().log("Playing AI move on board {}: {}", boardId, resp.bestMove);
-        final Move move;
-        try {
-            // Find out if the LLM move does use UCI.
-            move = board.game().getMove(NotationType.UCI, resp.bestMove);
-        } catch (Exception e) {
-            logger.atDebug().log("Unable to parse move from AI for board {}: {}", boardId, resp.bestMove);
-            throw new AIMoveError(Board.Error.ILLEGAL_MOVE_FROM_AI, e);
-        }
-        if (!board.game().isLegalMove(move)) {
-            // During late game (and without a chess engine) the LLM sometimes makes illegal moves.
-            logger.atDebug().log("Invalid move from AI for board {}: {}", boardId, resp.bestMove);
-            throw new AIMoveError(Board.Error.ILLEGAL_MOVE_FROM_AI, null);
-        }
-
-        // Great, the AI has a move to play: let's update the board.
-        logger.atDebug().log("Playing next move from AI on board {}: {}", board.id(), resp.bestMove);
-        board.game().playMove(move);
-        repo.save(new Board(board.id(), board.game(), null, null));
-        refreshBoardUI(boardId);
+        return resp;
     }
 
     private void refreshBoardUI(String boardId) {
@@ -254,6 +334,12 @@ class BoardController {
         return ResponseEntity.notFound().build();
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    ResponseEntity<?> handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+        // The board is updated too often: the UI will be refreshed with the latest board state anyway.
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
     record ChessEvent(String type) {
     }
 
@@ -17,18 +17,24 @@
 package com.broadcom.tanzu.demos.chessai;
 
 import io.github.wolfraam.chessgame.board.Piece;
-import io.github.wolfraam.chessgame.board.PieceType;
 import io.github.wolfraam.chessgame.board.Square;
-import io.github.wolfraam.chessgame.move.Move;
-import io.github.wolfraam.chessgame.notation.NotationType;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 
 @Component
 class BoardFormatter {
-    private final Map<Piece, String> piece2String = new HashMap<>(12);
+    private static final String[] SQUARE_NAMES = new String[64];
+    private static final String[] RANK_LABELS = {"1", "2", "3", "4", "5", "6", "7", "8"};
+    private static final String[] FILE_LABELS = {"a", "b", "c", "d", "e", "f", "g", "h"};
+    private final Map<Piece, String> piece2String = new EnumMap<>(Piece.class);
+
+    static {
+        for (final var sq : Square.values()) {
+            SQUARE_NAMES[ChessPosition.index(sq)] = sq.name;
+        }
+    }
 
     BoardFormatter() {
         piece2String.put(Piece.BLACK_PAWN, "fa-solid fa-chess-pawn");
@@ -45,64 +51,43 @@ class BoardFormatter {
         piece2String.put(Piece.WHITE_KING, "fa-regular fa-chess-king");
     }
 
-    public String formatPiece(Board board, int row, int col) {
-        return piece2String.get(board.game().getPiece((Square.fromCoordinates(col - 1, row - 1))));
-    }
-
-    public String formatSquare(int row, int col) {
-        return Square.fromCoordinates(col - 1, row - 1).name;
-    }
-
-    public boolean isLegalMove(Board board, int row, int col) {
-        if (board.currentSquare() == null) {
-            return false;
-        }
-        return board.game().isLegalMove(
-                new Move(Square.fromName(board.currentSquare()),
-                        Square.fromCoordinates(col - 1, row - 1)));
-    }
-
-    public boolean isKingAttacked(Board board, int row, int col) {
-        if (!board.game().isKingAttacked()) {
-            return false;
-        }
-        final var piece = board.game().getPiece((Square.fromCoordinates(col - 1, row - 1)));
-        if (piece == null) {
-            return false;
-        }
-        return piece.pieceType.equals(PieceType.KING)
-                && board.game().getSideToMove().equals(piece.side);
-    }
-
-    public String formatLastMove(Board board) {
-        if (board.game().getLastMove() == null) {
-            return null;
-        }
-        return board.game().getNotationList(NotationType.UCI).getLast();
-    }
+    /**
+     * Compute everything required to render a board, visiting each square once.
+     */
+    public BoardView format(Board board) {
+        final var position = ChessPosition.of(board.game());
+        final int current = board.currentSquare() == null ? -1 : ChessPosition.index(Square.fromName(board.currentSquare()));
+        final long targets = current == -1 ? 0 : position.legalTargets(current);
+        final int attackedKing = position.isKingAttacked() ? position.kingSquare() : -1;
+        final var lastMove = position.lastMove();
+        final int lastFrom = lastMove == null ? -1 : ChessPosition.index(lastMove.from);
+        final int lastTo = lastMove == null ? -1 : ChessPosition.index(lastMove.to);
 
-    public String formatMovesToCopy(Board board) {
-        return board.game().getFen();
-    }
-
-    public char formatColumnNumber(int col) {
-        return "abcdefgh".charAt(col - 1);
-    }
-
-    public String getSquareBackgroundClass(Board board, int row, int col) {
-        // Find out the CSS background class to use for a square.
-        // Much better to have this code in Java rather than a Thymeleaf script for better readability!
-        final var sq = Square.fromCoordinates(col - 1, row - 1);
-        if (sq.name.equals(board.currentSquare())) {
-            return "current";
-        }
-        if (isKingAttacked(board, row, col)) {
-            return "king-attacked";
-        }
-        final var lastMove = board.game().getLastMove();
-        if (lastMove != null && (sq.equals(lastMove.from) || sq.equals(lastMove.to))) {
-            return "last-move";
+        final var ranks = new BoardView.SquareView[8][8];
+        for (int y = 0; y < 8; ++y) {
+            for (int x = 0; x < 8; ++x) {
+                final int sq = ChessPosition.index(x, y);
+                final boolean dark = (x + y) % 2 == 0;
+                // Much better to have this code in Java rather than a Thymeleaf script for better readability!
+                final String cssClass;
+                if (sq == current) {
+                    cssClass = "current";
+                } else if (sq == attackedKing) {
+                    cssClass = "king-attacked";
+                } else if (sq == lastFrom || sq == lastTo) {
+                    cssClass = "last-move";
+                } else {
+                    cssClass = dark ? "dark" : "light";
+                }
+                // The top of the board is the 8th rank.
+                ranks[7 - y][x] = new BoardView.SquareView(SQUARE_NAMES[sq], cssClass,
+                        piece2String.get(position.piece(sq)), (targets & (1L << sq)) != 0,
+                        x == 0 ? RANK_LABELS[y] : null, y == 0 ? FILE_LABELS[x] : null,
+                        dark ? "text-light" : "text-dark");
+            }
         }
-        return col % 2 == 0 ? (row % 2 == 0 ? "dark" : "light") : (row % 2 == 1 ? "dark" : "light");
+        final var result = position.result();
+        return new BoardView(ranks, position.lastMoveUci(), position.fen(),
+                result == null ? null : result.name(), position.sideToMove().name());
     }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.Map;
+
+/**
+ * Cache for rendered board fragments.
+ * <p>
+ * A fragment only depends on the board state, which is identified by the board revision:
+ * the same fragment is sent to every client polling this board until the board is saved again.
+ * Revisions are not reused when a board is recreated with the same identifier (see {@link BoardSnapshot}).
+ */
+@Component
+class BoardFragmentCache {
+    private static final String TEMPLATE = "board-fragment";
+    private final Logger logger = LoggerFactory.getLogger(BoardFragmentCache.class);
+    private final ITemplateEngine templateEngine;
+    private final ApplicationContext applicationContext;
+    private final Cache<Key, String> fragments;
+
+    BoardFragmentCache(ITemplateEngine templateEngine, ApplicationContext applicationContext,
+                       @Value("${app.chess.board-fragments.cache-size:1000}") long cacheSize,
+                       MeterRegistry meterRegistry) {
+        this.templateEngine = templateEngine;
+        this.applicationContext = applicationContext;
+        // Older revisions are never requested again: these entries are evicted first.
+        this.fragments = Caffeine.newBuilder().maximumSize(cacheSize).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, fragments, "board-fragments");
+    }
+
+    /**
+     * Get a fragment previously rendered for this board revision.
+     */
+    String get(String boardId, long revision) {
+        return revision == 0 ? null : fragments.getIfPresent(new Key(boardId, revision));
+    }
+
+    /**
+     * Render a board fragment, reusing the cached one for this board revision if any.
+     */
+    String render(Board board, HttpServletRequest req, HttpServletResponse resp) {
+        final var revision = revision(board);
+        if (revision == 0) {
+            // This board is not stored (yet): its content may change without a new revision.
+            return doRender(board, req, resp);
+        }
+        return fragments.get(new Key(board.id(), revision), k -> doRender(board, req, resp));
+    }
+
+    static long revision(Board board) {
+        return board.snapshot() == null ? 0 : board.snapshot().revision();
+    }
+
+    private String doRender(Board board, HttpServletRequest req, HttpServletResponse resp) {
+        logger.atTrace().log("Rendering board fragment: {}", board.id());
+        // Set up the same context as a Thymeleaf view, so that bean references and links are resolved.
+        final var exchange = JakartaServletWebApplication.buildApplication(req.getServletContext())
+                .buildExchange(req, resp);
+        final var ctx = new WebContext(exchange, req.getLocale(), Map.of(
+                "board", board,
+                ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                new ThymeleafEvaluationContext(applicationContext, null)));
+        return templateEngine.process(TEMPLATE, ctx);
+    }
+
+    /**
+     * The selected square is part of the board state: selecting a square saves the board,
+     * which means a new revision is created.
+     */
+    private record Key(String boardId, long revision) {
+    }
+}
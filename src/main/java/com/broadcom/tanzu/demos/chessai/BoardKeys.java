@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import java.util.List;
+
+/**
+ * Redis keys for a board.
+ * <p>
+ * The board id is used as a hash tag (<code>chess::{id}::...</code>): when using Redis Cluster,
+ * all keys for a board are stored in the same slot, which means these keys can be
+ * used in a single Lua script or transaction.
+ */
+record BoardKeys(
+        String current,
+        String error,
+        String snapshot,
+        String moves,
+        String question,
+        String conversation,
+        String events
+) {
+    static BoardKeys of(String id) {
+        return withPrefix("chess::{" + id + "}::");
+    }
+
+    /**
+     * Get the keys used by previous versions of this app (without a hash tag).
+     */
+    static Legacy legacy(String id) {
+        final var prefix = "chess::" + id + "::";
+        return new Legacy(prefix + "current", prefix + "error", prefix + "moves",
+                prefix + "question", prefix + "conversation");
+    }
+
+    private static BoardKeys withPrefix(String prefix) {
+        return new BoardKeys(prefix + "current", prefix + "error", prefix + "snapshot", prefix + "moves",
+                prefix + "question", prefix + "conversation", prefix + "events");
+    }
+
+    /**
+     * Get the keys holding the board state.
+     */
+    List<String> board() {
+        return List.of(current, error, snapshot, moves);
+    }
+
+    List<String> all() {
+        return List.of(current, error, snapshot, moves, question, conversation, events);
+    }
+
+    /**
+     * Keys used by previous versions of this app: there was no board snapshot back then.
+     */
+    record Legacy(
+            String current,
+            String error,
+            String moves,
+            String question,
+            String conversation
+    ) {
+        List<String> all() {
+            return List.of(current, error, moves, question, conversation);
+        }
+    }
+}
@@ -16,77 +16,93 @@
 
 package com.broadcom.tanzu.demos.chessai;
 
-import io.github.wolfraam.chessgame.ChessGame;
-import io.github.wolfraam.chessgame.notation.NotationType;
-import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.stereotype.Repository;
+import org.springframework.dao.OptimisticLockingFailureException;
 
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.UnaryOperator;
 
-@Repository
-class BoardRepository {
-    private final Logger logger = LoggerFactory.getLogger(BoardRepository.class);
-    private final StringRedisTemplate redis;
-    private final String initialFen;
+/**
+ * This is a core service of the app, as it enables to load / save a board state from a board id.
+ * <p>
+ * The storage backend is selected with the property <code>app.chess.storage</code>:
+ * <ul>
+ *     <li><code>redis</code> (default): boards are stored in Redis, which makes this app stateless</li>
+ *     <li><code>memory</code>: boards are stored in memory, for single-node deployments and load tests</li>
+ * </ul>
+ */
+interface BoardRepository {
+    int MAX_UPDATE_ATTEMPTS = 5;
 
-    // This is a core service of the app, as it enables to load / save a board state from a board id.
-    // Using this service we rely on Redis to store anything we need, which makes this app stateless.
+    Board newInstance();
 
-    BoardRepository(StringRedisTemplate redis,
-                    @Value("${app.chess.initial:rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1}") String initialFen) {
-        this.redis = redis;
-        this.initialFen = initialFen;
-    }
+    /**
+     * Load a board: a new game is returned if this board is not stored.
+     */
+    Optional<Board> load(String id);
 
-    void save(Board board) {
-        logger.atTrace().log("Saving board: {}", board);
-        if (board.currentSquare() == null) {
-            redis.delete("chess::" + board.id() + "::current");
-        } else {
-            redis.opsForValue().set("chess::" + board.id() + "::current", board.currentSquare());
-        }
-        if (board.error() == null) {
-            redis.delete("chess::" + board.id() + "::error");
-        } else {
-            redis.opsForValue().set("chess::" + board.id() + "::error", board.error().name());
-        }
-        redis.delete("chess::" + board.id() + "::moves");
-        final var moves = board.game().getNotationList(NotationType.UCI);
-        if (!moves.isEmpty()) {
-            redis.opsForList().rightPushAll("chess::" + board.id() + "::moves", moves);
-        }
-    }
+    /**
+     * Get the revision of a board without loading its game (see {@link BoardSnapshot}),
+     * or 0 if this board is not stored.
+     * The revision changes every time a board is saved: this is a cheap way to find out if a board was updated.
+     */
+    long revision(String id);
 
-    Board newInstance() {
-        final var id = UUID.randomUUID().toString();
-        logger.atTrace().log("Creating new board: {}", id);
-        final var board = new Board(id, new ChessGame(), null, null);
-        save(board);
-        return board;
-    }
+    /**
+     * Save a board, provided that it has not been updated since it was loaded.
+     *
+     * @throws OptimisticLockingFailureException if the board was concurrently updated
+     */
+    Board save(Board board);
 
-    Optional<Board> load(String id) {
-        logger.atTrace().log("Loading board: {}", id);
-        final var current = redis.opsForValue().get("chess::" + id + "::current");
-        final var errorStr = redis.opsForValue().get("chess::" + id + "::error");
-        final var movesStr = redis.opsForList().range("chess::" + id + "::moves", 0, -1);
-        try {
-            final var game = new ChessGame(initialFen);
-            if (movesStr != null && game.getInitialFen().equals(ChessGame.STANDARD_INITIAL_FEN)) {
-                // This is the core mechanic of this class:
-                // we have loaded all the moves from Redis, let's play these moves
-                // with a brand-new board instance to get back to the same state.
-                game.playMoves(NotationType.UCI, movesStr);
+    /**
+     * Load a board, apply a mutation and save the result.
+     * <p>
+     * The mutation may be called several times, with a fresh board instance each time:
+     * if the board is concurrently updated, the whole operation is retried.
+     * The mutation returns <code>null</code> when there is nothing to save.
+     * Just like {@link #load(String)}, the mutation gets a new game if this board is not stored.
+     *
+     * @return the board, as saved (or loaded if there was nothing to save)
+     * @throws NoSuchElementException            if this board is stored but could not be loaded
+     * @throws OptimisticLockingFailureException if the board could not be updated after a few attempts
+     */
+    default Board update(String id, UnaryOperator<Board> mutation) {
+        for (int attempt = 1; ; ++attempt) {
+            final var board = load(id).orElseThrow();
+            final var newBoard = mutation.apply(board);
+            if (newBoard == null) {
+                return board;
+            }
+            try {
+                return save(newBoard);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt == MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+                LoggerFactory.getLogger(BoardRepository.class).atDebug()
+                        .log("Retrying board update after concurrent update (attempt {}): {}", attempt, id);
+                // Wait a bit before the next attempt: a random delay helps concurrent updates not to collide again.
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(attempt * 5_000_000L));
             }
-
-            return Optional.of(new Board(id, game, current, errorStr == null ? null : Board.Error.valueOf(errorStr)));
-        } catch (Exception e) {
-            logger.atWarn().log("Failed to load board: {}", id, e);
-            return Optional.empty();
         }
     }
+
+    Optional<String> findQuestion(String id);
+
+    /**
+     * Save the last question asked to the AI about this board (or remove it if <code>null</code>).
+     */
+    void saveQuestion(String id, String question);
+
+    List<String> findConversation(String id);
+
+    /**
+     * Add an entry to the conversation with the AI about this board, keeping the latest entries only.
+     */
+    void addConversationEntry(String id, String entry, int maxEntries);
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.board.PieceType;
+import io.github.wolfraam.chessgame.board.Square;
+import io.github.wolfraam.chessgame.move.Move;
+import io.github.wolfraam.chessgame.notation.NotationType;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Versioned snapshot of a board, as stored by a {@link BoardRepository}.
+ * <p>
+ * A board instance keeps track of the snapshot it was loaded from, which enables the repository
+ * to only write what has changed since then.
+ * The version is the number of half-moves played since the initial position,
+ * whereas the revision is incremented every time the board is saved (even if no move was played):
+ * the repository relies on the revision to detect concurrent updates.
+ * A new board starts from a random revision: when a board is recreated with the same identifier
+ * (after it expired or was evicted), its revisions don't overlap with the previous ones,
+ * which keeps fragment ETags and cached fragments unique for a given board.
+ * A snapshot also defines a checkpoint: this is the position right before the last pawn move or capture.
+ * Such a move is irreversible, meaning that no position before the checkpoint may ever be repeated:
+ * a game instance created from the checkpoint is able to track draws by threefold repetition,
+ * and restoring this game only requires a few moves to be played, whatever the game length.
+ */
+record BoardSnapshot(
+        String initialFen,
+        List<String> moves,
+        int checkpoint,
+        String checkpointFen,
+        String fen,
+        String currentSquare,
+        Board.Error error,
+        long revision
+) {
+    static BoardSnapshot of(Board board) {
+        final var game = board.game();
+        final var previous = board.snapshot();
+        final var offset = previous == null ? 0 : previous.checkpoint();
+        final var moves = board.moves();
+        final var fen = game.getFen();
+
+        // The half-move clock from the FEN tells us how many moves were played
+        // since the last pawn move or capture.
+        final var halfMoveClock = Integer.parseInt(fen.split(" ")[4]);
+        final var checkpoint = Math.max(offset, moves.size() - halfMoveClock - 1);
+        final var checkpointFen = checkpoint == offset ?
+                game.getInitialFen() : game.getSubset(checkpoint - offset).getFen();
+        return new BoardSnapshot(previous == null ? game.getInitialFen() : previous.initialFen(),
+                moves, checkpoint, checkpointFen, fen, board.currentSquare(), board.error(),
+                previous == null || previous.revision() == 0 ? initialRevision() : previous.revision() + 1);
+    }
+
+    private static long initialRevision() {
+        // Revisions stay well below 2^53, so that these are exact numbers in Lua scripts as well.
+        return ThreadLocalRandom.current().nextLong(1, 1L << 48);
+    }
+
+    /**
+     * Get the board instance to use after this snapshot was saved.
+     */
+    Board toSavedBoard(Board board) {
+        // The game instance must start from the snapshot checkpoint:
+        // we need a new instance if the checkpoint has moved.
+        final var previous = board.snapshot();
+        final var game = checkpoint == (previous == null ? 0 : previous.checkpoint()) ? board.game() : restore();
+        return new Board(board.id(), game, board.currentSquare(), board.error(), this);
+    }
+
+    boolean isContinuedBy(BoardSnapshot next) {
+        // Moves are only appended during a game: the next snapshot is expected
+        // to start with the moves from this snapshot.
+        return next.version() >= version() && next.moves().subList(0, version()).equals(moves);
+    }
+
+    int version() {
+        return moves.size();
+    }
+
+    ChessGame restore() {
+        // Every move in a snapshot was checked when it was played: there is no need to parse
+        // each move notation and to check it against the legal moves again.
+        final var game = new ChessGame(checkpointFen);
+        for (final var move : moves.subList(checkpoint, moves.size())) {
+            game.playMove(toMove(move));
+        }
+        if (!game.getFen().equals(fen)) {
+            throw new IllegalStateException("Inconsistent board snapshot: expected position '"
+                    + fen + "' but got '" + game.getFen() + "'");
+        }
+        return game;
+    }
+
+    static ChessGame replay(String initialFen, List<String> moves) {
+        final var game = new ChessGame(initialFen);
+        game.playMoves(NotationType.UCI, moves);
+        return game;
+    }
+
+    private static Move toMove(String uci) {
+        final var from = Square.fromName(uci.substring(0, 2));
+        final var to = Square.fromName(uci.substring(2, 4));
+        if (uci.length() == 4) {
+            return new Move(from, to);
+        }
+        final var promotion = switch (Character.toLowerCase(uci.charAt(4))) {
+            case 'q' -> PieceType.QUEEN;
+            case 'r' -> PieceType.ROOK;
+            case 'b' -> PieceType.BISHOP;
+            case 'n' -> PieceType.KNIGHT;
+            default -> throw new IllegalArgumentException("Invalid promotion in move: " + uci);
+        };
+        return new Move(from, to, promotion);
+    }
+}
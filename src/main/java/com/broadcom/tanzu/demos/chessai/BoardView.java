@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+/**
+ * Everything needed to render a board, computed in a single pass by {@link BoardFormatter}.
+ * Templates only iterate over this view: no chess logic is run while rendering.
+ *
+ * @param ranks      squares by rank, from the 8th rank (top of the board) to the 1st rank
+ * @param lastMove   last move using UCI format, or <code>null</code> if no move was played
+ * @param fen        current position using FEN format
+ * @param result     game result (see {@link io.github.wolfraam.chessgame.result.ChessGameResultType}),
+ *                   or <code>null</code> if the game is in progress
+ * @param sideToMove side to move (BLACK or WHITE)
+ */
+record BoardView(
+        SquareView[][] ranks,
+        String lastMove,
+        String fen,
+        String result,
+        String sideToMove
+) {
+    /**
+     * @param name        square name (such as "e4")
+     * @param cssClass    background class: current, king-attacked, last-move, dark or light
+     * @param piece       icon classes for the piece on this square, or <code>null</code> if the square is empty
+     * @param legalTarget <code>true</code> if the selected piece can move to this square
+     * @param rankLabel   rank number to display on this square, or <code>null</code>
+     * @param fileLabel   file letter to display on this square, or <code>null</code>
+     * @param labelClass  text class used for labels, contrasting with the square color
+     */
+    record SquareView(
+            String name,
+            String cssClass,
+            String piece,
+            boolean legalTarget,
+            String rankLabel,
+            String fileLabel,
+            String labelClass
+    ) {
+    }
+}
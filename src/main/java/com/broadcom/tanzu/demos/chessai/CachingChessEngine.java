@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.move.IllegalMoveException;
+import io.github.wolfraam.chessgame.move.Move;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chess engine decorator, caching the next move for each position.
+ * <p>
+ * Positions are keyed by their Zobrist hash: openings and common positions are found
+ * across many games. Moves are cached in memory (L1), and optionally in Redis (L2),
+ * where they are shared by all app instances.
+ */
+class CachingChessEngine implements ChessEngine {
+    private static final String KEY_PREFIX = "chess::engine-cache::";
+    private final Logger logger = LoggerFactory.getLogger(CachingChessEngine.class);
+    private final ChessEngine delegate;
+    private final Cache<String, String> localCache;
+    private final StringRedisTemplate redis;
+    private final Duration sharedTtl;
+    private final String keyPrefix;
+    private final Counter localHits;
+    private final Counter sharedHits;
+    private final Counter misses;
+    private final Timer missLatency;
+    private final Counter savedTime;
+
+    /**
+     * Create a caching engine.
+     *
+     * @param redis Redis client for the shared cache (<code>null</code> to disable the shared cache)
+     */
+    CachingChessEngine(ChessEngine delegate, Cache<String, String> localCache, StringRedisTemplate redis,
+                       Duration sharedTtl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.localCache = localCache;
+        this.redis = redis;
+        this.sharedTtl = sharedTtl;
+        // Engines with different settings may return different moves: they don't share cache entries.
+        this.keyPrefix = KEY_PREFIX + delegate.toString().replace(' ', '-') + "::";
+        this.localHits = requests(meterRegistry, "local");
+        this.sharedHits = requests(meterRegistry, "shared");
+        this.misses = requests(meterRegistry, "miss");
+        this.missLatency = Timer.builder("chess.engine.cache.miss.latency")
+                .description("Time spent by the chess engine on cache misses")
+                .register(meterRegistry);
+        this.savedTime = Counter.builder("chess.engine.cache.saved.time")
+                .description("Estimated time saved by the chess engine cache")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("chess.engine.cache.requests")
+                .description("Chess engine cache requests")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game) {
+        return getNextMove(game, SearchBudget.DEFAULT);
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game, SearchBudget budget) {
+        // Engines may return different moves depending on the search budget: budgets don't share cache entries.
+        final var key = keyPrefix + budget.depthOr(delegate.searchDepth()) + ":" + budget.moveTime().toMillis()
+                + ":" + budget.nodes() + "::" + Long.toHexString(ChessPosition.of(game).hash());
+        final var localMove = toMove(game, localCache.getIfPresent(key));
+        if (localMove.isPresent()) {
+            hit(localHits);
+            return localMove;
+        }
+        if (redis != null) {
+            final var sharedMove = toMove(game, getShared(key));
+            if (sharedMove.isPresent()) {
+                localCache.put(key, game.getNotation(NotationType.UCI, sharedMove.get()));
+                hit(sharedHits);
+                return sharedMove;
+            }
+        }
+
+        misses.increment();
+        final var start = System.nanoTime();
+        final var move = delegate.getNextMove(game, budget);
+        missLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        // Engine failures are not cached: we'll try again next time.
+        move.ifPresent(m -> {
+            final var uci = game.getNotation(NotationType.UCI, m);
+            localCache.put(key, uci);
+            if (redis != null) {
+                putShared(key, uci);
+            }
+        });
+        return move;
+    }
+
+    private void hit(Counter counter) {
+        counter.increment();
+        // Each hit saves an engine call: the average engine latency is a good estimate.
+        savedTime.increment(missLatency.mean(TimeUnit.SECONDS));
+    }
+
+    private Optional<Move> toMove(ChessGame game, String uci) {
+        if (uci == null) {
+            return Optional.empty();
+        }
+        try {
+            final var move = game.getMove(NotationType.UCI, uci);
+            // A hash collision is very unlikely, but let's make sure this move can be played.
+            return game.isLegalMove(move) ? Optional.of(move) : Optional.empty();
+        } catch (IllegalMoveException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String getShared(String key) {
+        try {
+            return redis.opsForValue().get(key);
+        } catch (Exception e) {
+            // The shared cache is best effort: the engine is used when Redis is not available.
+            logger.atDebug().log("Failed to read from shared engine cache: {}", key, e);
+            return null;
+        }
+    }
+
+    private void putShared(String key, String uci) {
+        try {
+            redis.opsForValue().set(key, uci, sharedTtl);
+        } catch (Exception e) {
+            logger.atDebug().log("Failed to write to shared engine cache: {}", key, e);
+        }
+    }
+
+    @Override
+    public List<AnalysisLine> analyze(ChessGame game, int lines, SearchBudget budget) {
+        return delegate.analyze(game, lines, budget);
+    }
+
+    @Override
+    public int searchDepth() {
+        return delegate.searchDepth();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -19,7 +19,9 @@ package com.broadcom.tanzu.demos.chessai;
 import io.github.wolfraam.chessgame.ChessGame;
 import io.github.wolfraam.chessgame.move.Move;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface ChessEngine {
     /**
@@ -29,4 +31,82 @@ public interface ChessEngine {
      * @return the move to play eventually
      */
     Optional<Move> getNextMove(ChessGame game);
+
+    /**
+     * Get the next move to play, within a search budget.
+     * <p>
+     * By default, engine settings are used: engines supporting search budgets override this method.
+     *
+     * @param game   board game instance
+     * @param budget search limits
+     * @return the move to play eventually
+     */
+    default Optional<Move> getNextMove(ChessGame game, SearchBudget budget) {
+        return getNextMove(game);
+    }
+
+    /**
+     * Get the next move to play, without blocking the calling thread.
+     *
+     * @param game board game instance
+     * @return the move to play eventually
+     * @see #getNextMoveAsync(ChessGame, SearchBudget)
+     */
+    default CompletableFuture<Optional<Move>> getNextMoveAsync(ChessGame game) {
+        return getNextMoveAsync(game, SearchBudget.DEFAULT);
+    }
+
+    /**
+     * Get the next move to play within a search budget, without blocking the calling thread.
+     * <p>
+     * The game instance must not be updated until the move is returned.
+     * Cancelling the returned future cancels the engine call.
+     * By default, {@link #getNextMove(ChessGame, SearchBudget)} is called from a virtual thread.
+     *
+     * @param game   board game instance
+     * @param budget search limits
+     * @return the move to play eventually
+     */
+    default CompletableFuture<Optional<Move>> getNextMoveAsync(ChessGame game, SearchBudget budget) {
+        final var result = new CompletableFuture<Optional<Move>>();
+        final var thread = Thread.ofVirtual().name("chess-engine").start(() -> {
+            try {
+                result.complete(getNextMove(game, budget));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((move, e) -> {
+            if (result.isCancelled()) {
+                thread.interrupt();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Analyze a game: get the best moves to play within a search budget, with their scores
+     * and principal variations.
+     * <p>
+     * By default, a single line is returned (the next move) without any score:
+     * engines supporting a multi-PV search override this method.
+     *
+     * @param game   board game instance
+     * @param lines  maximum number of lines to return
+     * @param budget search limits
+     * @return analysis lines, best move first (empty if no move is found)
+     */
+    default List<AnalysisLine> analyze(ChessGame game, int lines, SearchBudget budget) {
+        return getNextMove(game, budget).map(m -> List.of(AnalysisLine.of(m))).orElse(List.of());
+    }
+
+    /**
+     * Get the search depth used by this engine when the search budget doesn't set a depth:
+     * an engine may return different moves depending on the search depth.
+     *
+     * @return the search depth, or 0 if this engine doesn't use a fixed depth
+     */
+    default int searchDepth() {
+        return 0;
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+@Configuration(proxyBeanMethods = false)
+class ChessEngineConfig {
+    private final Logger logger = LoggerFactory.getLogger(ChessEngineConfig.class);
+
+    @Bean
+    static ChessEngineDecoratorPostProcessor chessEngineDecoratorPostProcessor(ObjectProvider<ChessEngineDecorator> decorators) {
+        // This method is static since this bean is created early, before any other bean:
+        // decorators are only looked up when the chess engine is created.
+        return new ChessEngineDecoratorPostProcessor(decorators);
+    }
+
+    @Bean
+    SearchBudget searchBudget(Environment env, @Value("${app.chess.difficulty:}") String difficulty) {
+        if (difficulty.isBlank()) {
+            return SearchBudget.DEFAULT;
+        }
+        final var presets = Binder.get(env)
+                .bind("app.chess.search-budgets", Bindable.mapOf(String.class, SearchBudget.class))
+                .orElse(Map.of());
+        final var budget = presets.get(difficulty.trim());
+        if (budget == null) {
+            throw new IllegalArgumentException("Unknown difficulty '" + difficulty + "': use one of " + presets.keySet());
+        }
+        logger.atInfo().log("Using search budget for difficulty '{}': {}", difficulty, budget);
+        return budget;
+    }
+
+    @Bean
+    HttpClient chessEngineHttpClient(@Value("${app.chess.engine-http.connect-timeout:5s}") Duration connectTimeout) {
+        // This client is shared by HTTP chess engines: connections are kept alive in a single pool
+        // (see EngineHttpPoolConfigurer for pool settings).
+        // Response handlers run on virtual threads, so that no platform thread waits for an engine.
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @Bean(destroyMethod = "")
+    @Primary
+    ChessEngine chessEngine(ListableBeanFactory beanFactory, Environment env,
+                            @Value("${app.chess.engine:stockfishonline}") String engine,
+                            @Value("${app.chess.hedge.engines:}") List<String> hedgeEngines,
+                            @Value("${app.chess.hedge.timeout:10s}") Duration timeout,
+                            @Value("${app.chess.hedge.percentile:0.9}") double percentile,
+                            @Value("${app.chess.hedge.min-delay:200ms}") Duration minDelay,
+                            @Value("${app.chess.hedge.initial-delay:2s}") Duration initialDelay,
+                            ObjectProvider<MeterRegistry> meterRegistry) {
+        // Engine beans are qualified with their name: see ConditionalOnChessEngine.
+        final var primary = BeanFactoryAnnotationUtils.qualifiedBeanOfType(beanFactory, ChessEngine.class, engine.trim());
+        if (hedgeEngines.isEmpty()) {
+            return primary;
+        }
+
+        final var timeouts = Binder.get(env)
+                .bind("app.chess.hedge.timeouts", Bindable.mapOf(String.class, Duration.class))
+                .orElse(Map.of());
+        final var contenders = new ArrayList<HedgedChessEngine.Contender>(1 + hedgeEngines.size());
+        contenders.add(new HedgedChessEngine.Contender(engine.trim(), primary, timeouts.getOrDefault(engine.trim(), timeout)));
+        for (final var name : hedgeEngines) {
+            final var hedge = BeanFactoryAnnotationUtils.qualifiedBeanOfType(beanFactory, ChessEngine.class, name.trim());
+            contenders.add(new HedgedChessEngine.Contender(name.trim(), hedge, timeouts.getOrDefault(name.trim(), timeout)));
+        }
+        logger.atInfo().log("Racing chess engines: {}", contenders.stream().map(HedgedChessEngine.Contender::name).toList());
+        return new HedgedChessEngine(contenders, percentile, minDelay, initialDelay, meterRegistry.getObject());
+    }
+}
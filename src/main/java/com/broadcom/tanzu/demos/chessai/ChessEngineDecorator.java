@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Add a feature to the chess engine in use (such as caching), whatever the implementation.
+ * <p>
+ * Decorators are applied to the <code>chessEngine</code> bean in order:
+ * a decorator with a lower order is applied first, and ends up closer to the actual engine.
+ */
+interface ChessEngineDecorator extends Ordered {
+    ChessEngine decorate(ChessEngine engine);
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Apply {@link ChessEngineDecorator} beans to the <code>chessEngine</code> bean.
+ */
+class ChessEngineDecoratorPostProcessor implements BeanPostProcessor {
+    static final String CHESS_ENGINE_BEAN = "chessEngine";
+    private final Logger logger = LoggerFactory.getLogger(ChessEngineDecoratorPostProcessor.class);
+    private final ObjectProvider<ChessEngineDecorator> decorators;
+
+    ChessEngineDecoratorPostProcessor(ObjectProvider<ChessEngineDecorator> decorators) {
+        this.decorators = decorators;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (!CHESS_ENGINE_BEAN.equals(beanName) || !(bean instanceof ChessEngine engine)) {
+            return bean;
+        }
+        var decoratedEngine = engine;
+        for (final var decorator : decorators.orderedStream().toList()) {
+            logger.atDebug().log("Decorating chess engine {} with {}", engine, decorator);
+            decoratedEngine = decorator.decorate(decoratedEngine);
+        }
+        return decoratedEngine;
+    }
+}
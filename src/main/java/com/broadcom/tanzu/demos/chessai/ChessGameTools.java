@@ -17,28 +17,37 @@
 package com.broadcom.tanzu.demos.chessai;
 
 import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.board.Square;
+import io.github.wolfraam.chessgame.move.Move;
 import io.github.wolfraam.chessgame.notation.NotationType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Tools used by the LLM to answer player questions and find out the next move to play.
  * Those tools provide additional context for the LLM, giving hints about the current game.
  */
+@RegisterReflectionForBinding(ChessGameTools.CandidateMove.class)
 class ChessGameTools {
+    private static final int MAX_ANALYSIS_LINES = 5;
     private final Logger logger = LoggerFactory.getLogger(com.broadcom.tanzu.demos.chessai.ChessGameTools.class);
+    private final Board board;
     private final ChessGame game;
     private final ChessEngine chessEngine;
+    private final SearchBudget searchBudget;
 
-    ChessGameTools(ChessGame game, ChessEngine chessEngine) {
-        this.game = game;
+    ChessGameTools(Board board, ChessEngine chessEngine, SearchBudget searchBudget) {
+        this.board = board;
+        this.game = board.game();
         this.chessEngine = chessEngine;
+        this.searchBudget = searchBudget;
     }
 
     @Tool(description = """
@@ -61,8 +70,12 @@ class ChessGameTools {
             """)
     Map<String, String> getOccupiedSquares() {
         final var squares = new HashMap<String, String>(16);
-        for (final var sq : game.getOccupiedSquares()) {
-            squares.put(sq.name(), game.getPiece(sq).name());
+        final var position = position();
+        for (int i = 0; i < 64; ++i) {
+            final var piece = position.piece(i);
+            if (piece != null) {
+                squares.put(Square.fromCoordinates(i % 8, i / 8).name(), piece.name());
+            }
         }
         logger.atTrace().log("Getting occupied squares: {}", squares);
         return squares;
@@ -76,13 +89,47 @@ class ChessGameTools {
             """)
     String guessNextMove() {
         logger.atTrace().log("About to use {} to guess next move", chessEngine);
-        final var move = chessEngine.getNextMove(game)
+        final var move = chessEngine.getNextMove(game, searchBudget.adaptTo(game))
                 .map(m -> game.getNotation(NotationType.UCI, m))
                 .orElse(null);
         logger.atTrace().log("Guessed next move: {}", move);
         return move;
     }
 
+    @Tool(description = """
+            Analyze the best moves to play in the current position, using a chess engine.
+            Use this tool to compare options with a single call, instead of guessing moves one by one.
+            
+            This tool returns up to 'count' candidate moves (from 1 to 5), best move first.
+            Each candidate move defines:
+            - move: the move to play using Universal Chess Interface (UCI) format
+            - centipawns: the score for the side to move (100 centipawns is worth a pawn)
+            - mate: the number of moves before checkmate (positive if the side to move checkmates, negative otherwise)
+            - line: the moves expected to be played next, starting with this move (using UCI format)
+            Scores are 'null' if the chess engine doesn't provide them.
+            """)
+    List<CandidateMove> analyzeMoves(int count) {
+        final var lines = Math.clamp(count, 1, MAX_ANALYSIS_LINES);
+        logger.atTrace().log("About to use {} to analyze {} lines", chessEngine, lines);
+        final var candidates = chessEngine.analyze(game, lines, searchBudget.adaptTo(game)).stream()
+                .map(line -> new CandidateMove(game.getNotation(NotationType.UCI, line.move()),
+                        line.centipawns(), line.mate(), toUci(line.principalVariation())))
+                .toList();
+        logger.atTrace().log("Analyzed moves: {}", candidates);
+        return candidates;
+    }
+
+    private List<String> toUci(List<Move> moves) {
+        // Moves are played one after the other: each move is converted in its own position.
+        final var next = game.clone();
+        final var uci = new ArrayList<String>(moves.size());
+        for (final var move : moves) {
+            uci.add(next.getNotation(NotationType.UCI, move));
+            next.playMove(move);
+        }
+        return uci;
+    }
+
     @Tool(description = """
             Get a list of moves played in the game.
             Each move is defined using the Universal Chess Interface (UCI) format.
@@ -92,7 +139,7 @@ class ChessGameTools {
             For example: ["e2e3", "g8f6", "e2e4", "e7e5", "f1h3", "a7a5"].
             """)
     List<String> getPlayedMoves() {
-        final var moves = game.getMoves().stream().map(m -> game.getNotation(NotationType.UCI, m)).collect(Collectors.toList());
+        final var moves = board.moves();
         logger.atTrace().log("Played moves: {}", moves);
         return moves;
     }
@@ -102,7 +149,7 @@ class ChessGameTools {
             The move is defined using the Universal Chess Interface (UCI) format.
             """)
     boolean isLegalMove(String move) {
-        final var legal = game.isLegalMove(game.getMove(NotationType.UCI, move));
+        final var legal = position().isLegalMove(game.getMove(NotationType.UCI, move));
         logger.atTrace().log("Is move {} legal? {}", move, legal ? "Yes." : "No.");
         return legal;
     }
@@ -112,11 +159,12 @@ class ChessGameTools {
             This tool returns BLACK, WHITE or 'null' if the game is done.
             """)
     String getSideToMove() {
-        if (game.getGameResult() != null) {
+        final var position = position();
+        if (position.result() != null) {
             logger.atTrace().log("Reading side to move but the game is done");
             return null;
         }
-        final var side = game.getSideToMove().name();
+        final var side = position.sideToMove().name();
         logger.atTrace().log("Reading side to move from current game: {}", side);
         return side;
     }
@@ -127,7 +175,7 @@ class ChessGameTools {
             If the game is done, no more move can be played.
             """)
     boolean isGameDone() {
-        final var done = game.getGameResultType() != null;
+        final var done = position().result() != null;
         logger.atTrace().log("Is game done? {}", done ? "Yes." : "No.");
         return done;
     }
@@ -137,7 +185,7 @@ class ChessGameTools {
             Use this tool to analyze all the moves played in the game.
             """)
     String getPGNData() {
-        final var pgn = ChessGameUtils.getPGNData(game);
+        final var pgn = ChessGameUtils.getPGNData(board.fullGame());
         logger.atTrace().log("Getting PGN data: {}", pgn);
         return pgn;
     }
@@ -153,7 +201,7 @@ class ChessGameTools {
             - IN_PROGRESS
             """)
     String getGameResult() {
-        final var gameResult = game.getGameResultType();
+        final var gameResult = position().result();
         if (gameResult == null) {
             logger.atTrace().log("Reading game result: game is in progress");
             return "IN_PROGRESS";
@@ -162,4 +210,12 @@ class ChessGameTools {
         logger.atTrace().log("Reading game result from current game: {}", r);
         return r;
     }
+
+    private ChessPosition position() {
+        // Tools are called many times for the same position: the snapshot is only computed once.
+        return ChessPosition.of(game);
+    }
+
+    record CandidateMove(String move, Integer centipawns, Integer mate, List<String> line) {
+    }
 }
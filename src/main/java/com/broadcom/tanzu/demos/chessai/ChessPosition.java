@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.board.Piece;
+import io.github.wolfraam.chessgame.board.PieceType;
+import io.github.wolfraam.chessgame.board.Side;
+import io.github.wolfraam.chessgame.board.Square;
+import io.github.wolfraam.chessgame.move.Move;
+import io.github.wolfraam.chessgame.result.ChessGameResultType;
+
+/**
+ * Immutable snapshot of a chess position, backed by primitive arrays.
+ * <p>
+ * A {@link ChessGame} recomputes legal moves, checks and notations on each call:
+ * this snapshot computes them once per position, so that rendering a board or answering
+ * tool calls doesn't generate moves over and over again.
+ * Squares are indexed from 0 (A1) to 63 (H8), using {@code y * 8 + x}.
+ */
+final class ChessPosition {
+    private static final Piece[] PIECES = Piece.values();
+    // Snapshots are shared as long as a game is not updated.
+    // Games are compared by identity, and they are released as soon as they are no longer used.
+    private static final Cache<ChessGame, ChessPosition> POSITIONS = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(1024)
+            .build();
+
+    // Piece ordinal + 1 for each square, 0 if the square is empty.
+    private final byte[] pieces = new byte[64];
+    // Legal target squares for each source square.
+    private final long[] targets = new long[64];
+    private final Side sideToMove;
+    private final boolean kingAttacked;
+    private final int kingSquare;
+    private final int legalMoveCount;
+    private final int occupiedCount;
+    private final int plies;
+    private final Move lastMove;
+    private final ChessGameResultType result;
+    private final String fen;
+    // Volatile: a plain long may be read half-written on some JVMs.
+    private volatile long hash;
+
+    private ChessPosition(ChessGame game) {
+        int occupied = 0;
+        int king = -1;
+        sideToMove = game.getSideToMove();
+        for (final var sq : game.getOccupiedSquares()) {
+            final var piece = game.getPiece(sq);
+            pieces[index(sq)] = (byte) (piece.ordinal() + 1);
+            occupied += 1;
+            if (piece.pieceType == PieceType.KING && piece.side == sideToMove) {
+                king = index(sq);
+            }
+        }
+        int count = 0;
+        for (final var move : game.getLegalMoves()) {
+            // Promotions share the same target square: each one is still counted as a legal move.
+            targets[index(move.from)] |= 1L << index(move.to);
+            count += 1;
+        }
+        occupiedCount = occupied;
+        kingSquare = king;
+        legalMoveCount = count;
+        kingAttacked = game.isKingAttacked();
+        plies = game.getMoves().size();
+        lastMove = game.getLastMove();
+        result = game.getGameResultType();
+        fen = game.getFen();
+    }
+
+    /**
+     * Get a snapshot of the current position of a game.
+     * Snapshots are reused until a new move is played.
+     */
+    static ChessPosition of(ChessGame game) {
+        final var cached = POSITIONS.getIfPresent(game);
+        if (cached != null && cached.isCurrent(game)) {
+            return cached;
+        }
+        final var position = new ChessPosition(game);
+        POSITIONS.put(game, position);
+        return position;
+    }
+
+    private boolean isCurrent(ChessGame game) {
+        // Moves are only appended to a game: the move count and the last move are enough
+        // to find out if this game has changed.
+        return game.getLastMove() == lastMove && game.getMoves().size() == plies;
+    }
+
+    static int index(Square sq) {
+        return sq.y * 8 + sq.x;
+    }
+
+    static int index(int x, int y) {
+        return y * 8 + x;
+    }
+
+    Piece piece(int square) {
+        final int p = pieces[square];
+        return p == 0 ? null : PIECES[p - 1];
+    }
+
+    Piece piece(Square sq) {
+        return piece(index(sq));
+    }
+
+    /**
+     * Get the legal target squares for a piece on this square, as a bitset.
+     */
+    long legalTargets(int square) {
+        return targets[square];
+    }
+
+    boolean isLegalTarget(int from, int to) {
+        return (targets[from] & (1L << to)) != 0;
+    }
+
+    boolean isLegalMove(Move move) {
+        final int from = index(move.from);
+        final int to = index(move.to);
+        if (!isLegalTarget(from, to)) {
+            return false;
+        }
+        // A pawn reaching the last rank must be promoted.
+        final boolean promoting = pieces[from] != 0 && piece(from).pieceType == PieceType.PAWN
+                && (move.to.y == 0 || move.to.y == 7);
+        return promoting == (move.promotion != null);
+    }
+
+    int legalMoveCount() {
+        return legalMoveCount;
+    }
+
+    int occupiedCount() {
+        return occupiedCount;
+    }
+
+    Side sideToMove() {
+        return sideToMove;
+    }
+
+    boolean isKingAttacked() {
+        return kingAttacked;
+    }
+
+    /**
+     * Get the square of the king of the side to move, or -1 if there's no such king.
+     */
+    int kingSquare() {
+        return kingSquare;
+    }
+
+    Move lastMove() {
+        return lastMove;
+    }
+
+    /**
+     * Get the last move using Universal Chess Interface (UCI) format, or <code>null</code>
+     * if no move was played.
+     */
+    String lastMoveUci() {
+        if (lastMove == null) {
+            return null;
+        }
+        final var uci = lastMove.from.name + lastMove.to.name;
+        return lastMove.promotion == null ? uci : uci + switch (lastMove.promotion) {
+            case KNIGHT -> 'n';
+            case BISHOP -> 'b';
+            case ROOK -> 'r';
+            default -> 'q';
+        };
+    }
+
+    /**
+     * Get the game result, or <code>null</code> if the game is in progress.
+     */
+    ChessGameResultType result() {
+        return result;
+    }
+
+    String fen() {
+        return fen;
+    }
+
+    long hash() {
+        // Computed on demand: a race would only compute the same value twice.
+        long h = hash;
+        if (h == 0) {
+            h = ZobristHash.of(fen);
+            hash = h;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import org.springframework.context.annotation.Conditional;
+
+import java.lang.annotation.*;
+
+/**
+ * Enable a configuration when a chess engine is in use, either as the main chess engine
+ * (<code>app.chess.engine</code>), as a hedge engine (<code>app.chess.hedge.engines</code>)
+ * or to analyze games (<code>app.chess.analysis.engine</code>).
+ * <p>
+ * Engine beans should be qualified with the engine name (using <code>@Qualifier</code>).
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Conditional(OnChessEngineCondition.class)
+public @interface ConditionalOnChessEngine {
+    /**
+     * Engine name.
+     */
+    String value();
+
+    /**
+     * Enable this configuration when no main chess engine is set.
+     */
+    boolean matchIfMissing() default false;
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.chess.engine-cache.enabled", havingValue = "true")
+class EngineCacheConfig {
+    @Bean
+    ChessEngineDecorator engineCacheDecorator(@Value("${app.chess.engine-cache.maximum-size:100000}") long maximumSize,
+                                              @Value("${app.chess.engine-cache.shared:true}") boolean shared,
+                                              @Value("${app.chess.engine-cache.shared-ttl:30d}") Duration sharedTtl,
+                                              ObjectProvider<StringRedisTemplate> redis,
+                                              ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ChessEngineDecorator() {
+            @Override
+            public ChessEngine decorate(ChessEngine engine) {
+                final var localCache = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().<String, String>build();
+                // Hits, misses and evictions are available from the metrics endpoint (cache.gets, cache.evictions).
+                CaffeineCacheMetrics.monitor(meterRegistry.getObject(), localCache, "engine-moves");
+                return new CachingChessEngine(engine, localCache, shared ? redis.getIfAvailable() : null,
+                        sharedTtl, meterRegistry.getObject());
+            }
+
+            @Override
+            public int getOrder() {
+                // A cache hit saves any other work: only the opening book is checked before the cache.
+                return Ordered.LOWEST_PRECEDENCE - 100;
+            }
+
+            @Override
+            public String toString() {
+                return "engine cache";
+            }
+        };
+    }
+}
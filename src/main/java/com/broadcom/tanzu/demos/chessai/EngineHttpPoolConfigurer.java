@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.time.Duration;
+
+/**
+ * Tune the connection pool used by HTTP chess engines.
+ * <p>
+ * The JDK HTTP client reads its pool settings from system properties, once for all clients,
+ * when the first client is created: these properties are set before any bean is created.
+ */
+class EngineHttpPoolConfigurer implements EnvironmentPostProcessor {
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment env, SpringApplication application) {
+        final var binder = Binder.get(env);
+        binder.bind("app.chess.engine-http.pool-size", Integer.class)
+                .ifBound(poolSize -> setIfAbsent("jdk.httpclient.connectionPoolSize", String.valueOf(poolSize)));
+        binder.bind("app.chess.engine-http.keep-alive", Duration.class)
+                .ifBound(keepAlive -> setIfAbsent("jdk.httpclient.keepalive.timeout",
+                        String.valueOf(Math.max(1, keepAlive.toSeconds()))));
+    }
+
+    private static void setIfAbsent(String key, String value) {
+        // Values set on the command line (using -D) always win.
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Analysis of a game, in progress: move reviews are completed as soon as positions are evaluated.
+ *
+ * @param moves   moves played in the game
+ * @param reviews a review for each move, in the same order
+ */
+record GameAnalysis(List<PlayedMove> moves, List<CompletableFuture<MoveReview>> reviews) {
+    /**
+     * @param ply    move index in the game, starting with 0
+     * @param number move number, as displayed in a PGN
+     * @param side   side playing this move
+     * @param san    move in Standard Algebraic Notation
+     */
+    record PlayedMove(int ply, int number, String side, String san) {
+    }
+
+    /**
+     * @param ply            move index in the game
+     * @param evaluation     position evaluation after this move, from White (such as <code>+0.35</code> or <code>#-2</code>)
+     * @param bestMove       best move according to the chess engine, in Standard Algebraic Notation
+     * @param classification move classification, or <code>null</code> if the engine is unable to evaluate this move
+     */
+    record MoveReview(int ply, String evaluation, String bestMove, Classification classification) {
+    }
+
+    enum Classification {
+        BEST,
+        GOOD,
+        INACCURACY,
+        MISTAKE,
+        BLUNDER
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+class GameAnalysisConfig {
+    private final Logger logger = LoggerFactory.getLogger(GameAnalysisConfig.class);
+
+    @Bean
+    GameAnalyzer gameAnalyzer(ListableBeanFactory beanFactory, ChessEngine chessEngine,
+                              @Value("${app.chess.analysis.engine:}") String engine,
+                              @Value("${app.chess.analysis.depth:8}") int depth,
+                              @Value("${app.chess.analysis.move-time:500ms}") Duration moveTime,
+                              @Value("${app.chess.analysis.parallelism:0}") int parallelism,
+                              @Value("${app.chess.analysis.cache-size:100}") long cacheSize,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
+        // Games may be analyzed with a dedicated engine: the engine used to play is used by default.
+        final var analysisEngine = engine.isBlank() ? chessEngine :
+                BeanFactoryAnnotationUtils.qualifiedBeanOfType(beanFactory, ChessEngine.class, engine.trim());
+        final var threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        logger.atInfo().log("Analyzing games with {} (parallelism: {})", analysisEngine, threads);
+
+        final var cache = Caffeine.newBuilder().maximumSize(cacheSize).recordStats().<String, GameAnalysis>build();
+        CaffeineCacheMetrics.monitor(meterRegistry.getObject(), cache, "game-analyses");
+        return new GameAnalyzer(analysisEngine, new SearchBudget(depth, moveTime, 0), threads, cache);
+    }
+}
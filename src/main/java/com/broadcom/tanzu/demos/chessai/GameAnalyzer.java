@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.board.Side;
+import io.github.wolfraam.chessgame.move.Move;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Analyze games in parallel: every position is evaluated by a chess engine, and moves are classified
+ * by comparing evaluations before and after each move.
+ * <p>
+ * Analyses are cached by game version: a game which is analyzed again is not replayed.
+ */
+class GameAnalyzer implements AutoCloseable {
+    // Evaluations are capped: a mate is only worth this score, and a huge advantage is a win anyway.
+    private static final int MAX_CENTIPAWNS = 1000;
+    private final Logger logger = LoggerFactory.getLogger(GameAnalyzer.class);
+    private final ChessEngine engine;
+    private final SearchBudget budget;
+    private final ForkJoinPool pool;
+    private final Cache<String, GameAnalysis> cache;
+
+    GameAnalyzer(ChessEngine engine, SearchBudget budget, int parallelism, Cache<String, GameAnalysis> cache) {
+        this.engine = engine;
+        this.budget = budget;
+        this.pool = new ForkJoinPool(parallelism);
+        this.cache = cache;
+    }
+
+    /**
+     * Analyze a game: the analysis is started in the background if this game version was not analyzed yet.
+     */
+    GameAnalysis analyze(Board board) {
+        // Moves are never taken back: the number of moves played is the game version.
+        final var game = board.fullGame();
+        final var moves = board.moves();
+        return cache.get(board.id() + ":" + moves.size(), key -> start(key, game.getInitialFen(), moves));
+    }
+
+    private GameAnalysis start(String key, String initialFen, List<String> moves) {
+        logger.atInfo().log("Analyzing game {} with {} ({} moves)", key, engine, moves.size());
+
+        // The game is replayed once: each position is then evaluated in parallel.
+        final var game = new ChessGame(initialFen);
+        final var positions = new ArrayList<ChessGame>(moves.size() + 1);
+        final var playedMoves = new ArrayList<GameAnalysis.PlayedMove>(moves.size());
+        positions.add(game.clone());
+        for (int ply = 0; ply < moves.size(); ++ply) {
+            final var move = game.getMove(NotationType.UCI, moves.get(ply));
+            playedMoves.add(new GameAnalysis.PlayedMove(ply, game.getFullMoveCount(), game.getSideToMove().name(),
+                    game.getNotation(NotationType.SAN, move)));
+            game.playMove(move);
+            positions.add(game.clone());
+        }
+
+        final var evaluations = positions.stream()
+                .map(position -> CompletableFuture.supplyAsync(() -> evaluate(position), pool))
+                .toList();
+        final var reviews = new ArrayList<CompletableFuture<GameAnalysis.MoveReview>>(moves.size());
+        for (int ply = 0; ply < moves.size(); ++ply) {
+            final var p = ply;
+            reviews.add(evaluations.get(ply).thenCombine(evaluations.get(ply + 1),
+                    (before, after) -> review(p, positions.get(p), moves.get(p), before, after, positions.get(p + 1))));
+        }
+        CompletableFuture.allOf(reviews.toArray(CompletableFuture[]::new))
+                .thenRun(() -> logger.atInfo().log("Analyzed game {}", key));
+        return new GameAnalysis(List.copyOf(playedMoves), List.copyOf(reviews));
+    }
+
+    private Evaluation evaluate(ChessGame position) {
+        if (position.getGameResultType() != null) {
+            // There's no need for an engine when the game is done:
+            // the side to move is either checkmated, or this game is a draw.
+            return position.isKingAttacked() ? new Evaluation(-MAX_CENTIPAWNS, 0, null) : new Evaluation(0, null, null);
+        }
+        try {
+            final var lines = engine.analyze(position, 1, budget);
+            if (lines.isEmpty()) {
+                return Evaluation.UNKNOWN;
+            }
+            final var line = lines.getFirst();
+            final Integer centipawns;
+            if (line.mate() != null) {
+                centipawns = line.mate() > 0 ? MAX_CENTIPAWNS : -MAX_CENTIPAWNS;
+            } else if (line.centipawns() != null) {
+                centipawns = Math.clamp(line.centipawns(), -MAX_CENTIPAWNS, MAX_CENTIPAWNS);
+            } else {
+                centipawns = null;
+            }
+            return new Evaluation(centipawns, line.mate(), line.move());
+        } catch (Exception e) {
+            logger.atWarn().log("Failed to evaluate position: {}", position.getFen(), e);
+            return Evaluation.UNKNOWN;
+        }
+    }
+
+    private static GameAnalysis.MoveReview review(int ply, ChessGame before, String move,
+                                                  Evaluation e0, Evaluation e1, ChessGame after) {
+        final var bestMove = e0.bestMove() == null ? null : before.getNotation(NotationType.SAN, e0.bestMove());
+        final GameAnalysis.Classification classification;
+        if (e0.bestMove() != null && move.equals(before.getNotation(NotationType.UCI, e0.bestMove()))) {
+            classification = GameAnalysis.Classification.BEST;
+        } else if (e0.centipawns() == null || e1.centipawns() == null) {
+            classification = null;
+        } else {
+            // Evaluations are given from the side to move: the next position is evaluated by the opponent.
+            classification = classify(winPercent(e0.centipawns()) - winPercent(-e1.centipawns()));
+        }
+        return new GameAnalysis.MoveReview(ply, format(e1, after.getSideToMove()), bestMove, classification);
+    }
+
+    /**
+     * Classify a move, depending on the winning chances lost by playing this move (from 0 to 100).
+     */
+    static GameAnalysis.Classification classify(double winPercentLoss) {
+        if (winPercentLoss >= 30) {
+            return GameAnalysis.Classification.BLUNDER;
+        }
+        if (winPercentLoss >= 20) {
+            return GameAnalysis.Classification.MISTAKE;
+        }
+        if (winPercentLoss >= 10) {
+            return GameAnalysis.Classification.INACCURACY;
+        }
+        return GameAnalysis.Classification.GOOD;
+    }
+
+    /**
+     * Convert an evaluation to winning chances (from 0 to 100): losing a pawn in a balanced position
+     * is worse than losing a pawn when a side is already winning.
+     */
+    static double winPercent(int centipawns) {
+        return 50 + 50 * (2 / (1 + Math.exp(-0.00368208 * centipawns)) - 1);
+    }
+
+    private static String format(Evaluation e, Side sideToMove) {
+        final var sign = sideToMove == Side.WHITE ? 1 : -1;
+        if (e.mate() != null) {
+            return e.mate() == 0 ? "#" : "#" + e.mate() * sign;
+        }
+        if (e.centipawns() == null) {
+            return "?";
+        }
+        return String.format(Locale.ROOT, "%+.2f", e.centipawns() * sign / 100.0);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Position evaluation, from the side to move.
+     *
+     * @param centipawns capped score (<code>null</code> if unknown)
+     * @param mate       number of moves before checkmate (0 if the side to move is checkmated)
+     * @param bestMove   best move to play
+     */
+    private record Evaluation(Integer centipawns, Integer mate, Move bestMove) {
+        static final Evaluation UNKNOWN = new Evaluation(null, null, null);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Game event, as published to the game event log.
+ * Depending on the event type, some fields may be <code>null</code>.
+ *
+ * @param id       event id (assigned by the event log)
+ * @param type     event type
+ * @param boardId  board id
+ * @param move     move in UCI notation ({@link Type#MOVE_PLAYED})
+ * @param player   who played the move ({@link Type#MOVE_PLAYED})
+ * @param fen      position after the move ({@link Type#MOVE_PLAYED})
+ * @param error    error ({@link Type#AI_ERROR})
+ * @param question question asked by the player ({@link Type#QUESTION_ASKED})
+ */
+record GameEvent(
+        String id,
+        Type type,
+        String boardId,
+        String move,
+        Player player,
+        String fen,
+        Board.Error error,
+        String question
+) {
+    enum Type {
+        GAME_CREATED,
+        MOVE_PLAYED,
+        AI_ERROR,
+        QUESTION_ASKED
+    }
+
+    enum Player {
+        HUMAN,
+        AI
+    }
+
+    static GameEvent gameCreated(String boardId) {
+        return new GameEvent(null, Type.GAME_CREATED, boardId, null, null, null, null, null);
+    }
+
+    static GameEvent movePlayed(String boardId, String move, Player player, String fen) {
+        return new GameEvent(null, Type.MOVE_PLAYED, boardId, move, player, fen, null, null);
+    }
+
+    static GameEvent aiError(String boardId, Board.Error error) {
+        return new GameEvent(null, Type.AI_ERROR, boardId, null, null, null, error, null);
+    }
+
+    static GameEvent questionAsked(String boardId, String question) {
+        return new GameEvent(null, Type.QUESTION_ASKED, boardId, null, null, null, null, question);
+    }
+
+    /**
+     * Get event fields (only non-null fields are included).
+     */
+    Map<String, String> toFields() {
+        final var fields = new LinkedHashMap<String, String>(8);
+        fields.put("type", type.name());
+        fields.put("board", boardId);
+        if (move != null) {
+            fields.put("move", move);
+        }
+        if (player != null) {
+            fields.put("player", player.name());
+        }
+        if (fen != null) {
+            fields.put("fen", fen);
+        }
+        if (error != null) {
+            fields.put("error", error.name());
+        }
+        if (question != null) {
+            fields.put("question", question);
+        }
+        return fields;
+    }
+
+    static GameEvent fromFields(String id, Map<?, ?> fields) {
+        final var player = (String) fields.get("player");
+        final var error = (String) fields.get("error");
+        return new GameEvent(id, Type.valueOf((String) fields.get("type")), (String) fields.get("board"),
+                (String) fields.get("move"), player == null ? null : Player.valueOf(player),
+                (String) fields.get("fen"), error == null ? null : Board.Error.valueOf(error),
+                (String) fields.get("question"));
+    }
+}
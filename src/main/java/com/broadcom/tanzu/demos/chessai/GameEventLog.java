@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of game events, backed by a Redis Stream.
+ * <p>
+ * The stream is not stored in the same Redis Cluster slot as board keys, so it cannot be updated
+ * by the save script: {@link RedisBoardRepository} writes game events with the board, in a stream
+ * stored next to the board keys, and then relays these events to this log using a second round trip.
+ * Events left behind (if the app stops right after a save) are relayed the next time the board is saved,
+ * or before it's archived. Events are delivered at least once: consumers must be ready to get duplicates.
+ * Workers (analytics, archival...) process events in batches using consumer groups:
+ * each event is delivered to a single consumer in a group, and it's kept as pending
+ * until it's acknowledged. Pending events are delivered again when a consumer restarts.
+ */
+@Component
+// This feature is only available when boards are stored in Redis.
+@ConditionalOnExpression("'${app.chess.storage:redis}' == 'redis' and ${app.chess.events.enabled:false}")
+class GameEventLog {
+    static final String STREAM_KEY = "chess::events";
+    private final Logger logger = LoggerFactory.getLogger(GameEventLog.class);
+    private final StringRedisTemplate redis;
+    private final long maxLength;
+
+    GameEventLog(StringRedisTemplate redis, @Value("${app.chess.events.max-length:1000000}") long maxLength) {
+        this.redis = redis;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Append an event to the log, using the given operations (which may be part of a pipeline).
+     */
+    void append(RedisOperations<String, String> operations, GameEvent event) {
+        // The oldest events are removed when the max length is reached (approximately, for efficiency).
+        operations.opsForStream().add(StreamRecords.string(event.toFields()).withStreamKey(STREAM_KEY),
+                RedisStreamCommands.XAddOptions.maxlen(maxLength).approximateTrimming(true));
+    }
+
+    /**
+     * Create a consumer group, if it doesn't exist yet: this group will receive events
+     * published after it was created.
+     */
+    void createGroup(String group) {
+        try {
+            redis.opsForStream().createGroup(STREAM_KEY, ReadOffset.latest(), group);
+        } catch (RedisSystemException e) {
+            final var msg = e.getMostSpecificCause().getMessage();
+            if (msg == null || !msg.startsWith("BUSYGROUP")) {
+                throw e;
+            }
+            logger.atDebug().log("Consumer group already exists: {}", group);
+        }
+    }
+
+    /**
+     * Read new events for a consumer in a group: these events must be acknowledged once processed.
+     */
+    List<GameEvent> read(String group, String consumer, int count, Duration timeout) {
+        return read(group, consumer, StreamReadOptions.empty().count(count).block(timeout), ReadOffset.lastConsumed());
+    }
+
+    /**
+     * Read events delivered to a consumer in a group which were not acknowledged:
+     * call this method when a consumer starts, to resume processing after a failure.
+     */
+    List<GameEvent> readPending(String group, String consumer, int count) {
+        return read(group, consumer, StreamReadOptions.empty().count(count), ReadOffset.from("0"));
+    }
+
+    void acknowledge(String group, List<GameEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        redis.opsForStream().acknowledge(STREAM_KEY, group, events.stream().map(GameEvent::id).toArray(String[]::new));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<GameEvent> read(String group, String consumer, StreamReadOptions options, ReadOffset offset) {
+        final var records = redis.opsForStream().read(Consumer.from(group, consumer), options,
+                StreamOffset.create(STREAM_KEY, offset));
+        if (records == null) {
+            return List.of();
+        }
+        final var events = new ArrayList<GameEvent>(records.size());
+        for (final var r : records) {
+            events.add(GameEvent.fromFields(r.getId().getValue(), r.getValue()));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.move.Move;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Chess engine racing several engines for the next move.
+ * <p>
+ * The primary engine is called first: when it doesn't answer within a latency threshold
+ * (a percentile of its recent latencies), the next engine is called as well, and so on.
+ * The first legal move wins. Each engine call has its own timeout.
+ */
+class HedgedChessEngine implements ChessEngine {
+    private final Logger logger = LoggerFactory.getLogger(HedgedChessEngine.class);
+    private final List<Contender> contenders;
+    private final LatencyWindow primaryLatencies;
+    private final double percentile;
+    private final Duration minDelay;
+    private final Duration initialDelay;
+    private final Counter hedges;
+    private final MeterRegistry meterRegistry;
+
+    record Contender(String name, ChessEngine engine, Duration timeout) {
+    }
+
+    /**
+     * Create a hedged engine.
+     *
+     * @param contenders   engines to race, starting with the primary engine
+     * @param percentile   latency percentile of the primary engine used as the hedge threshold (such as 0.9)
+     * @param minDelay     minimum delay before sending a hedge request
+     * @param initialDelay delay before sending a hedge request, until enough latencies are known
+     */
+    HedgedChessEngine(List<Contender> contenders, double percentile, Duration minDelay, Duration initialDelay,
+                      MeterRegistry meterRegistry) {
+        if (contenders.isEmpty()) {
+            throw new IllegalArgumentException("No chess engine to race");
+        }
+        this.contenders = List.copyOf(contenders);
+        this.percentile = percentile;
+        this.minDelay = minDelay;
+        this.initialDelay = initialDelay;
+        this.primaryLatencies = new LatencyWindow(128);
+        this.meterRegistry = meterRegistry;
+        this.hedges = Counter.builder("chess.engine.hedge.requests")
+                .description("Hedge requests sent to secondary chess engines")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game) {
+        return getNextMove(game, SearchBudget.DEFAULT);
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game, SearchBudget budget) {
+        final var delay = hedgeDelay();
+        final var attempts = new ArrayList<Attempt>(contenders.size());
+        try {
+            attempts.add(start(contenders.getFirst(), game, budget));
+            long nextHedge = System.nanoTime() + delay.toNanos();
+            while (true) {
+                for (final var a : attempts) {
+                    final var move = a.move(game);
+                    if (move.isPresent()) {
+                        meterRegistry.counter("chess.engine.hedge.wins", "engine", a.contender().name()).increment();
+                        return move;
+                    }
+                }
+                final var running = attempts.stream().filter(a -> !a.result().isDone()).toList();
+                final var canHedge = attempts.size() < contenders.size();
+                if (running.isEmpty() && !canHedge) {
+                    logger.atWarn().log("No chess engine found a move for game: {}", game.getFen());
+                    return Optional.empty();
+                }
+                final long now = System.nanoTime();
+                if (canHedge && (running.isEmpty() || now >= nextHedge)) {
+                    // Every engine failed so far, or the fastest one is too slow: let's ask another engine.
+                    final var contender = contenders.get(attempts.size());
+                    logger.atDebug().log("Sending hedge request to chess engine: {}", contender.name());
+                    hedges.increment();
+                    attempts.add(start(contender, game, budget));
+                    nextHedge = now + delay.toNanos();
+                    continue;
+                }
+                final var waitFor = CompletableFuture.anyOf(running.stream().map(Attempt::result).toArray(CompletableFuture[]::new));
+                try {
+                    if (canHedge) {
+                        waitFor.get(nextHedge - now, TimeUnit.NANOSECONDS);
+                    } else {
+                        // Attempts time out on their own.
+                        waitFor.join();
+                    }
+                } catch (TimeoutException | ExecutionException | CompletionException ignore) {
+                    // Attempt results are checked in the next iteration.
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } finally {
+            // Losing (or timed out) engine calls are not needed anymore.
+            attempts.forEach(a -> a.call().cancel(true));
+        }
+    }
+
+    private Attempt start(Contender contender, ChessGame game, SearchBudget budget) {
+        // Engines are running concurrently: each engine gets its own copy of the game.
+        final var call = contender.engine().getNextMoveAsync(game.clone(), budget);
+        final var result = new CompletableFuture<Optional<Move>>();
+        final var start = System.nanoTime();
+        call.whenComplete((move, e) -> {
+            if (e == null) {
+                result.complete(move);
+            } else {
+                result.completeExceptionally(e);
+            }
+        });
+        result.orTimeout(contender.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        if (contender == contenders.getFirst()) {
+            result.whenComplete((move, e) -> {
+                // Timeouts are part of the latency distribution.
+                // A call cancelled after losing the race was at least this slow: its elapsed time
+                // is a lower bound, otherwise only the fastest calls would be recorded and
+                // the hedge delay would keep going down.
+                if (e == null || e instanceof CancellationException) {
+                    primaryLatencies.add(System.nanoTime() - start);
+                } else if (e instanceof TimeoutException) {
+                    primaryLatencies.add(contender.timeout().toNanos());
+                }
+            });
+        }
+        return new Attempt(contender, result, call);
+    }
+
+    Duration hedgeDelay() {
+        final var latency = primaryLatencies.percentile(percentile);
+        if (latency < 0) {
+            return initialDelay;
+        }
+        final var delay = Duration.ofNanos(latency);
+        return delay.compareTo(minDelay) < 0 ? minDelay : delay;
+    }
+
+    @Override
+    public List<AnalysisLine> analyze(ChessGame game, int lines, SearchBudget budget) {
+        // An analysis is not raced: engines return different lines, which cannot be compared.
+        // The next engine is only used when an engine is unable to analyze the game.
+        for (final var contender : contenders) {
+            try {
+                final var result = contender.engine().analyze(game, lines, budget);
+                if (!result.isEmpty()) {
+                    return result;
+                }
+            } catch (Exception e) {
+                logger.atWarn().log("Failed to analyze game with {}", contender.name(), e);
+            }
+        }
+        return List.of();
+    }
+
+    @Override
+    public int searchDepth() {
+        return contenders.getFirst().engine().searchDepth();
+    }
+
+    @Override
+    public String toString() {
+        return contenders.stream().map(c -> c.engine().toString()).collect(Collectors.joining(" | "));
+    }
+
+    private record Attempt(Contender contender, CompletableFuture<Optional<Move>> result,
+                           CompletableFuture<Optional<Move>> call) {
+        Optional<Move> move(ChessGame game) {
+            if (!result.isDone() || result.isCompletedExceptionally()) {
+                return Optional.empty();
+            }
+            // An engine may return an illegal move: let's keep waiting for other engines.
+            return result.join().filter(game::isLegalMove);
+        }
+    }
+
+    /**
+     * Keep track of recent latencies.
+     */
+    static class LatencyWindow {
+        private static final int MIN_SAMPLES = 10;
+        private final long[] samples;
+        private int count;
+        private int next;
+
+        LatencyWindow(int size) {
+            this.samples = new long[size];
+        }
+
+        synchronized void add(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        /**
+         * Get a latency percentile, or -1 when there are not enough samples.
+         */
+        synchronized long percentile(double percentile) {
+            if (count < MIN_SAMPLES) {
+                return -1;
+            }
+            final var sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            final int i = (int) Math.ceil(percentile * count) - 1;
+            return sorted[Math.clamp(i, 0, count - 1)];
+        }
+    }
+}
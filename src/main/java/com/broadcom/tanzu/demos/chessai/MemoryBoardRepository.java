@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.wolfraam.chessgame.ChessGame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+@ConditionalOnProperty(name = "app.chess.storage", havingValue = "memory")
+class MemoryBoardRepository implements BoardRepository {
+    private final Logger logger = LoggerFactory.getLogger(MemoryBoardRepository.class);
+    private final String initialFen;
+    // Each board is stored as a single byte array (about 200 bytes + 2 bytes per move):
+    // this keeps the memory footprint low, and the garbage collector has very few objects to track.
+    private final Cache<String, byte[]> boards;
+    private final Cache<String, String> questions;
+    private final Cache<String, List<String>> conversations;
+
+    // Boards are kept in this app instance memory: use this implementation
+    // for single-node deployments or load tests (no Redis round trip).
+    MemoryBoardRepository(@Value("${app.chess.initial:rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1}") String initialFen,
+                          @Value("${app.chess.board-ttl:7d}") Duration ttl,
+                          @Value("${app.chess.storage.memory.max-boards:100000}") long maxBoards) {
+        this.initialFen = initialFen;
+        // Boards are removed when they're not used for some time, or when there are too many boards.
+        this.boards = Caffeine.newBuilder().expireAfterAccess(ttl).maximumSize(maxBoards).build();
+        this.questions = Caffeine.newBuilder().expireAfterAccess(ttl).maximumSize(maxBoards).build();
+        this.conversations = Caffeine.newBuilder().expireAfterAccess(ttl).maximumSize(maxBoards).build();
+    }
+
+    @Override
+    public Board newInstance() {
+        final var id = UUID.randomUUID().toString();
+        logger.atTrace().log("Creating new board: {}", id);
+        return save(new Board(id, new ChessGame(initialFen), null, null));
+    }
+
+    @Override
+    public Optional<Board> load(String id) {
+        logger.atTrace().log("Loading board: {}", id);
+        final var data = boards.getIfPresent(id);
+        if (data == null) {
+            // Nothing is stored for this board: let's start a new game.
+            return Optional.of(new Board(id, new ChessGame(initialFen), null, null));
+        }
+        try {
+            final var snapshot = decode(data);
+            return Optional.of(new Board(id, snapshot.restore(), snapshot.currentSquare(), snapshot.error(), snapshot));
+        } catch (Exception e) {
+            logger.atWarn().log("Failed to load board: {}", id, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public long revision(String id) {
+        return revision(boards.getIfPresent(id));
+    }
+
+    @Override
+    public Board save(Board board) {
+        logger.atTrace().log("Saving board: {}", board);
+        final var expectedRevision = board.snapshot() == null ? 0 : board.snapshot().revision();
+        final var snapshot = BoardSnapshot.of(board);
+        final var data = encode(snapshot);
+        // Compare-and-set: the board is only updated if the stored revision is the one we loaded.
+        final var result = boards.asMap().compute(board.id(),
+                (id, stored) -> revision(stored) == expectedRevision ? data : stored);
+        if (result != data) {
+            throw new OptimisticLockingFailureException("Board was concurrently updated: " + board.id());
+        }
+        return snapshot.toSavedBoard(board);
+    }
+
+    @Override
+    public Optional<String> findQuestion(String id) {
+        return Optional.ofNullable(questions.getIfPresent(id));
+    }
+
+    @Override
+    public void saveQuestion(String id, String question) {
+        if (question == null) {
+            questions.invalidate(id);
+        } else {
+            questions.put(id, question);
+        }
+    }
+
+    @Override
+    public List<String> findConversation(String id) {
+        final var entries = conversations.getIfPresent(id);
+        return entries == null ? List.of() : entries;
+    }
+
+    @Override
+    public void addConversationEntry(String id, String entry, int maxEntries) {
+        conversations.asMap().compute(id, (k, entries) -> {
+            final var newEntries = new ArrayList<String>(entries == null ? List.of() : entries);
+            newEntries.add(entry);
+            // Clean up conversation entries: we remove the oldest elements.
+            return List.copyOf(newEntries.subList(Math.max(0, newEntries.size() - maxEntries), newEntries.size()));
+        });
+    }
+
+    private static long revision(byte[] data) {
+        // The revision is always stored first.
+        return data == null ? 0 : ByteBuffer.wrap(data).getLong(0);
+    }
+
+    private static byte[] encode(BoardSnapshot snapshot) {
+        final var bytes = new ByteArrayOutputStream(256);
+        try (final var out = new DataOutputStream(bytes)) {
+            out.writeLong(snapshot.revision());
+            out.writeUTF(snapshot.initialFen());
+            out.writeInt(snapshot.checkpoint());
+            out.writeUTF(snapshot.checkpointFen());
+            out.writeUTF(snapshot.fen());
+            out.writeUTF(snapshot.currentSquare() == null ? "" : snapshot.currentSquare());
+            out.writeUTF(snapshot.error() == null ? "" : snapshot.error().name());
+            final var moves = MoveCodec.encode(snapshot.moves());
+            out.writeInt(moves.length);
+            out.write(moves);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static BoardSnapshot decode(byte[] data) throws IOException {
+        try (final var in = new DataInputStream(new ByteArrayInputStream(data))) {
+            final var revision = in.readLong();
+            final var initialFen = in.readUTF();
+            final var checkpoint = in.readInt();
+            final var checkpointFen = in.readUTF();
+            final var fen = in.readUTF();
+            final var currentSquare = in.readUTF();
+            final var error = in.readUTF();
+            final var moves = new byte[in.readInt()];
+            in.readFully(moves);
+            return new BoardSnapshot(initialFen, MoveCodec.decode(moves), checkpoint, checkpointFen, fen,
+                    currentSquare.isEmpty() ? null : currentSquare,
+                    error.isEmpty() ? null : Board.Error.valueOf(error), revision);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pack UCI moves into 16 bits, using the same layout as Polyglot opening books:
+ * target square (bits 0-5), source square (bits 6-11), promotion piece (bits 12-14).
+ * A square is encoded as <code>row * 8 + file</code>, starting from A1.
+ */
+final class MoveCodec {
+    private static final String PROMOTIONS = " nbrq";
+    private static final String[] SQUARES = new String[64];
+
+    static {
+        for (int i = 0; i < 64; ++i) {
+            SQUARES[i] = "" + (char) ('a' + i % 8) + (char) ('1' + i / 8);
+        }
+    }
+
+    private MoveCodec() {
+    }
+
+    static int encode(String uci) {
+        final var from = square(uci, 0);
+        final var to = square(uci, 2);
+        var promotion = 0;
+        if (uci.length() > 4) {
+            promotion = PROMOTIONS.indexOf(Character.toLowerCase(uci.charAt(4)));
+            if (promotion < 1) {
+                throw new IllegalArgumentException("Invalid promotion in move: " + uci);
+            }
+        }
+        return promotion << 12 | from << 6 | to;
+    }
+
+    static String decode(int move) {
+        final var uci = SQUARES[move >> 6 & 0x3f] + SQUARES[move & 0x3f];
+        final var promotion = move >> 12 & 0x7;
+        return promotion == 0 ? uci : uci + PROMOTIONS.charAt(promotion);
+    }
+
+    static byte[] encode(List<String> moves) {
+        final var data = new byte[moves.size() * 2];
+        for (int i = 0; i < moves.size(); ++i) {
+            final var move = encode(moves.get(i));
+            data[i * 2] = (byte) (move >> 8);
+            data[i * 2 + 1] = (byte) move;
+        }
+        return data;
+    }
+
+    static List<String> decode(byte[] data) {
+        if (data.length % 2 != 0) {
+            throw new IllegalArgumentException("Invalid encoded moves length: " + data.length);
+        }
+        final var moves = new ArrayList<String>(data.length / 2);
+        for (int i = 0; i < data.length; i += 2) {
+            moves.add(decode((data[i] & 0xff) << 8 | data[i + 1] & 0xff));
+        }
+        return moves;
+    }
+
+    private static int square(String uci, int offset) {
+        final var file = uci.charAt(offset) - 'a';
+        final var row = uci.charAt(offset + 1) - '1';
+        if (file < 0 || file > 7 || row < 0 || row > 7) {
+            throw new IllegalArgumentException("Invalid square in move: " + uci);
+        }
+        return row * 8 + file;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+
+class OnChessEngineCondition implements Condition {
+    static final String ENGINE_PROPERTY = "app.chess.engine";
+    static final String HEDGE_ENGINES_PROPERTY = "app.chess.hedge.engines";
+    static final String ANALYSIS_ENGINE_PROPERTY = "app.chess.analysis.engine";
+
+    @Override
+    public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        final var attrs = metadata.getAnnotationAttributes(ConditionalOnChessEngine.class.getName());
+        if (attrs == null) {
+            return false;
+        }
+        final var name = (String) attrs.get("value");
+        final var env = context.getEnvironment();
+        final var engine = env.getProperty(ENGINE_PROPERTY);
+        if (!StringUtils.hasText(engine)) {
+            return (Boolean) attrs.get("matchIfMissing");
+        }
+        return name.equals(engine.trim())
+                || name.equals(env.getProperty(ANALYSIS_ENGINE_PROPERTY, "").trim())
+                || Arrays.stream(StringUtils.commaDelimitedListToStringArray(env.getProperty(HEDGE_ENGINES_PROPERTY, "")))
+                .map(String::trim).anyMatch(name::equals);
+    }
+}
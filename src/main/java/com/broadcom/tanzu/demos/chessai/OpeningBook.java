@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.board.PieceType;
+import io.github.wolfraam.chessgame.board.Square;
+import io.github.wolfraam.chessgame.move.Move;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.random.RandomGenerator;
+
+/**
+ * Opening book using the Polyglot <code>.bin</code> format.
+ * <p>
+ * A book is a list of 16-byte entries sorted by position key: entries for a position
+ * are found with a binary search. The file is memory-mapped, so that the OS page cache
+ * keeps the book in memory (shared by all engine calls).
+ */
+class OpeningBook {
+    private static final int ENTRY_SIZE = 16;
+    private static final PieceType[] PROMOTIONS = {
+            null, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN
+    };
+    private final ByteBuffer buffer;
+    private final int entryCount;
+    private final ZobristHash keys;
+
+    OpeningBook(ByteBuffer buffer, ZobristHash keys) {
+        if (buffer.capacity() % ENTRY_SIZE != 0) {
+            throw new IllegalArgumentException("Invalid opening book size: " + buffer.capacity());
+        }
+        // Polyglot books are big-endian, which is the ByteBuffer default.
+        this.buffer = buffer;
+        this.entryCount = buffer.capacity() / ENTRY_SIZE;
+        this.keys = keys;
+    }
+
+    static OpeningBook open(Path path, ZobristHash keys) throws IOException {
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed.
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), keys);
+        }
+    }
+
+    int size() {
+        return entryCount;
+    }
+
+    /**
+     * Get book moves for the current position of a game.
+     */
+    List<Entry> entries(ChessGame game) {
+        final var key = keys.hash(game.getFen());
+        final var entries = new ArrayList<Entry>(4);
+        for (int i = firstIndex(key); i < entryCount && buffer.getLong(i * ENTRY_SIZE) == key; ++i) {
+            final var offset = i * ENTRY_SIZE;
+            final var move = toMove(game, Short.toUnsignedInt(buffer.getShort(offset + 8)));
+            final var weight = Short.toUnsignedInt(buffer.getShort(offset + 10));
+            // Entries with no weight are kept in the book for reference, but they should not be played.
+            if (move != null && weight > 0 && game.isLegalMove(move)) {
+                entries.add(new Entry(move, weight));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Pick a book move for the current position of a game, using move weights as probabilities.
+     */
+    Optional<Move> pick(ChessGame game, RandomGenerator random) {
+        final var entries = entries(game);
+        final var totalWeight = entries.stream().mapToInt(Entry::weight).sum();
+        if (totalWeight == 0) {
+            return Optional.empty();
+        }
+        int value = random.nextInt(totalWeight);
+        for (final var e : entries) {
+            value -= e.weight();
+            if (value < 0) {
+                return Optional.of(e.move());
+            }
+        }
+        throw new IllegalStateException("No book move selected");
+    }
+
+    private int firstIndex(long key) {
+        // Keys are sorted as unsigned values.
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(buffer.getLong(mid * ENTRY_SIZE), key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Move toMove(ChessGame game, int move) {
+        final var to = Square.fromCoordinates(move & 7, (move >>> 3) & 7);
+        final var from = Square.fromCoordinates((move >>> 6) & 7, (move >>> 9) & 7);
+        final int promotion = (move >>> 12) & 7;
+        if (promotion >= PROMOTIONS.length) {
+            return null;
+        }
+        final var piece = game.getPiece(from);
+        if (piece != null && piece.pieceType == PieceType.KING && from.x == 4 && (to.x == 0 || to.x == 7)) {
+            // Castling moves are stored as "king takes rook" (e1h1 for e1g1).
+            return new Move(from, Square.fromCoordinates(to.x == 7 ? 6 : 2, to.y));
+        }
+        return new Move(from, to, PROMOTIONS[promotion]);
+    }
+
+    record Entry(Move move, int weight) {
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.move.Move;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.random.RandomGenerator;
+
+/**
+ * Chess engine decorator, playing moves from an opening book while the game is in book.
+ */
+class OpeningBookChessEngine implements ChessEngine {
+    private final ChessEngine delegate;
+    private final OpeningBook book;
+    // Shared by concurrent requests: this random generator must be thread-safe.
+    private final RandomGenerator random;
+    private final Counter bookMoves;
+    private final Counter engineMoves;
+
+    OpeningBookChessEngine(ChessEngine delegate, OpeningBook book, RandomGenerator random, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.book = book;
+        this.random = random;
+        this.bookMoves = requests(meterRegistry, "book");
+        this.engineMoves = requests(meterRegistry, "engine");
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("chess.engine.book.requests")
+                .description("Chess engine requests, by move source")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game) {
+        return getNextMove(game, SearchBudget.DEFAULT);
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game, SearchBudget budget) {
+        final var move = book.pick(game, random);
+        if (move.isPresent()) {
+            bookMoves.increment();
+            return move;
+        }
+        engineMoves.increment();
+        return delegate.getNextMove(game, budget);
+    }
+
+    @Override
+    public List<AnalysisLine> analyze(ChessGame game, int lines, SearchBudget budget) {
+        return delegate.analyze(game, lines, budget);
+    }
+
+    @Override
+    public int searchDepth() {
+        return delegate.searchDepth();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
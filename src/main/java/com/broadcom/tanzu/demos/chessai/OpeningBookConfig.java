@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.chess.opening-book.path")
+class OpeningBookConfig {
+    private final Logger logger = LoggerFactory.getLogger(OpeningBookConfig.class);
+
+    @Bean
+    OpeningBook openingBook(@Value("${app.chess.opening-book.path}") Path path,
+                            @Value("${app.chess.opening-book.keys:classpath:/polyglot/random64.txt}") Resource keys) throws IOException {
+        // The default random values are only used for engine cache keys: they don't match any Polyglot book.
+        final var book = OpeningBook.open(path, ZobristHash.polyglot(keys));
+        logger.atInfo().log("Loaded opening book with {} entries: {}", book.size(), path);
+        if (book.entries(new ChessGame()).isEmpty()) {
+            // Most likely this book was built with different position keys.
+            logger.atWarn().log("Opening book has no move for the initial position: check app.chess.opening-book.keys");
+        }
+        return book;
+    }
+
+    @Bean
+    ChessEngineDecorator openingBookDecorator(OpeningBook book, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ChessEngineDecorator() {
+            @Override
+            public ChessEngine decorate(ChessEngine engine) {
+                return new OpeningBookChessEngine(engine, book, new Random(), meterRegistry.getObject());
+            }
+
+            @Override
+            public int getOrder() {
+                // Book moves don't need any engine call: this is the outermost decorator.
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public String toString() {
+                return "opening book";
+            }
+        };
+    }
+}
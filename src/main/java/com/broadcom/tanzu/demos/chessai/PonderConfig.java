@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.chess.ponder.enabled", havingValue = "true")
+class PonderConfig {
+    @Bean
+    Ponderer ponderer(SearchBudget searchBudget,
+                      @Value("${app.chess.ponder.max-replies:6}") int maxReplies,
+                      @Value("${app.chess.ponder.parallelism:2}") int parallelism,
+                      @Value("${app.chess.ponder.ttl:5m}") Duration ttl,
+                      ObjectProvider<MeterRegistry> meterRegistry) {
+        if (maxReplies < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Invalid ponder settings: max-replies=" + maxReplies
+                    + ", parallelism=" + parallelism);
+        }
+        return new Ponderer(searchBudget, maxReplies, parallelism, ttl, meterRegistry.getObject());
+    }
+}
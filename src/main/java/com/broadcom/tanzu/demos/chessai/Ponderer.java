@@ -0,0 +1,455 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.board.PieceType;
+import io.github.wolfraam.chessgame.move.Move;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Think about the next move while the player is thinking.
+ * <p>
+ * Once the AI has played, the most likely replies from the player are searched in the background.
+ * When the player plays one of these moves, the engine answer is already there (or on its way):
+ * speculative searches for the other replies are cancelled.
+ * <p>
+ * This component is a chess engine decorator: speculative searches use the decorated engine,
+ * which includes the engine cache (positions already in the cache are not searched again).
+ * <p>
+ * The full AI reply (LLM call included) is also computed ahead of time for the most likely player move:
+ * this reply is served right away when the player plays this move. Only the engine search is done ahead of time
+ * for the other replies, since asking the LLM for each one would multiply the number of LLM calls per move.
+ */
+class Ponderer implements ChessEngineDecorator {
+    private final Logger logger = LoggerFactory.getLogger(Ponderer.class);
+    private final SearchBudget searchBudget;
+    private final int maxReplies;
+    private final int parallelism;
+    private final Duration ttl;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Speculation> speculations = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter cancelled;
+    private final Counter replyHits;
+    private final Counter replyMisses;
+    private volatile ChessEngine engine;
+
+    Ponderer(SearchBudget searchBudget, int maxReplies, int parallelism, Duration ttl, MeterRegistry meterRegistry) {
+        this.searchBudget = searchBudget;
+        this.maxReplies = maxReplies;
+        this.parallelism = parallelism;
+        this.ttl = ttl;
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.cancelled = Counter.builder("chess.engine.ponder.cancelled")
+                .description("Speculative searches cancelled since the player played another move")
+                .register(meterRegistry);
+        this.replyHits = replies(meterRegistry, "hit");
+        this.replyMisses = replies(meterRegistry, "miss");
+    }
+
+    private static Counter replies(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("chess.ai.ponder.replies")
+                .description("Player moves answered by an AI reply computed ahead of time")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("chess.engine.ponder.requests")
+                .description("Chess engine requests answered by a speculative search")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ChessEngine decorate(ChessEngine engine) {
+        this.engine = engine;
+        return new PonderingChessEngine(engine);
+    }
+
+    @Override
+    public int getOrder() {
+        // Speculative searches go through the engine cache (and tablebases): only the opening book comes first.
+        return Ordered.LOWEST_PRECEDENCE - 25;
+    }
+
+    @Override
+    public String toString() {
+        return "ponder";
+    }
+
+    /**
+     * Start searching the next move for the most likely replies in this game.
+     * Previous speculative searches for this board are cancelled.
+     *
+     * @param boardId board identifier
+     * @param game    board game instance, where the player is about to play
+     */
+    void ponder(String boardId, ChessGame game) {
+        ponder(boardId, game, null);
+    }
+
+    /**
+     * Start searching the next move for the most likely replies in this game,
+     * and compute the full AI reply for the most likely one.
+     *
+     * @param boardId board identifier
+     * @param game    board game instance, where the player is about to play
+     * @param aiReply function computing the AI reply in a game where the player has played
+     *                (<code>null</code> to only search the next move)
+     */
+    void ponder(String boardId, ChessGame game, Function<ChessGame, ?> aiReply) {
+        if (engine == null || game.getGameResultType() != null) {
+            return;
+        }
+        final var replies = likelyReplies(game);
+        final var session = new Session(boardId, new ArrayList<>(replies.size()));
+        for (final var reply : replies) {
+            final var next = game.clone();
+            next.playMove(reply);
+            if (next.getGameResultType() != null) {
+                continue;
+            }
+            // The engine is called with a budget adapted to the position: use the same one here.
+            final var budget = searchBudget.adaptTo(next);
+            session.speculations.add(new Speculation(session, key(next, budget), next, budget,
+                    game.getNotation(NotationType.UCI, reply)));
+        }
+        if (aiReply != null && !session.speculations.isEmpty()) {
+            // Speculations are sorted by likelihood.
+            session.reply = new Reply(session.speculations.getFirst(), aiReply);
+        }
+        final var previous = sessions.put(boardId, session);
+        if (previous != null) {
+            previous.cancel(null);
+        }
+        session.speculations.forEach(s -> speculations.put(s.key, s));
+        session.pending.addAll(session.speculations);
+        logger.atDebug().log("Pondering {} replies on board {}", session.speculations.size(), boardId);
+        for (int i = 0; i < parallelism; ++i) {
+            Thread.ofVirtual().name("chess-ponder").start(session::run);
+        }
+        if (session.reply != null) {
+            session.reply.thread.start();
+        }
+
+        // Don't keep speculative searches forever if the player never comes back.
+        CompletableFuture.delayedExecutor(ttl.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if (sessions.remove(boardId, session)) {
+                logger.atDebug().log("Dropping expired speculative searches for board {}", boardId);
+                session.cancel(null);
+            }
+        });
+    }
+
+    /**
+     * Cancel speculative searches which are no longer relevant in this game:
+     * call this method once the player has played.
+     *
+     * @param boardId board identifier
+     * @param game    board game instance, after the player move
+     */
+    void settle(String boardId, ChessGame game) {
+        settle(boardId, game, Object.class);
+    }
+
+    /**
+     * Cancel speculative searches which are no longer relevant in this game,
+     * and get the AI reply computed ahead of time for this player move (if any):
+     * call this method once the player has played.
+     * This method waits for the AI reply if it's still being computed.
+     *
+     * @param boardId   board identifier
+     * @param game      board game instance, after the player move
+     * @param replyType AI reply type
+     * @return the AI reply for this player move, if it was computed ahead of time
+     */
+    <T> Optional<T> settle(String boardId, ChessGame game, Class<T> replyType) {
+        final var session = sessions.remove(boardId);
+        if (session == null) {
+            return Optional.empty();
+        }
+        final var fen = ChessPosition.of(game).fen();
+        final var hit = session.speculations.stream().filter(s -> s.fen.equals(fen)).findFirst();
+        hit.ifPresentOrElse(s -> logger.atDebug().log("Player move {} was expected on board {}", s.reply, boardId),
+                () -> logger.atDebug().log("Player move was not expected on board {}", boardId));
+        session.cancel(hit.orElse(null));
+
+        final var reply = session.reply;
+        if (reply == null) {
+            return Optional.empty();
+        }
+        if (!reply.fen.equals(fen)) {
+            replyMisses.increment();
+            return Optional.empty();
+        }
+        try {
+            final var result = replyType.cast(reply.result.join());
+            replyHits.increment();
+            return Optional.ofNullable(result);
+        } catch (Exception e) {
+            // The caller computes the AI reply again.
+            logger.atDebug().log("Failed to compute AI reply ahead of time on board {}", boardId, e);
+            replyMisses.increment();
+            return Optional.empty();
+        }
+    }
+
+    private List<Move> likelyReplies(ChessGame game) {
+        // Players are more likely to capture a valuable piece or to give check:
+        // these moves are searched first, and quiet moves are only searched if there's room for them.
+        final var position = ChessPosition.of(game);
+        return game.getLegalMoves().stream()
+                .sorted(Comparator.comparingInt((Move m) -> score(game, position, m)).reversed())
+                .limit(maxReplies)
+                .toList();
+    }
+
+    private static int score(ChessGame game, ChessPosition position, Move move) {
+        int score = 0;
+        final var captured = position.piece(move.to);
+        if (captured != null) {
+            score += 10 * value(captured.pieceType) - value(position.piece(move.from).pieceType);
+        }
+        if (move.promotion != null) {
+            score += value(move.promotion);
+        }
+        final var next = game.clone();
+        next.playMove(move);
+        if (next.isKingAttacked()) {
+            score += 50;
+        }
+        return score;
+    }
+
+    private static int value(PieceType pieceType) {
+        return switch (pieceType) {
+            case PAWN -> 1;
+            case KNIGHT, BISHOP -> 3;
+            case ROOK -> 5;
+            case QUEEN -> 9;
+            case KING -> 0;
+        };
+    }
+
+    private static String key(ChessGame game, SearchBudget budget) {
+        return Long.toHexString(ChessPosition.of(game).hash()) + "::" + budget;
+    }
+
+    private CompletableFuture<Optional<Move>> take(ChessGame game, SearchBudget budget) {
+        final var key = key(game, budget);
+        final var speculation = speculations.get(key);
+        if (speculation == null || !speculation.fen.equals(ChessPosition.of(game).fen())) {
+            return null;
+        }
+        final var session = speculation.session;
+        if (session.reply != null && session.reply.thread == Thread.currentThread()) {
+            // The AI reply computed ahead of time needs this search: the player has not played yet,
+            // and other speculative searches go on.
+            if (session.pending.remove(speculation)) {
+                speculation.run();
+            }
+            return speculation.result;
+        }
+        if (!speculations.remove(key, speculation)) {
+            return null;
+        }
+        sessions.remove(session.boardId, session);
+        session.cancel(speculation);
+        if (session.pending.remove(speculation)) {
+            // This search was not started yet: let the caller run it right away.
+            return null;
+        }
+        return speculation.result;
+    }
+
+    private class PonderingChessEngine implements ChessEngine {
+        private final ChessEngine delegate;
+
+        PonderingChessEngine(ChessEngine delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Optional<Move> getNextMove(ChessGame game) {
+            return getNextMove(game, SearchBudget.DEFAULT);
+        }
+
+        @Override
+        public Optional<Move> getNextMove(ChessGame game, SearchBudget budget) {
+            final var result = take(game, budget);
+            if (result != null) {
+                try {
+                    final var move = result.join();
+                    hits.increment();
+                    return move;
+                } catch (Exception e) {
+                    logger.atDebug().log("Speculative search failed: running a new search", e);
+                }
+            }
+            misses.increment();
+            return delegate.getNextMove(game, budget);
+        }
+
+        @Override
+        public List<AnalysisLine> analyze(ChessGame game, int lines, SearchBudget budget) {
+            return delegate.analyze(game, lines, budget);
+        }
+
+        @Override
+        public int searchDepth() {
+            return delegate.searchDepth();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    private class Session {
+        private final String boardId;
+        private final List<Speculation> speculations;
+        private final Queue<Speculation> pending = new ConcurrentLinkedQueue<>();
+        private Reply reply;
+
+        Session(String boardId, List<Speculation> speculations) {
+            this.boardId = boardId;
+            this.speculations = speculations;
+        }
+
+        void run() {
+            // Speculations are sorted by likelihood: the most likely replies are searched first.
+            Speculation speculation;
+            while ((speculation = pending.poll()) != null) {
+                speculation.run();
+            }
+        }
+
+        void cancel(Speculation keep) {
+            if (reply != null && (keep == null || !reply.fen.equals(keep.fen))) {
+                reply.cancel();
+            }
+            // The speculation to keep is still searched if it was not started yet.
+            pending.removeIf(s -> s != keep);
+            for (final var s : speculations) {
+                if (s != keep) {
+                    Ponderer.this.speculations.remove(s.key, s);
+                    if (s.cancel()) {
+                        cancelled.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    private class Speculation {
+        private final Session session;
+        private final String key;
+        private final ChessGame game;
+        private final String fen;
+        private final SearchBudget budget;
+        private final String reply;
+        private final CompletableFuture<Optional<Move>> result = new CompletableFuture<>();
+        private volatile CompletableFuture<Optional<Move>> call;
+
+        Speculation(Session session, String key, ChessGame game, SearchBudget budget, String reply) {
+            this.session = session;
+            this.key = key;
+            this.game = game;
+            // The game instance is used by the engine: the position is computed once.
+            this.fen = ChessPosition.of(game).fen();
+            this.budget = budget;
+            this.reply = reply;
+        }
+
+        void run() {
+            if (result.isDone()) {
+                return;
+            }
+            final var c = engine.getNextMoveAsync(game, budget);
+            call = c;
+            if (result.isDone()) {
+                // This speculation was cancelled while the search was starting.
+                c.cancel(true);
+                return;
+            }
+            try {
+                result.complete(c.join());
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        boolean cancel() {
+            // Only count speculations which are actually cancelled by this call.
+            final var cancelled = result.completeExceptionally(new CancellationException("Speculative search cancelled"));
+            final var c = call;
+            if (c != null) {
+                c.cancel(true);
+            }
+            return cancelled;
+        }
+    }
+
+    private static class Reply {
+        private final String fen;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final Thread thread;
+
+        Reply(Speculation speculation, Function<ChessGame, ?> reply) {
+            this.fen = speculation.fen;
+            // The speculation game instance is used by the engine: let's use a copy.
+            final var game = speculation.game.clone();
+            this.thread = Thread.ofVirtual().name("chess-ponder-reply").unstarted(() -> {
+                try {
+                    result.complete(reply.apply(game));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        }
+
+        void cancel() {
+            if (result.cancel(false)) {
+                thread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,680 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+@Repository
+@ConditionalOnProperty(name = "app.chess.storage", havingValue = "redis", matchIfMissing = true)
+class RedisBoardRepository implements BoardRepository {
+    private final Logger logger = LoggerFactory.getLogger(RedisBoardRepository.class);
+    private final StringRedisTemplate redis;
+    private final String initialFen;
+    private final RedisScript<List<Object>> loadScript;
+    private final RedisScript<List<Object>> saveScript;
+    private final RedisScript<Long> archiveScript;
+    private final BoardCache cache;
+    private final BoardArchive archive;
+    private final GameEventLog eventLog;
+    private final Duration ttl;
+    private final Duration archiveIdle;
+    private final Duration archiveFinishedIdle;
+    private volatile boolean migrateLegacyKeys;
+
+    // Return codes from the save script.
+    private static final long SAVE_OK = 1;
+    private static final long SAVE_MOVES_MISMATCH = 0;
+    private static final long SAVE_CONFLICT = -1;
+    // Boards to archive, sorted by archive time.
+    private static final String ARCHIVE_QUEUE_KEY = "chess::boards::archive-queue";
+    // Keys saved by a previous version of this app (see BoardKeys.legacy()).
+    private static final Pattern LEGACY_KEY = Pattern.compile("^chess::([^:{}]+)::(current|error|moves|question|conversation)$");
+
+    // Using this implementation we rely on Redis to store anything we need, which makes this app stateless.
+    // Each operation is implemented as a Lua script: a board is loaded / saved in a single round trip.
+    // All keys for a board are stored in the same slot (see BoardKeys), which makes this class
+    // compatible with Redis Cluster: scripts never touch keys from different boards.
+    // Moves are packed into 2 bytes each (see MoveCodec), and stored in a single Redis string.
+    // Script arguments and results are serialized using ISO-8859-1, which maps each byte to a single char:
+    // encoded moves are transferred as is, and other values only use ASCII chars.
+    private final RedisSerializer<String> serializer = new StringRedisSerializer(StandardCharsets.ISO_8859_1);
+
+    RedisBoardRepository(StringRedisTemplate redis,
+                         @Value("${app.chess.initial:rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1}") String initialFen,
+                         @Value("classpath:/scripts/load-board.lua") Resource loadScriptRes,
+                         @Value("classpath:/scripts/save-board.lua") Resource saveScriptRes,
+                         @Value("classpath:/scripts/archive-board.lua") Resource archiveScriptRes,
+                         @Value("${app.chess.board-ttl:7d}") Duration ttl,
+                         @Value("${app.chess.archive.idle:1d}") Duration archiveIdle,
+                         @Value("${app.chess.archive.finished-idle:1h}") Duration archiveFinishedIdle,
+                         @Value("${app.chess.storage.redis.migrate-legacy-keys:true}") boolean migrateLegacyKeys,
+                         ObjectProvider<BoardCache> cache,
+                         ObjectProvider<BoardArchive> archive,
+                         ObjectProvider<GameEventLog> eventLog) {
+        this.redis = redis;
+        this.initialFen = initialFen;
+        this.loadScript = RedisScript.of(loadScriptRes, listType());
+        this.saveScript = RedisScript.of(saveScriptRes, listType());
+        this.archiveScript = RedisScript.of(archiveScriptRes, Long.class);
+        this.ttl = ttl;
+        this.archiveIdle = archiveIdle;
+        this.archiveFinishedIdle = archiveFinishedIdle;
+        this.migrateLegacyKeys = migrateLegacyKeys;
+        // The board cache is optional: boards are always loaded from Redis when it's disabled.
+        this.cache = cache.getIfAvailable();
+        // Same thing for the board archive: boards are just removed from Redis after some time when it's disabled.
+        this.archive = archive.getIfAvailable();
+        if (this.archive != null && ttl.compareTo(archiveIdle) <= 0) {
+            logger.atWarn().log("Boards may expire before they are archived: board TTL ({}) should be greater than archive idle time ({})",
+                    ttl, archiveIdle);
+        }
+        // Game events are only published when the event log is enabled.
+        this.eventLog = eventLog.getIfAvailable();
+    }
+
+    @Override
+    public Board save(Board board) {
+        return save(board, board.snapshot() == null ? 0 : board.snapshot().revision());
+    }
+
+    private Board save(Board board, long expectedRevision) {
+        logger.atTrace().log("Saving board: {}", board);
+        final var previous = board.snapshot();
+        final var snapshot = BoardSnapshot.of(board);
+
+        // Only update what has changed since the board was loaded:
+        // most of the time, a single key is updated when the player clicks on a square.
+        final String movesMode;
+        if (previous != null && previous.moves().equals(snapshot.moves())
+                && Objects.equals(previous.fen(), snapshot.fen())) {
+            movesMode = "keep";
+        } else if (previous != null && previous.fen() != null && previous.isContinuedBy(snapshot)) {
+            // New moves are appended to the existing list.
+            movesMode = "append";
+        } else {
+            movesMode = "replace";
+        }
+        final var stamp = cache == null ? 0 : cache.stamp();
+        final var finished = board.game().getGameResultType() != null;
+        final var archiveAt = archive == null ? 0 :
+                System.currentTimeMillis() + (finished ? archiveFinishedIdle : archiveIdle).toMillis();
+        final var events = eventLog == null ? List.<GameEvent>of() : events(board.id(), previous, snapshot);
+        var result = executeSave(board.id(), previous, snapshot, movesMode, archiveAt, expectedRevision, events);
+        if (status(result) == SAVE_MOVES_MISMATCH) {
+            // The stored move list was not the one we expected: let's rewrite it.
+            logger.atDebug().log("Rewriting moves for board: {}", board.id());
+            result = executeSave(board.id(), previous, snapshot, "replace", archiveAt, expectedRevision, events);
+        }
+        if (status(result) != SAVE_OK) {
+            // Someone else has updated this board since it was loaded:
+            // our copy is outdated, including the one we may have in the cache.
+            if (cache != null) {
+                cache.invalidate(board.id());
+            }
+            throw new OptimisticLockingFailureException("Board was concurrently updated: " + board.id());
+        }
+
+        // The archive queue and the event log are not stored in the same slot as board keys:
+        // these keys are updated once the board is saved, using a second round trip.
+        // Game events are saved with the board (in a stream stored in the same slot),
+        // and relayed to the event log: if this app stops in between, these events are relayed later.
+        // A board is only queued for archival when it's created (or restored), and when the game is over:
+        // the archive time is stored with the board, and it's checked again before archiving the board.
+        final var queued = archive != null && (previous == null || previous.fen() == null || finished);
+        final var eventIds = result.subList(2, result.size()).stream().map(String.class::cast).toList();
+        if (queued || !events.isEmpty()) {
+            afterSave(board.id(), queued ? archiveAt : 0, events, eventIds);
+        }
+        if (eventLog != null && (Long) result.get(1) != 0) {
+            // Some events were left behind by a previous save.
+            relayEvents(board.id());
+        }
+
+        final var savedBoard = snapshot.toSavedBoard(board);
+        if (cache != null) {
+            cache.put(savedBoard, stamp);
+        }
+        return savedBoard;
+    }
+
+    private static List<GameEvent> events(String id, BoardSnapshot previous, BoardSnapshot snapshot) {
+        final var events = new ArrayList<GameEvent>(3);
+        if (previous == null) {
+            events.add(GameEvent.gameCreated(id));
+        } else if (previous.isContinuedBy(snapshot)) {
+            // The human player always plays white: we find out who played each move
+            // from the side to move in the initial position.
+            final var whiteFirst = snapshot.initialFen().split(" ")[1].equals("w");
+            for (int i = previous.version(); i < snapshot.version(); ++i) {
+                final var player = whiteFirst == (i % 2 == 0) ? GameEvent.Player.HUMAN : GameEvent.Player.AI;
+                // Only the last move comes with the resulting position.
+                events.add(GameEvent.movePlayed(id, snapshot.moves().get(i), player,
+                        i == snapshot.version() - 1 ? snapshot.fen() : null));
+            }
+        }
+        if (snapshot.error() != null && (previous == null || previous.error() != snapshot.error())) {
+            events.add(GameEvent.aiError(id, snapshot.error()));
+        }
+        return events;
+    }
+
+    private List<Object> executeSave(String id, BoardSnapshot previous, BoardSnapshot snapshot, String movesMode,
+                                     long archiveAt, long expectedRevision, List<GameEvent> events) {
+        final var args = new ArrayList<String>(18 + 8 * events.size());
+        if (previous != null && Objects.equals(previous.currentSquare(), snapshot.currentSquare())) {
+            args.addAll(List.of("keep", ""));
+        } else {
+            args.addAll(snapshot.currentSquare() == null ? List.of("del", "") : List.of("set", snapshot.currentSquare()));
+        }
+        if (previous != null && previous.error() == snapshot.error()) {
+            args.addAll(List.of("keep", ""));
+        } else {
+            args.addAll(snapshot.error() == null ? List.of("del", "") : List.of("set", snapshot.error().name()));
+        }
+        args.add(movesMode);
+        args.add(String.valueOf(previous == null ? 0 : previous.version()));
+        args.add(snapshot.initialFen());
+        args.add(String.valueOf(snapshot.checkpoint()));
+        args.add(snapshot.checkpointFen());
+        args.add(snapshot.fen());
+        args.add(String.valueOf(snapshot.version()));
+        final var moves = switch (movesMode) {
+            case "append" -> snapshot.moves().subList(previous.version(), snapshot.version());
+            case "replace" -> snapshot.moves();
+            default -> List.<String>of();
+        };
+        args.add(new String(MoveCodec.encode(moves), StandardCharsets.ISO_8859_1));
+        // Let other app instances know that this board has been updated, so that they can evict it from their cache.
+        args.add(BoardCache.CHANNEL);
+        args.add(cache == null ? "- " + id : cache.updateMessage(id));
+        // The board is only saved if the stored revision is the one we loaded (compare-and-set):
+        // this is a lock-free operation, which works the same with any number of app instances.
+        args.add(String.valueOf(expectedRevision));
+        args.add(String.valueOf(snapshot.revision()));
+        // Boards are removed from Redis after some time, unless they are updated again.
+        // When the archive is enabled, finished games are archived sooner than idle ones.
+        args.add(String.valueOf(ttl.toSeconds()));
+        args.add(archiveAt == 0 ? "" : String.valueOf(archiveAt));
+        for (final var e : events) {
+            final var fields = e.toFields();
+            args.add(String.valueOf(fields.size()));
+            fields.forEach((k, v) -> {
+                args.add(k);
+                args.add(v);
+            });
+        }
+        final var keys = new ArrayList<>(BoardKeys.of(id).board());
+        keys.add(BoardKeys.of(id).events());
+        final var result = redis.execute(saveScript, serializer, listSerializer(), keys, args.toArray());
+        return result == null ? List.of(SAVE_CONFLICT) : result;
+    }
+
+    private static long status(List<Object> saveResult) {
+        return (Long) saveResult.getFirst();
+    }
+
+    private void afterSave(String id, long archiveAt, List<GameEvent> events, List<String> eventIds) {
+        // All updates are sent in a single round trip.
+        redis.executePipelined(new SessionCallback<List<Object>>() {
+            @Override
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) {
+                final var ops = stringOperations(operations);
+                if (archiveAt != 0) {
+                    ops.opsForZSet().add(ARCHIVE_QUEUE_KEY, id, archiveAt);
+                }
+                for (final var e : events) {
+                    eventLog.append(ops, e);
+                }
+                if (!eventIds.isEmpty()) {
+                    ops.opsForStream().delete(BoardKeys.of(id).events(), eventIds.toArray(String[]::new));
+                }
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Relay all pending events for a board to the event log.
+     * <p>
+     * An event may be relayed twice (when boards are concurrently saved, or if this app stops
+     * right after relaying): consumers must be ready to receive an event more than once.
+     */
+    private void relayEvents(String id) {
+        final var eventsKey = BoardKeys.of(id).events();
+        final var records = redis.opsForStream().range(eventsKey, Range.unbounded());
+        if (records == null || records.isEmpty()) {
+            return;
+        }
+        logger.atDebug().log("Relaying {} pending event(s) for board: {}", records.size(), id);
+        redis.executePipelined(new SessionCallback<List<Object>>() {
+            @Override
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) {
+                final var ops = stringOperations(operations);
+                for (final var r : records) {
+                    eventLog.append(ops, GameEvent.fromFields(null, r.getValue()));
+                }
+                ops.opsForStream().delete(eventsKey, records.stream().map(MapRecord::getId).toArray(RecordId[]::new));
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public Board newInstance() {
+        final var id = UUID.randomUUID().toString();
+        logger.atTrace().log("Creating new board: {}", id);
+        return save(new Board(id, new ChessGame(initialFen), null, null));
+    }
+
+    @Override
+    public Optional<Board> load(String id) {
+        logger.atTrace().log("Loading board: {}", id);
+        if (cache != null) {
+            final var cachedBoard = cache.get(id);
+            if (cachedBoard.isPresent()) {
+                return cachedBoard;
+            }
+        }
+        final var stamp = cache == null ? 0 : cache.stamp();
+        final var board = loadStored(id);
+        if (board.isPresent() && board.get().snapshot() == null && archive != null) {
+            // This board is not in Redis: maybe it's been archived.
+            final var archivedBoard = rehydrate(id);
+            if (archivedBoard.isPresent()) {
+                return archivedBoard;
+            }
+        }
+        if (cache != null) {
+            board.filter(b -> b.snapshot() != null).ifPresent(b -> cache.put(b, stamp));
+        }
+        return board;
+    }
+
+    @Override
+    public long revision(String id) {
+        if (cache != null) {
+            final var revision = cache.revision(id);
+            if (revision != 0) {
+                return revision;
+            }
+        }
+        // The revision is stored with the board snapshot: there's no need to load the moves.
+        final var revision = redis.<String, String>opsForHash().get(BoardKeys.of(id).snapshot(), "revision");
+        return revision == null ? 0 : Long.parseLong(revision);
+    }
+
+    private Optional<Board> loadStored(String id) {
+        final var board = loadFromRedis(id);
+        if (migrateLegacyKeys && board.isPresent() && board.get().snapshot() == null) {
+            // This board may have been saved by a previous version of this app, using the legacy key layout.
+            final var legacyBoard = migrateLegacyBoard(id);
+            if (legacyBoard.isPresent()) {
+                return legacyBoard;
+            }
+        }
+        return board;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void migrateLegacyBoardsOnStartup() {
+        if (migrateLegacyKeys) {
+            // Don't delay app startup: boards are also migrated when they're loaded until this is done.
+            Thread.ofVirtual().name("chess-legacy-migration").start(this::migrateLegacyBoards);
+        }
+    }
+
+    /**
+     * Migrate all boards saved by a previous version of this app to the new key layout.
+     */
+    int migrateLegacyBoards() {
+        final var ids = new LinkedHashSet<String>();
+        try (final var keys = redis.scan(ScanOptions.scanOptions().match("chess::*").count(1000).build())) {
+            keys.forEachRemaining(key -> {
+                final var m = LEGACY_KEY.matcher(key);
+                if (m.matches()) {
+                    ids.add(m.group(1));
+                }
+            });
+        } catch (Exception e) {
+            // This may happen when using Redis Cluster: boards will be migrated when they're loaded.
+            logger.atWarn().log("Failed to look for boards to migrate to the new key layout", e);
+            return 0;
+        }
+
+        var migrated = 0;
+        var failures = 0;
+        for (final var id : ids) {
+            final var legacyKeys = BoardKeys.legacy(id);
+            if (migrateLegacyBoard(id).isPresent()) {
+                ++migrated;
+            } else if (redis.countExistingKeys(List.of(legacyKeys.current(), legacyKeys.error(), legacyKeys.moves())) != 0) {
+                ++failures;
+            } else {
+                // There is no board to migrate: these keys would never expire (no TTL in previous versions).
+                redis.delete(legacyKeys.all());
+            }
+        }
+        if (migrated != 0) {
+            logger.atInfo().log("Migrated {} board(s) to the new key layout", migrated);
+        }
+        if (failures == 0) {
+            // Every board has been migrated: save a round trip when loading unknown boards from now on.
+            migrateLegacyKeys = false;
+        } else {
+            logger.atWarn().log("Failed to migrate {} board(s) to the new key layout", failures);
+        }
+        return migrated;
+    }
+
+    private Optional<Board> migrateLegacyBoard(String id) {
+        final var legacyKeys = BoardKeys.legacy(id);
+        // Legacy keys are not stored in the same slot when using Redis Cluster: we cannot use a script here.
+        // This is only done once for each board, the first time it's loaded by this version of the app.
+        final var result = redis.executePipelined((RedisCallback<?>) conn -> {
+            conn.stringCommands().get(serializer.serialize(legacyKeys.current()));
+            conn.stringCommands().get(serializer.serialize(legacyKeys.error()));
+            conn.keyCommands().type(serializer.serialize(legacyKeys.moves()));
+            return null;
+        }, serializer);
+        final var current = (String) result.get(0);
+        final var error = (String) result.get(1);
+        final var moves = switch ((DataType) result.get(2)) {
+            case LIST -> redis.opsForList().range(legacyKeys.moves(), 0, -1);
+            case STRING -> MoveCodec.decode(redis.execute((RedisCallback<byte[]>) conn ->
+                    conn.stringCommands().get(serializer.serialize(legacyKeys.moves()))));
+            default -> null;
+        };
+        if (current == null && error == null && moves == null) {
+            return Optional.empty();
+        }
+
+        logger.atInfo().log("Migrating board to new key layout: {}", id);
+        try {
+            final var board = toBoard(id, current, error, Map.of(), moves == null ? List.of() : moves);
+            // The board is fully rewritten using the new key layout:
+            // we use a partial snapshot (no position) to rewrite the move list.
+            final var snapshot = board.snapshot();
+            final var partialSnapshot = new BoardSnapshot(snapshot.initialFen(), snapshot.moves(), snapshot.checkpoint(),
+                    snapshot.checkpointFen(), null, null, null, snapshot.revision());
+            final var migratedBoard = save(new Board(id, board.game(), board.currentSquare(), board.error(), partialSnapshot), 0);
+            final var question = redis.opsForValue().get(legacyKeys.question());
+            if (question != null) {
+                redis.opsForValue().set(BoardKeys.of(id).question(), question, ttl);
+            }
+            final var conversation = redis.opsForList().range(legacyKeys.conversation(), 0, -1);
+            if (conversation != null && !conversation.isEmpty()) {
+                redis.opsForList().rightPushAll(BoardKeys.of(id).conversation(), conversation);
+                redis.expire(BoardKeys.of(id).conversation(), ttl);
+            }
+            redis.delete(legacyKeys.all());
+            return Optional.of(migratedBoard);
+        } catch (OptimisticLockingFailureException e) {
+            // Someone else has migrated this board in the meantime.
+            return loadFromRedis(id);
+        } catch (Exception e) {
+            logger.atWarn().log("Failed to migrate board: {}", id, e);
+            return Optional.empty();
+        }
+    }
+
+    private Optional<Board> rehydrate(String id) {
+        final var entry = archive.find(id);
+        if (entry.isEmpty()) {
+            return Optional.empty();
+        }
+        logger.atInfo().log("Restoring archived board: {}", id);
+        final var archived = entry.get();
+        final var game = BoardSnapshot.replay(archived.initialFen(), archived.moves());
+        // The board revision goes on from the archived one: a board instance loaded before
+        // this board was archived is still detected as outdated.
+        final var snapshot = new BoardSnapshot(archived.initialFen(), archived.moves(), 0, archived.initialFen(),
+                null, null, null, archived.revision());
+        try {
+            final var restoredBoard = save(new Board(id, game, null, archived.error(), snapshot), 0);
+            if (archived.question() != null) {
+                redis.opsForValue().set(questionKey(id), archived.question(), ttl);
+            }
+            if (!archived.conversation().isEmpty()) {
+                redis.opsForList().rightPushAll(conversationKey(id), archived.conversation());
+                redis.expire(conversationKey(id), ttl);
+            }
+            return Optional.of(restoredBoard);
+        } catch (OptimisticLockingFailureException e) {
+            // Someone else has restored this board in the meantime.
+            return loadFromRedis(id);
+        }
+    }
+
+    /**
+     * Archive boards which have not been updated for some time, and remove them from Redis.
+     *
+     * @return the number of boards which were processed
+     */
+    int archiveIdleBoards(int maxBoards) {
+        if (archive == null) {
+            return 0;
+        }
+        final var ids = redis.opsForZSet().rangeByScore(ARCHIVE_QUEUE_KEY, 0, System.currentTimeMillis(), 0, maxBoards);
+        if (ids == null) {
+            return 0;
+        }
+        for (final var id : ids) {
+            final var board = loadStored(id).orElse(null);
+            if (board == null || board.snapshot() == null) {
+                // This board cannot be loaded, or it has already expired.
+                logger.atDebug().log("Skipping board archival: {}", id);
+                redis.opsForZSet().remove(ARCHIVE_QUEUE_KEY, id);
+                continue;
+            }
+            final var archiveAt = redis.<String, String>opsForHash().get(BoardKeys.of(id).snapshot(), "archive-at");
+            if (archiveAt != null && Long.parseLong(archiveAt) > System.currentTimeMillis()) {
+                // This board has been updated since it was queued: let's check again later.
+                redis.opsForZSet().add(ARCHIVE_QUEUE_KEY, id, Long.parseLong(archiveAt));
+                continue;
+            }
+            try {
+                // The AI dialog is removed from Redis with the board: it's archived as well.
+                archive.append(new BoardArchive.Entry(id, board.snapshot().initialFen(), board.moves(), board.error(),
+                        board.snapshot().revision(), findQuestion(id).orElse(null), findConversation(id)));
+            } catch (IOException e) {
+                // Let's keep this board in Redis: we'll try again later.
+                logger.atWarn().log("Failed to archive board: {}", id, e);
+                continue;
+            }
+            if (eventLog != null) {
+                // Pending events are removed with the board: make sure they're in the event log first.
+                relayEvents(id);
+            }
+            final var result = redis.execute(archiveScript, BoardKeys.of(id).all(),
+                    String.valueOf(board.snapshot().revision()),
+                    BoardCache.CHANNEL, cache == null ? "- " + id : cache.updateMessage(id));
+            if (result != null && result == 1) {
+                logger.atDebug().log("Archived board: {}", id);
+                redis.opsForZSet().remove(ARCHIVE_QUEUE_KEY, id);
+                if (cache != null) {
+                    cache.invalidate(id);
+                }
+            } else {
+                // This board was updated in the meantime: it will be archived later.
+                logger.atDebug().log("Skipping board archival after concurrent update: {}", id);
+            }
+        }
+        return ids.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<Board> loadFromRedis(String id) {
+        try {
+            final var result = redis.execute(loadScript, serializer, listSerializer(), BoardKeys.of(id).board());
+            final var current = (String) result.get(0);
+            final var errorStr = (String) result.get(1);
+            final var snapshotEntries = toMap((List<String>) result.get(2));
+            if (snapshotEntries.isEmpty() && result.get(3) == null && current == null && errorStr == null) {
+                // Nothing is stored for this board: let's start a new game.
+                return Optional.of(new Board(id, new ChessGame(initialFen), null, null));
+            }
+            final var moves = switch (result.get(3)) {
+                case null -> List.<String>of();
+                case String encoded -> MoveCodec.decode(encoded.getBytes(StandardCharsets.ISO_8859_1));
+                // Legacy format: a list of UCI moves.
+                case List<?> legacyMoves -> (List<String>) legacyMoves;
+                default -> throw new IllegalStateException("Unexpected moves format for board: " + id);
+            };
+            return Optional.of(toBoard(id, current, errorStr, snapshotEntries, moves));
+        } catch (Exception e) {
+            logger.atWarn().log("Failed to load board: {}", id, e);
+            return Optional.empty();
+        }
+    }
+
+    private Board toBoard(String id, String current, String errorStr, Map<String, String> snapshotEntries,
+                          List<String> moves) {
+        final var error = errorStr == null ? null : Board.Error.valueOf(errorStr);
+        final var revision = Long.parseLong(snapshotEntries.getOrDefault("revision", "0"));
+        if (!snapshotEntries.isEmpty()
+                && String.valueOf(moves.size()).equals(snapshotEntries.get("version"))) {
+            // This is the core mechanic of this class:
+            // we get back to the same state by playing the moves from the snapshot checkpoint,
+            // which only takes a few moves whatever the game length.
+            final var snapshot = new BoardSnapshot(snapshotEntries.get("initial"), moves,
+                    Integer.parseInt(snapshotEntries.get("checkpoint")),
+                    snapshotEntries.get("checkpoint-fen"), snapshotEntries.get("fen"), current, error, revision);
+            try {
+                return new Board(id, snapshot.restore(), current, error, snapshot);
+            } catch (IllegalStateException e) {
+                logger.atWarn().log("Ignoring snapshot for board: {}", id, e);
+            }
+        }
+
+        // No snapshot (the board was saved by a previous version of this app),
+        // or the snapshot doesn't match the move list: let's play and check each move
+        // with a brand-new board instance to get back to the same state.
+        // This board comes with a partial snapshot (no checkpoint, no position):
+        // the next save will rewrite the stored snapshot.
+        final var initial = snapshotEntries.getOrDefault("initial", initialFen);
+        final var snapshot = new BoardSnapshot(initial, moves, 0, initial, null, current, error, revision);
+        return new Board(id, BoardSnapshot.replay(initial, moves), current, error, snapshot);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisOperations<String, String> stringOperations(RedisOperations<?, ?> operations) {
+        // Session callbacks are always run by our StringRedisTemplate.
+        return (RedisOperations<String, String>) operations;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<List<Object>> listSerializer() {
+        // Redis applies the result serializer to each list element.
+        return (RedisSerializer<List<Object>>) (RedisSerializer<?>) serializer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<List<Object>> listType() {
+        return (Class<List<Object>>) (Class<?>) List.class;
+    }
+
+    @Override
+    public Optional<String> findQuestion(String id) {
+        return Optional.ofNullable(redis.opsForValue().get(questionKey(id)));
+    }
+
+    @Override
+    public void saveQuestion(String id, String question) {
+        if (question == null) {
+            redis.delete(questionKey(id));
+        } else {
+            // Like any other board key, the question expires after some time.
+            redis.executePipelined(new SessionCallback<List<Object>>() {
+                @Override
+                public <K, V> List<Object> execute(RedisOperations<K, V> operations) {
+                    final var ops = stringOperations(operations);
+                    ops.opsForValue().set(questionKey(id), question, ttl);
+                    if (eventLog != null) {
+                        eventLog.append(ops, GameEvent.questionAsked(id, question));
+                    }
+                    return null;
+                }
+            });
+        }
+    }
+
+    @Override
+    public List<String> findConversation(String id) {
+        final var entries = redis.opsForList().range(conversationKey(id), 0, -1);
+        return entries == null ? List.of() : entries;
+    }
+
+    @Override
+    public void addConversationEntry(String id, String entry, int maxEntries) {
+        final var key = conversationKey(id);
+        redis.opsForList().rightPush(key, entry);
+        // Clean up conversation entries: we remove the oldest elements.
+        redis.opsForList().trim(key, -maxEntries, -1);
+        redis.expire(key, ttl);
+    }
+
+    private static String questionKey(String id) {
+        return BoardKeys.of(id).question();
+    }
+
+    private static String conversationKey(String id) {
+        return BoardKeys.of(id).conversation();
+    }
+
+    private static Map<String, String> toMap(List<String> entries) {
+        final var map = new HashMap<String, String>(entries.size() / 2);
+        for (int i = 0; i + 1 < entries.size(); i += 2) {
+            map.put(entries.get(i), entries.get(i + 1));
+        }
+        return map;
+    }
+}
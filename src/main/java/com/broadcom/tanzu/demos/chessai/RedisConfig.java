@@ -18,10 +18,12 @@ package com.broadcom.tanzu.demos.chessai;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
 @Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(RedisResourceHints.class)
 class RedisConfig {
     @Bean
     StringRedisTemplate redisTemplate(RedisConnectionFactory redisConnectionFactory) {
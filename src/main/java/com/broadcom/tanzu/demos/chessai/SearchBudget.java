@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+
+import java.time.Duration;
+
+/**
+ * Limits for a chess engine search: engines stop searching as soon as one limit is reached.
+ * <p>
+ * Engines use their own settings for unset limits (with a value of 0), and may ignore
+ * limits they don't support: for instance, remote engines usually only accept a search depth.
+ *
+ * @param depth    maximum search depth, in plies
+ * @param moveTime maximum time to spend on the search
+ * @param nodes    maximum number of nodes to visit
+ */
+public record SearchBudget(int depth, Duration moveTime, long nodes) {
+    /**
+     * Use engine settings.
+     */
+    public static final SearchBudget DEFAULT = new SearchBudget(0, Duration.ZERO, 0);
+    private static final int FORCED_MOVES = 5;
+    private static final int COMPLEX_MOVES = 35;
+
+    public SearchBudget {
+        if (moveTime == null) {
+            moveTime = Duration.ZERO;
+        }
+        if (depth < 0 || moveTime.isNegative() || nodes < 0) {
+            throw new IllegalArgumentException("Invalid search budget: depth=" + depth
+                    + ", moveTime=" + moveTime + ", nodes=" + nodes);
+        }
+    }
+
+    /**
+     * Adapt this budget to the current position of a game: less time is spent when moves are forced,
+     * and more time is spent in complex positions (with many legal moves).
+     */
+    public SearchBudget adaptTo(ChessGame game) {
+        final var position = ChessPosition.of(game);
+        final var legalMoves = position.legalMoveCount();
+        if (legalMoves <= 1) {
+            // There's nothing to think about: the engine only needs to find the move.
+            return new SearchBudget(1, moveTime, nodes);
+        }
+        if (legalMoves <= FORCED_MOVES || position.isKingAttacked()) {
+            return scale(0.5);
+        }
+        if (legalMoves >= COMPLEX_MOVES) {
+            return scale(1.5);
+        }
+        return this;
+    }
+
+    private SearchBudget scale(double factor) {
+        return new SearchBudget(depth, Duration.ofNanos((long) (moveTime.toNanos() * factor)), (long) (nodes * factor));
+    }
+
+    /**
+     * Get the search depth, or a default value if this limit is unset.
+     */
+    public int depthOr(int defaultDepth) {
+        return depth > 0 ? depth : defaultDepth;
+    }
+
+    /**
+     * Get the move time, or a default value if this limit is unset.
+     */
+    public Duration moveTimeOr(Duration defaultMoveTime) {
+        return moveTime.isZero() ? defaultMoveTime : moveTime;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Share a single computation between concurrent callers asking for the same key:
+ * the first caller runs the computation, and other callers wait for its result.
+ * <p>
+ * Results are not kept once the computation is done: this is not a cache.
+ *
+ * @param <T> result type
+ */
+class SingleFlight<T> {
+    private final ConcurrentMap<String, CompletableFuture<T>> calls = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter collapsed;
+
+    SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = calls(meterRegistry, name, "executed");
+        this.collapsed = calls(meterRegistry, name, "collapsed");
+    }
+
+    private static Counter calls(MeterRegistry meterRegistry, String name, String result) {
+        return Counter.builder("chess.single-flight.calls")
+                .description("Calls either executed, or collapsed into a concurrent call for the same key")
+                .tag("name", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a computation, unless the same computation is already running.
+     *
+     * @param key      computation key
+     * @param supplier computation to run
+     * @return the computation result (which may come from another caller)
+     */
+    T execute(String key, Supplier<T> supplier) {
+        final var call = new CompletableFuture<T>();
+        final var running = calls.putIfAbsent(key, call);
+        if (running != null) {
+            try {
+                final var result = running.get();
+                collapsed.increment();
+                return result;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while waiting for a concurrent call: " + key);
+            } catch (CancellationException e) {
+                // The other caller was interrupted: its result cannot be trusted.
+                // Let's try again, so that a single waiter runs this computation for the others.
+                calls.remove(key, running);
+                return execute(key, supplier);
+            } catch (ExecutionException e) {
+                // The same computation would fail the same way.
+                collapsed.increment();
+                if (e.getCause() instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw new IllegalStateException("Concurrent call failed: " + key, e.getCause());
+            }
+        }
+
+        executed.increment();
+        try {
+            final var result = supplier.get();
+            if (Thread.currentThread().isInterrupted()) {
+                call.cancel(false);
+            } else {
+                call.complete(result);
+            }
+            return result;
+        } catch (RuntimeException | Error e) {
+            if (Thread.currentThread().isInterrupted() || isInterrupt(e)) {
+                // This computation failed because this caller was interrupted:
+                // other callers would have succeeded, let them elect a new leader.
+                call.cancel(false);
+            } else {
+                call.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    private static boolean isInterrupt(Throwable e) {
+        // The interrupt flag is usually cleared once the exception is thrown: look for the cause instead.
+        for (var t = e; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedException || t instanceof InterruptedIOException
+                    || t instanceof ClosedByInterruptException || t instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.move.Move;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Chess engine decorator, sharing a single engine call between concurrent requests for the same position.
+ * <p>
+ * Many games reach the same positions at the same time (think about a classroom where everyone
+ * plays the same opening): there's no need to ask the engine for each game.
+ */
+class SingleFlightChessEngine implements ChessEngine {
+    private final ChessEngine delegate;
+    private final SingleFlight<Optional<Move>> moves;
+    private final SingleFlight<List<AnalysisLine>> analyses;
+
+    SingleFlightChessEngine(ChessEngine delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.moves = new SingleFlight<>("engine-move", meterRegistry);
+        this.analyses = new SingleFlight<>("engine-analysis", meterRegistry);
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game) {
+        return getNextMove(game, SearchBudget.DEFAULT);
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game, SearchBudget budget) {
+        // Engines may return different moves depending on the search budget: budgets don't share calls.
+        final var key = key(game, budget);
+        // A hash collision is very unlikely, but let's make sure this move can be played.
+        return moves.execute(key, () -> delegate.getNextMove(game, budget)).filter(game::isLegalMove);
+    }
+
+    @Override
+    public List<AnalysisLine> analyze(ChessGame game, int lines, SearchBudget budget) {
+        final var key = key(game, budget) + ":" + lines;
+        final var analysis = analyses.execute(key, () -> delegate.analyze(game, lines, budget));
+        return analysis.stream().allMatch(line -> game.isLegalMove(line.move())) ? analysis : List.of();
+    }
+
+    private static String key(ChessGame game, SearchBudget budget) {
+        return Long.toHexString(ChessPosition.of(game).hash()) + ":" + budget.depth() + ":"
+                + budget.moveTime().toMillis() + ":" + budget.nodes();
+    }
+
+    @Override
+    public int searchDepth() {
+        return delegate.searchDepth();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
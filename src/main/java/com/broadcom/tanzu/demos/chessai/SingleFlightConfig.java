@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.chess.single-flight.enabled", havingValue = "true", matchIfMissing = true)
+class SingleFlightConfig {
+    @Bean
+    ChessEngineDecorator singleFlightDecorator(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ChessEngineDecorator() {
+            @Override
+            public ChessEngine decorate(ChessEngine engine) {
+                return new SingleFlightChessEngine(engine, meterRegistry.getObject());
+            }
+
+            @Override
+            public int getOrder() {
+                // Only cache misses are collapsed: concurrent requests end up with a single engine call,
+                // whose result is then cached.
+                return Ordered.LOWEST_PRECEDENCE - 125;
+            }
+
+            @Override
+            public String toString() {
+                return "single flight";
+            }
+        };
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.move.Move;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Chess engine decorator, playing perfect moves from endgame tablebases when few pieces remain.
+ */
+class TablebaseChessEngine implements ChessEngine {
+    private final ChessEngine delegate;
+    private final Tablebases tablebases;
+    private final int maxPieces;
+    private final Counter hits;
+
+    TablebaseChessEngine(ChessEngine delegate, Tablebases tablebases, int maxPieces, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.tablebases = tablebases;
+        this.maxPieces = maxPieces;
+        this.hits = Counter.builder("chess.engine.tablebase.hits")
+                .description("Moves played from endgame tablebases")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game) {
+        return getNextMove(game, SearchBudget.DEFAULT);
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game, SearchBudget budget) {
+        final var position = ChessPosition.of(game);
+        if (position.occupiedCount() > maxPieces || tablebases.probe(position.fen()).isEmpty()) {
+            return delegate.getNextMove(game, budget);
+        }
+
+        // Pick the move leading to the fastest checkmate (or the slowest one when this game is lost).
+        Move bestMove = null;
+        int bestScore = Integer.MIN_VALUE;
+        for (final var move : game.getLegalMoves()) {
+            final var next = game.clone();
+            next.playMove(move);
+            final var value = tablebases.probe(next.getFen()).orElse(Tablebases.DRAW);
+            final int score;
+            if (value == Tablebases.DRAW) {
+                score = 0;
+            } else if (value % 2 == 0) {
+                // The opponent is checkmated in this number of plies.
+                score = 1000 - value;
+            } else {
+                score = value - 1000;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+        }
+        if (bestMove == null) {
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(bestMove);
+    }
+
+    @Override
+    public List<AnalysisLine> analyze(ChessGame game, int lines, SearchBudget budget) {
+        return delegate.analyze(game, lines, budget);
+    }
+
+    @Override
+    public int searchDepth() {
+        return delegate.searchDepth();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
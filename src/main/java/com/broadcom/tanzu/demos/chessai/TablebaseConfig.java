@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.chess.tablebase.enabled", havingValue = "true")
+class TablebaseConfig {
+    private final Logger logger = LoggerFactory.getLogger(TablebaseConfig.class);
+
+    @Bean
+    Tablebases tablebases(@Value("${app.chess.tablebase.path:${java.io.tmpdir}/chess-tablebases}") Path path,
+                          @Value("${app.chess.tablebase.cache-size:4MB}") DataSize cacheSize) {
+        final var tablebases = new Tablebases(path, cacheSize.toBytes());
+        // Tablebases are generated in the background: until then, the next engine in the chain is used.
+        // This is a CPU-bound task: a virtual thread would keep a carrier thread busy, delaying other virtual threads.
+        Thread.ofPlatform().daemon().priority(Thread.MIN_PRIORITY).name("chess-tablebases").start(() -> {
+            try {
+                tablebases.generate();
+            } catch (IOException e) {
+                logger.atWarn().log("Failed to generate tablebases: {}", path, e);
+            }
+        });
+        return tablebases;
+    }
+
+    @Bean
+    ChessEngineDecorator tablebaseDecorator(Tablebases tablebases,
+                                            @Value("${app.chess.tablebase.max-pieces:3}") int maxPieces,
+                                            ObjectProvider<MeterRegistry> meterRegistry) {
+        if (maxPieces > Tablebases.MAX_PIECES) {
+            throw new IllegalArgumentException("Tablebases are only available for up to "
+                    + Tablebases.MAX_PIECES + " pieces: " + maxPieces);
+        }
+        return new ChessEngineDecorator() {
+            @Override
+            public ChessEngine decorate(ChessEngine engine) {
+                return new TablebaseChessEngine(engine, tablebases, maxPieces, meterRegistry.getObject());
+            }
+
+            @Override
+            public int getOrder() {
+                // Tablebase moves are cheaper than a cache lookup in Redis.
+                return Ordered.LOWEST_PRECEDENCE - 50;
+            }
+
+            @Override
+            public String toString() {
+                return "endgame tablebases";
+            }
+        };
+    }
+}
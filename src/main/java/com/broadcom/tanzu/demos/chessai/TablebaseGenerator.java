@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Generate a tablebase for a 3-piece endgame (a king and a piece against a lone king).
+ * <p>
+ * Positions are normalized so that white is the strong side. Each position gets the number
+ * of plies to checkmate with perfect play, computed by retrograde analysis: a position is won
+ * in <code>n</code> plies when a move leads to a position lost in <code>n - 1</code> plies,
+ * and lost in <code>n</code> plies when all moves lead to positions won in at most <code>n - 1</code> plies.
+ */
+class TablebaseGenerator {
+    static final int WHITE = 0;
+    static final int BLACK = 1;
+    private static final int DRAW = Tablebases.DRAW;
+    private static final int[] KING_STEPS = {-9, -8, -7, -1, 1, 7, 8, 9};
+    private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    private static final int[][] QUEEN_DIRECTIONS = {
+            {0, 1}, {0, -1}, {1, 0}, {-1, 0}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
+    private final Logger logger = LoggerFactory.getLogger(TablebaseGenerator.class);
+    private final Tablebases.Material material;
+    private final ByteBuffer queenTable;
+    private final ByteBuffer rookTable;
+    private final byte[] table = new byte[Tablebases.TABLE_SIZE];
+    // Up to 27 queen moves and 8 king moves.
+    private final int[] children = new int[40];
+
+    /**
+     * Create a generator: queen and rook tablebases are only required to evaluate pawn promotions.
+     */
+    TablebaseGenerator(Tablebases.Material material, ByteBuffer queenTable, ByteBuffer rookTable) {
+        this.material = material;
+        this.queenTable = queenTable;
+        this.rookTable = rookTable;
+    }
+
+    static int index(int stm, int wk, int bk, int piece) {
+        return ((stm * 64 + wk) * 64 + bk) * 64 + piece;
+    }
+
+    byte[] generate() {
+        final var start = System.nanoTime();
+        // Positions with no legal move are checkmates (or stalemates, which are draws).
+        for (int i = 0; i < table.length; ++i) {
+            final int stm = i >>> 18, wk = (i >>> 12) & 63, bk = (i >>> 6) & 63, piece = i & 63;
+            if (isLegal(stm, wk, bk, piece) && generateChildren(stm, wk, bk, piece) == 0
+                    && stm == BLACK && attacks(piece, bk, wk)) {
+                table[i] = 1;
+            }
+        }
+
+        // Positions which are neither won nor lost after two passes are draws.
+        // Pawn promotions may lead to checkmates in many plies: passes with no update are expected until then.
+        final int minPlies = Math.max(longest(queenTable), longest(rookTable)) + 2;
+        int emptyPasses = 0;
+        for (int plies = 1; (emptyPasses < 2 || plies <= minPlies) && plies < 255; ++plies) {
+            int updates = 0;
+            for (int i = 0; i < table.length; ++i) {
+                if (table[i] != 0) {
+                    continue;
+                }
+                final int stm = i >>> 18, wk = (i >>> 12) & 63, bk = (i >>> 6) & 63, piece = i & 63;
+                if (!isLegal(stm, wk, bk, piece)) {
+                    continue;
+                }
+                final int count = generateChildren(stm, wk, bk, piece);
+                if (count > 0 && (plies % 2 == 1 ? isWon(count, plies) : isLost(count, plies))) {
+                    table[i] = (byte) (plies + 1);
+                    ++updates;
+                }
+            }
+            emptyPasses = updates == 0 ? emptyPasses + 1 : 0;
+        }
+        logger.atDebug().log("Generated tablebase {} in {} ms", material,
+                (System.nanoTime() - start) / 1_000_000);
+        return table;
+    }
+
+    private static int longest(ByteBuffer table) {
+        int longest = 0;
+        for (int i = 0; table != null && i < Tablebases.TABLE_SIZE; ++i) {
+            longest = Math.max(longest, Tablebases.value(table, i));
+        }
+        return longest;
+    }
+
+    private boolean isWon(int count, int plies) {
+        for (int i = 0; i < count; ++i) {
+            if (children[i] == plies - 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isLost(int count, int plies) {
+        int longest = -1;
+        for (int i = 0; i < count; ++i) {
+            final int child = children[i];
+            if (child == DRAW || child % 2 == 0) {
+                return false;
+            }
+            longest = Math.max(longest, child);
+        }
+        return longest == plies - 1;
+    }
+
+    private int value(int index) {
+        // Same encoding as tablebase files: 0 for a draw, or the number of plies to checkmate plus one.
+        return Byte.toUnsignedInt(table[index]) - 1;
+    }
+
+    private boolean isLegal(int stm, int wk, int bk, int piece) {
+        if (wk == bk || wk == piece || bk == piece || isAdjacent(wk, bk)) {
+            return false;
+        }
+        if (material.piece() == 'P' && (piece < 8 || piece >= 56)) {
+            return false;
+        }
+        // The side which is not to move cannot be in check.
+        return stm == BLACK || !attacks(piece, bk, wk);
+    }
+
+    /**
+     * Fill the values of positions reached by each legal move, returning the number of legal moves.
+     */
+    private int generateChildren(int stm, int wk, int bk, int piece) {
+        int count = 0;
+        if (stm == BLACK) {
+            for (final var step : KING_STEPS) {
+                final int to = bk + step;
+                if (!isKingStep(bk, to) || to == wk || isAdjacent(to, wk)) {
+                    continue;
+                }
+                if (to == piece) {
+                    // Capturing the piece leaves two kings: this is a draw.
+                    children[count++] = DRAW;
+                } else if (!attacks(piece, to, wk)) {
+                    children[count++] = value(index(WHITE, wk, to, piece));
+                }
+            }
+            return count;
+        }
+
+        for (final var step : KING_STEPS) {
+            final int to = wk + step;
+            if (isKingStep(wk, to) && to != piece && to != bk && !isAdjacent(to, bk)) {
+                children[count++] = value(index(BLACK, to, bk, piece));
+            }
+        }
+        if (material.piece() == 'P') {
+            final int to = piece + 8;
+            if (to != wk && to != bk) {
+                if (to >= 56) {
+                    // Promoting to a bishop or a knight is a draw: this is never better than a queen.
+                    children[count++] = Tablebases.value(queenTable, index(BLACK, wk, bk, to));
+                    children[count++] = Tablebases.value(rookTable, index(BLACK, wk, bk, to));
+                } else {
+                    children[count++] = value(index(BLACK, wk, bk, to));
+                    if (piece < 16 && to + 8 != wk && to + 8 != bk) {
+                        children[count++] = value(index(BLACK, wk, bk, to + 8));
+                    }
+                }
+            }
+        } else {
+            for (final var d : material.piece() == 'Q' ? QUEEN_DIRECTIONS : ROOK_DIRECTIONS) {
+                int file = (piece & 7) + d[0], rank = (piece >>> 3) + d[1];
+                for (; file >= 0 && file < 8 && rank >= 0 && rank < 8; file += d[0], rank += d[1]) {
+                    final int to = rank * 8 + file;
+                    if (to == wk || to == bk) {
+                        break;
+                    }
+                    children[count++] = value(index(BLACK, wk, bk, to));
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Check if a square is attacked by the white piece (the white king may block its way).
+     */
+    private boolean attacks(int piece, int target, int wk) {
+        final int df = (target & 7) - (piece & 7), dr = (target >>> 3) - (piece >>> 3);
+        if (material.piece() == 'P') {
+            return dr == 1 && Math.abs(df) == 1;
+        }
+        final boolean straight = df == 0 || dr == 0;
+        final boolean diagonal = Math.abs(df) == Math.abs(dr);
+        if (target == piece || !(straight || (diagonal && material.piece() == 'Q'))) {
+            return false;
+        }
+        final int stepFile = Integer.signum(df), stepRank = Integer.signum(dr);
+        for (int sq = piece + stepRank * 8 + stepFile; sq != target; sq += stepRank * 8 + stepFile) {
+            if (sq == wk) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isKingStep(int from, int to) {
+        return to >= 0 && to < 64 && Math.abs((to & 7) - (from & 7)) <= 1;
+    }
+
+    private static boolean isAdjacent(int a, int b) {
+        return Math.abs((a & 7) - (b & 7)) <= 1 && Math.abs((a >>> 3) - (b >>> 3)) <= 1;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Endgame tablebases for positions with up to 3 pieces.
+ * <p>
+ * Tablebases are generated once (see {@link #generate()}), and stored as files in a local directory:
+ * these files are memory-mapped when a position needs to be probed. Mapped files are released
+ * when their total size exceeds the cache size, starting with the least recently used ones.
+ * Positions are not covered by a tablebase until it's generated.
+ */
+class Tablebases {
+    static final int MAX_PIECES = 3;
+    static final int TABLE_SIZE = 2 * 64 * 64 * 64;
+    static final int DRAW = -1;
+    private final Logger logger = LoggerFactory.getLogger(Tablebases.class);
+    private final Path directory;
+    private final long cacheSize;
+    private final Map<Material, ByteBuffer> tables = new LinkedHashMap<>(4, 0.75f, true);
+
+    enum Material {
+        KQK('Q'), KRK('R'), KPK('P');
+
+        private final char piece;
+
+        Material(char piece) {
+            this.piece = piece;
+        }
+
+        char piece() {
+            return piece;
+        }
+
+        static Material of(char piece) {
+            for (final var m : values()) {
+                if (m.piece == piece) {
+                    return m;
+                }
+            }
+            return null;
+        }
+    }
+
+    Tablebases(Path directory, long cacheSize) {
+        this.directory = directory;
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Probe a position.
+     *
+     * @return the number of plies to checkmate with perfect play (the side to move wins when this number is odd),
+     * {@link #DRAW}, or nothing when this position is not covered by tablebases (or the tablebase is not ready yet)
+     */
+    OptionalInt probe(String fen) {
+        final var parts = fen.trim().split("\\s+");
+        int wk = -1, bk = -1, piece = -1, count = 0;
+        char pieceType = 0;
+        int sq = 56;
+        for (final var c : parts[0].toCharArray()) {
+            if (c == '/') {
+                sq -= 16;
+            } else if (c >= '1' && c <= '8') {
+                sq += c - '0';
+            } else {
+                if (++count > MAX_PIECES) {
+                    return OptionalInt.empty();
+                }
+                if (c == 'K') {
+                    wk = sq;
+                } else if (c == 'k') {
+                    bk = sq;
+                } else {
+                    piece = sq;
+                    pieceType = c;
+                }
+                ++sq;
+            }
+        }
+        if (wk < 0 || bk < 0) {
+            return OptionalInt.empty();
+        }
+        if (piece < 0) {
+            return OptionalInt.of(DRAW);
+        }
+        final var material = Material.of(Character.toUpperCase(pieceType));
+        if (material == null) {
+            // A single bishop or knight cannot checkmate.
+            return OptionalInt.of(DRAW);
+        }
+
+        int stm = "b".equals(parts[1]) ? TablebaseGenerator.BLACK : TablebaseGenerator.WHITE;
+        if (Character.isLowerCase(pieceType)) {
+            // Tablebases are generated with white as the strong side: flip the board and swap colors.
+            final int king = wk;
+            wk = bk ^ 56;
+            bk = king ^ 56;
+            piece ^= 56;
+            stm ^= 1;
+        }
+        final var table = table(material);
+        if (table == null) {
+            return OptionalInt.empty();
+        }
+        return OptionalInt.of(value(table, TablebaseGenerator.index(stm, wk, bk, piece)));
+    }
+
+    static int value(ByteBuffer table, int index) {
+        final int value = Byte.toUnsignedInt(table.get(index));
+        return value == 0 ? DRAW : value - 1;
+    }
+
+    /**
+     * Get a tablebase, or <code>null</code> if it has not been generated yet.
+     */
+    synchronized ByteBuffer table(Material material) {
+        var table = tables.get(material);
+        if (table == null) {
+            final var path = path(material);
+            try {
+                if (!isGenerated(path)) {
+                    return null;
+                }
+                table = map(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load tablebase " + material, e);
+            }
+            tables.put(material, table);
+            // Released buffers are unmapped once they are garbage collected.
+            final var i = tables.keySet().iterator();
+            while ((long) tables.size() * TABLE_SIZE > cacheSize && tables.size() > 1) {
+                final var evicted = i.next();
+                i.remove();
+                logger.atDebug().log("Released tablebase {}", evicted);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Generate missing tablebases: this may take a few seconds.
+     * <p>
+     * No lock is held while generating tablebases: positions are probed as usual in the meantime.
+     */
+    void generate() throws IOException {
+        // Pawn endgames rely on queen and rook endgames (promotions): these tablebases are generated first.
+        for (final var material : Material.values()) {
+            final var path = path(material);
+            if (isGenerated(path)) {
+                continue;
+            }
+            logger.atInfo().log("Generating tablebase {}: {}", material, path);
+            final var generator = material == Material.KPK
+                    ? new TablebaseGenerator(material, map(path(Material.KQK)), map(path(Material.KRK)))
+                    : new TablebaseGenerator(material, null, null);
+            final var data = generator.generate();
+            // Other app instances may use the same directory: the file is written atomically.
+            Files.createDirectories(directory);
+            final var tmp = Files.createTempFile(directory, material.name(), ".tmp");
+            Files.write(tmp, data);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private Path path(Material material) {
+        return directory.resolve(material.name() + ".tb");
+    }
+
+    private static boolean isGenerated(Path path) throws IOException {
+        return Files.exists(path) && Files.size(path) == TABLE_SIZE;
+    }
+
+    private static ByteBuffer map(Path path) throws IOException {
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, TABLE_SIZE);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Compute a 64-bit Zobrist hash for a chess position.
+ * <p>
+ * Only the position itself is hashed (pieces, side to move, castling rights and en passant square):
+ * move counters from the FEN are ignored, so that the same position reached in different games
+ * gets the same hash.
+ * <p>
+ * Random values are laid out like the Polyglot opening book format: when loaded with the
+ * standard Polyglot table (see {@link #polyglot(Resource)}), hashes match Polyglot position keys.
+ */
+final class ZobristHash {
+    /**
+     * Number of random values: 12 pieces x 64 squares, 4 castling rights, 8 en passant files, 1 side to move.
+     */
+    static final int TABLE_SIZE = 781;
+    private static final int CASTLING_OFFSET = 768;
+    private static final int EN_PASSANT_OFFSET = 772;
+    private static final int TURN_OFFSET = 780;
+    // Polyglot piece order: black pawn, white pawn, black knight, white knight, and so on.
+    private static final String PIECES = "pPnNbBrRqQkK";
+    private static final Pattern HEX_VALUE = Pattern.compile("(?i)(?:0x)?([0-9a-f]{16})(?:u?ll|u)?");
+    /**
+     * Reference keys published with the Polyglot book format: these positions cover pieces,
+     * castling rights, en passant files and the side to move.
+     */
+    static final Map<String, Long> POLYGLOT_REFERENCE_KEYS = Map.of(
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", 0x463b96181691fc9cL,
+            "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", 0x823c9b50fd114196L,
+            "rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2", 0x0756b94461c50fb0L,
+            "rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR b KQkq - 0 2", 0x662fafb965db29d4L,
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3", 0x22a48b5a8e47ff78L,
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR b kq - 0 3", 0x652a607ca3f242c1L,
+            "rnbq1bnr/ppp1pkpp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR w - - 0 4", 0x00fdd303c946bdd9L,
+            "rnbqkbnr/p1pppppp/8/8/PpP4P/8/1P1PPPP1/RNBQKBNR b KQkq c3 0 3", 0x3c8123ea7b067637L,
+            "rnbqkbnr/p1pppppp/8/8/P6P/R1p5/1P1PPPP1/1NBQKBNR b Kkq - 0 4", 0x5c3f9b829b279560L);
+    /**
+     * Random values used for engine cache keys: these are not the Polyglot values.
+     */
+    static final ZobristHash DEFAULT;
+
+    static {
+        // Hashes are shared by app instances (and stored in Redis): keys must never change.
+        final var random = new SplittableRandom(0x2b992ddfa23249d6L);
+        final var table = new long[TABLE_SIZE];
+        for (int i = 0; i < table.length; ++i) {
+            table[i] = random.nextLong();
+        }
+        DEFAULT = new ZobristHash(table);
+    }
+
+    private final long[] table;
+
+    ZobristHash(long[] table) {
+        if (table.length != TABLE_SIZE) {
+            throw new IllegalArgumentException("Expected " + TABLE_SIZE + " random values, got " + table.length);
+        }
+        this.table = table.clone();
+    }
+
+    /**
+     * Load random values from a text resource, such as the <code>Random64</code> table
+     * published with the Polyglot book format (hexadecimal values, in the same order).
+     */
+    static ZobristHash load(Resource resource) throws IOException {
+        final String text;
+        try (final var in = resource.getInputStream()) {
+            text = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+        }
+        final var values = HEX_VALUE.matcher(text).results()
+                .mapToLong(m -> Long.parseUnsignedLong(m.group(1), 16))
+                .toArray();
+        return new ZobristHash(values);
+    }
+
+    /**
+     * Load the Polyglot <code>Random64</code> table from a text resource.
+     * The table is checked against the Polyglot reference keys: a wrong table would silently
+     * make book lookups miss.
+     */
+    static ZobristHash polyglot(Resource resource) throws IOException {
+        final var keys = load(resource);
+        for (final var e : POLYGLOT_REFERENCE_KEYS.entrySet()) {
+            if (keys.hash(e.getKey()) != e.getValue()) {
+                throw new IllegalArgumentException("Not the Polyglot Random64 table (wrong key for "
+                        + e.getKey() + "): " + resource);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Compute a position hash using the default random values.
+     */
+    static long of(String fen) {
+        return DEFAULT.hash(fen);
+    }
+
+    long hash(String fen) {
+        final var parts = fen.trim().split("\\s+");
+        if (parts.length < 4) {
+            throw new IllegalArgumentException("Invalid FEN: " + fen);
+        }
+        // Squares are numbered from A1 (0) to H8 (63).
+        final var board = new int[64];
+        long hash = 0;
+        int sq = 56;
+        for (final var c : parts[0].toCharArray()) {
+            if (c == '/') {
+                sq -= 16;
+            } else if (c >= '1' && c <= '8') {
+                sq += c - '0';
+            } else {
+                final int piece = PIECES.indexOf(c);
+                if (piece < 0 || sq < 0 || sq > 63) {
+                    throw new IllegalArgumentException("Invalid FEN: " + fen);
+                }
+                board[sq] = piece + 1;
+                hash ^= table[64 * piece + sq++];
+            }
+        }
+        final var white = !"b".equals(parts[1]);
+        if (white) {
+            hash ^= table[TURN_OFFSET];
+        }
+        for (final var c : parts[2].toCharArray()) {
+            final int i = "KQkq".indexOf(c);
+            if (i >= 0) {
+                hash ^= table[CASTLING_OFFSET + i];
+            }
+        }
+        if (!"-".equals(parts[3])) {
+            // The en passant square is only hashed when a pawn is able to capture,
+            // since some FEN writers set this square after any double pawn push.
+            final int file = parts[3].charAt(0) - 'a';
+            final int pawnRank = white ? 4 : 3;
+            final int pawn = PIECES.indexOf(white ? 'P' : 'p') + 1;
+            if ((file > 0 && board[pawnRank * 8 + file - 1] == pawn)
+                    || (file < 7 && board[pawnRank * 8 + file + 1] == pawn)) {
+                hash ^= table[EN_PASSANT_OFFSET + file];
+            }
+        }
+        return hash;
+    }
+}
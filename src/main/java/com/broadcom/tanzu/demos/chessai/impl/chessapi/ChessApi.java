@@ -18,14 +18,9 @@ package com.broadcom.tanzu.demos.chessai.impl.chessapi;
 
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.service.annotation.PostExchange;
+import reactor.core.publisher.Mono;
 
 interface ChessApi {
     @PostExchange("/")
-    ChessApiResponse getNextMove(@RequestBody ChessApiRequest req);
-}
-
-record ChessApiRequest(String fen, int depth) {
-}
-
-record ChessApiResponse(String bestMove, Integer mate) {
+    Mono<ChessApiResponse> getNextMove(@RequestBody ChessApiRequest req);
 }
@@ -16,16 +16,25 @@
 
 package com.broadcom.tanzu.demos.chessai.impl.chessapi;
 
+import com.broadcom.tanzu.demos.chessai.AnalysisLine;
 import com.broadcom.tanzu.demos.chessai.ChessEngine;
+import com.broadcom.tanzu.demos.chessai.SearchBudget;
 import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.board.Side;
 import io.github.wolfraam.chessgame.move.Move;
 import io.github.wolfraam.chessgame.notation.NotationType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 class ChessApiEngine implements ChessEngine {
+    private static final int DEPTH = 3;
+    private static final int MAX_DEPTH = 18;
     private final Logger logger = LoggerFactory.getLogger(ChessApiEngine.class);
     private final ChessApi api;
 
@@ -33,19 +42,68 @@ class ChessApiEngine implements ChessEngine {
         this.api = api;
     }
 
+    @Override
     public Optional<Move> getNextMove(ChessGame game) {
+        return getNextMove(game, SearchBudget.DEFAULT);
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game, SearchBudget budget) {
+        return getNextMoveAsync(game, budget).join();
+    }
+
+    @Override
+    public CompletableFuture<Optional<Move>> getNextMoveAsync(ChessGame game, SearchBudget budget) {
+        // Only the search depth is supported by this API.
+        final var depth = Math.min(budget.depthOr(DEPTH), MAX_DEPTH);
         final var fen = game.getFen();
         logger.atDebug().log("Using Chess-API.online to guess next move using FEN: {}", fen);
-        final var resp = api.getNextMove(new ChessApiRequest(fen, 3));
-        final var rawMove = resp != null ? resp.bestMove() : null;
-        if (rawMove == null) {
-            logger.atWarn().log("No next move found using Chess-API.online using FEN: {}", fen);
-            return Optional.empty();
+        return api.getNextMove(new ChessApiRequest(fen, depth))
+                .mapNotNull(ChessApiResponse::bestMove)
+                .map(rawMove -> {
+                    final var nextMove = game.getMove(NotationType.UCI, rawMove);
+                    logger.atInfo().log("Found next move with Chess-API.online using FEN '{}': {}", fen, nextMove);
+                    return Optional.of(nextMove);
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    logger.atWarn().log("No next move found using Chess-API.online using FEN: {}", fen);
+                    return Optional.empty();
+                }))
+                .toFuture();
+    }
+
+    @Override
+    public List<AnalysisLine> analyze(ChessGame game, int lines, SearchBudget budget) {
+        // This API only returns the best line, with its score and continuation.
+        final var depth = Math.min(budget.depthOr(DEPTH), MAX_DEPTH);
+        final var fen = game.getFen();
+        logger.atDebug().log("Using Chess-API.online to analyze game using FEN: {}", fen);
+        return api.getNextMove(new ChessApiRequest(fen, depth))
+                .filter(resp -> resp.bestMove() != null)
+                .map(resp -> toAnalysis(game, resp))
+                .defaultIfEmpty(List.of())
+                .toFuture().join();
+    }
+
+    private List<AnalysisLine> toAnalysis(ChessGame game, ChessApiResponse resp) {
+        final var pv = new ArrayList<String>();
+        if (resp.continuationArr() != null) {
+            pv.addAll(resp.continuationArr());
+        }
+        if (pv.isEmpty() || !resp.bestMove().equals(pv.getFirst())) {
+            pv.addFirst(resp.bestMove());
         }
+        // Scores are converted to the side to move.
+        final var sign = game.getSideToMove() == Side.WHITE ? 1 : -1;
+        final var mate = resp.mate() == null ? null : resp.mate() * sign;
+        final var centipawns = mate != null || resp.centipawns() == null ? null : resp.centipawns() * sign;
+        final var line = AnalysisLine.of(game, pv, centipawns, mate);
+        return line == null ? List.of() : List.of(line);
+    }
 
-        final var nextMove = game.getMove(NotationType.UCI, rawMove);
-        logger.atInfo().log("Found next move with Chess-API.online using FEN '{}': {}", fen, nextMove);
-        return Optional.of(nextMove);
+    @Override
+    public int searchDepth() {
+        return DEPTH;
     }
 
     @Override
@@ -16,32 +16,41 @@
 
 package com.broadcom.tanzu.demos.chessai.impl.chessapi;
 
+import com.broadcom.tanzu.demos.chessai.ConditionalOnChessEngine;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.web.client.RestClient;
-import org.springframework.web.client.support.RestClientAdapter;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.support.WebClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Configuration(proxyBeanMethods = false)
-@ConditionalOnProperty(name = "app.chess.engine", havingValue = "chessapi")
+@ConditionalOnChessEngine("chessapi")
 class ChessApiEngineConfig {
     @Bean
-    ChessApi chessApi(RestClient.Builder clientBuilder,
-                      @Value("${app.chess-api.url}") String chessApiUrl) {
+    ChessApi chessApi(WebClient.Builder clientBuilder, HttpClient chessEngineHttpClient,
+                      @Value("${app.chess-api.url}") String chessApiUrl,
+                      @Value("${app.chess.engine-http.read-timeout:10s}") Duration readTimeout) {
+        // Engine calls are non-blocking, using a connection pool shared by all chess engines.
+        final var connector = new JdkClientHttpConnector(chessEngineHttpClient);
+        connector.setReadTimeout(readTimeout);
         final var client = clientBuilder
                 .clone()
-                .requestFactory(new HttpComponentsClientHttpRequestFactory())
+                .clientConnector(connector)
                 .baseUrl(chessApiUrl)
                 .build();
-        return HttpServiceProxyFactory.builderFor(RestClientAdapter.create(client))
+        return HttpServiceProxyFactory.builderFor(WebClientAdapter.create(client))
                 .build().createClient(ChessApi.class);
     }
 
     @Bean
-    ChessApiEngine chessEngine(ChessApi chessApi) {
+    @Qualifier("chessapi")
+    ChessApiEngine chessApiEngine(ChessApi chessApi) {
         return new ChessApiEngine(chessApi);
     }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai.impl.embedded;
+
+/**
+ * Precomputed attack tables for bitboards.
+ * <p>
+ * Squares are numbered from A1 (0) to H8 (63): bit N in a bitboard is set when square N is occupied.
+ * Sliding piece attacks are computed using rays: the ray beyond the first blocker is removed.
+ */
+final class Bitboards {
+    static final long RANK_1 = 0xffL;
+    static final long RANK_3 = RANK_1 << 16;
+    static final long RANK_6 = RANK_1 << 40;
+    static final long RANK_8 = RANK_1 << 56;
+
+    static final long[] KNIGHT_ATTACKS = new long[64];
+    static final long[] KING_ATTACKS = new long[64];
+    static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    // Directions with a positive offset come first (north, east, north-east, north-west),
+    // so that the nearest blocker is the lowest bit in the ray.
+    private static final int[] FILE_STEPS = {0, 1, 1, -1, 0, -1, 1, -1};
+    private static final int[] RANK_STEPS = {1, 0, 1, 1, -1, 0, -1, -1};
+    private static final long[][] RAYS = new long[8][64];
+
+    static {
+        for (int sq = 0; sq < 64; ++sq) {
+            final int file = sq & 7;
+            final int rank = sq >>> 3;
+            KNIGHT_ATTACKS[sq] = steps(file, rank, new int[][]{
+                    {1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}});
+            KING_ATTACKS[sq] = steps(file, rank, new int[][]{
+                    {1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}});
+            PAWN_ATTACKS[Position.WHITE][sq] = steps(file, rank, new int[][]{{1, 1}, {-1, 1}});
+            PAWN_ATTACKS[Position.BLACK][sq] = steps(file, rank, new int[][]{{1, -1}, {-1, -1}});
+            for (int dir = 0; dir < 8; ++dir) {
+                long ray = 0;
+                for (int f = file + FILE_STEPS[dir], r = rank + RANK_STEPS[dir];
+                     f >= 0 && f < 8 && r >= 0 && r < 8; f += FILE_STEPS[dir], r += RANK_STEPS[dir]) {
+                    ray |= 1L << (r * 8 + f);
+                }
+                RAYS[dir][sq] = ray;
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    static long rookAttacks(int sq, long occupied) {
+        return ray(0, sq, occupied) | ray(1, sq, occupied) | ray(4, sq, occupied) | ray(5, sq, occupied);
+    }
+
+    static long bishopAttacks(int sq, long occupied) {
+        return ray(2, sq, occupied) | ray(3, sq, occupied) | ray(6, sq, occupied) | ray(7, sq, occupied);
+    }
+
+    private static long ray(int dir, int sq, long occupied) {
+        final long ray = RAYS[dir][sq];
+        final long blockers = ray & occupied;
+        if (blockers == 0) {
+            return ray;
+        }
+        final int blocker = dir < 4 ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+        return ray ^ RAYS[dir][blocker];
+    }
+
+    private static long steps(int file, int rank, int[][] steps) {
+        long attacks = 0;
+        for (final var step : steps) {
+            final int f = file + step[0];
+            final int r = rank + step[1];
+            if (f >= 0 && f < 8 && r >= 0 && r < 8) {
+                attacks |= 1L << (r * 8 + f);
+            }
+        }
+        return attacks;
+    }
+}
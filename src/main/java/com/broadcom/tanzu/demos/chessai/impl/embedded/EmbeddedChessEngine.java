@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai.impl.embedded;
+
+import com.broadcom.tanzu.demos.chessai.AnalysisLine;
+import com.broadcom.tanzu.demos.chessai.ChessEngine;
+import com.broadcom.tanzu.demos.chessai.SearchBudget;
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.move.Move;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+class EmbeddedChessEngine implements ChessEngine {
+    private final Logger logger = LoggerFactory.getLogger(EmbeddedChessEngine.class);
+    private final TranspositionTable table;
+    private final int maxDepth;
+    private final Duration moveTime;
+
+    EmbeddedChessEngine(TranspositionTable table, int maxDepth, Duration moveTime) {
+        this.table = table;
+        this.maxDepth = maxDepth;
+        this.moveTime = moveTime;
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game) {
+        return getNextMove(game, SearchBudget.DEFAULT);
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game, SearchBudget budget) {
+        final var fen = game.getFen();
+        logger.atDebug().log("Using embedded engine to guess next move using FEN: {}", fen);
+
+        final var result = new Search(toPosition(game), table)
+                .search(budget.depthOr(maxDepth), budget.moveTimeOr(moveTime), budget.nodes());
+        if (result.move() == 0) {
+            logger.atWarn().log("No next move found with embedded engine using FEN: {}", fen);
+            return Optional.empty();
+        }
+
+        final var nextMove = game.getMove(NotationType.UCI, Position.toUci(result.move()));
+        logger.atInfo().log("Found next move with embedded engine using FEN '{}': {} (depth: {}, score: {}, nodes/s: {})",
+                fen, nextMove, result.depth(), result.score(), result.nodesPerSecond());
+        return Optional.of(nextMove);
+    }
+
+    @Override
+    public List<AnalysisLine> analyze(ChessGame game, int lines, SearchBudget budget) {
+        final var fen = game.getFen();
+        logger.atDebug().log("Using embedded engine to analyze {} lines using FEN: {}", lines, fen);
+
+        // The search budget is shared by all lines: each line is a search ignoring the best moves found so far.
+        final var count = Math.max(1, lines);
+        final var depth = budget.depthOr(maxDepth);
+        final var timeLimit = budget.moveTimeOr(moveTime).dividedBy(count);
+        final var nodes = budget.nodes() > 0 ? Math.max(1, budget.nodes() / count) : 0;
+        final var position = toPosition(game);
+        final var bestMoves = new int[count];
+        final var analysis = new ArrayList<AnalysisLine>(count);
+        for (int i = 0; i < count; ++i) {
+            final var search = new Search(position, table);
+            final var result = search.search(depth, timeLimit, nodes, Arrays.copyOf(bestMoves, i));
+            if (result.move() == 0) {
+                // All legal moves have been analyzed.
+                break;
+            }
+            bestMoves[i] = result.move();
+
+            final var pv = new ArrayList<Move>();
+            final var next = game.clone();
+            for (final var move : search.principalVariation(result.move(), Math.max(depth, 1))) {
+                final var m = next.getMove(NotationType.UCI, Position.toUci(move));
+                pv.add(m);
+                next.playMove(m);
+            }
+            final var score = result.score();
+            if (Math.abs(score) >= Search.MATE - Search.MAX_PLY) {
+                // Mate scores are stored in plies: let's count moves instead.
+                final var plies = Search.MATE - Math.abs(score);
+                final var mate = (plies + 1) / 2;
+                analysis.add(new AnalysisLine(pv.getFirst(), null, score > 0 ? mate : -mate, pv));
+            } else {
+                analysis.add(new AnalysisLine(pv.getFirst(), score, null, pv));
+            }
+        }
+        logger.atDebug().log("Analyzed {} lines with embedded engine using FEN '{}': {}", analysis.size(), fen, analysis);
+        return analysis;
+    }
+
+    private static Position toPosition(ChessGame game) {
+        // Moves are played from the initial position, so that the search is able to detect repetitions.
+        final var position = Position.fromFen(game.getInitialFen());
+        for (final var move : game.getNotationList(NotationType.UCI)) {
+            position.play(move);
+        }
+        return position;
+    }
+
+    @Override
+    public int searchDepth() {
+        return maxDepth;
+    }
+
+    @Override
+    public String toString() {
+        return "embedded engine";
+    }
+}
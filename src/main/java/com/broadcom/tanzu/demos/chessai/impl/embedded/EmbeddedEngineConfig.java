@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai.impl.embedded;
+
+import com.broadcom.tanzu.demos.chessai.ConditionalOnChessEngine;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnChessEngine("embedded")
+class EmbeddedEngineConfig {
+    @Bean
+    @Qualifier("embedded")
+    EmbeddedChessEngine embeddedChessEngine(@Value("${app.chess.embedded.hash-size:32MB}") DataSize hashSize,
+                                            @Value("${app.chess.embedded.max-depth:10}") int maxDepth,
+                                            @Value("${app.chess.embedded.move-time:1s}") Duration moveTime) {
+        // The transposition table is shared by all searches.
+        return new EmbeddedChessEngine(new TranspositionTable(hashSize.toBytes()), maxDepth, moveTime);
+    }
+}
@@ -0,0 +1,506 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai.impl.embedded;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static com.broadcom.tanzu.demos.chessai.impl.embedded.Bitboards.*;
+
+/**
+ * Mutable chess position, using a bitboard for each piece (color and type).
+ * <p>
+ * A move is encoded as an integer: source square (bits 0-5), target square (bits 6-11),
+ * promotion piece type (bits 12-14) and move kind (bits 15-16).
+ * Moves are played and undone in place, using primitive arrays only:
+ * a search doesn't allocate any object.
+ */
+final class Position {
+    static final int WHITE = 0;
+    static final int BLACK = 1;
+
+    // A piece is encoded as color * 6 + type.
+    static final int PAWN = 0;
+    static final int KNIGHT = 1;
+    static final int BISHOP = 2;
+    static final int ROOK = 3;
+    static final int QUEEN = 4;
+    static final int KING = 5;
+    static final int EMPTY = -1;
+
+    static final int NORMAL = 0;
+    static final int DOUBLE_PUSH = 1;
+    static final int EN_PASSANT = 2;
+    static final int CASTLING = 3;
+
+    static final int MAX_MOVES = 256;
+    private static final int MAX_HISTORY = 1024;
+    private static final String PIECES = "PNBRQKpnbrqk";
+    private static final String PROMOTIONS = " nbrq";
+
+    // Castling rights are cleared when a king or a rook moves (or when a rook is captured).
+    private static final int[] CASTLING_MASKS = new int[64];
+    private static final long[][] PIECE_KEYS = new long[12][64];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+    private static final long SIDE_KEY;
+
+    static {
+        Arrays.fill(CASTLING_MASKS, 15);
+        CASTLING_MASKS[4] = ~3;
+        CASTLING_MASKS[7] = ~1;
+        CASTLING_MASKS[0] = ~2;
+        CASTLING_MASKS[60] = ~12;
+        CASTLING_MASKS[63] = ~4;
+        CASTLING_MASKS[56] = ~8;
+
+        // Zobrist keys: a fixed seed makes position hashes stable across app restarts.
+        final var random = new SplittableRandom(0x5eed_c4e55L);
+        for (final var keys : PIECE_KEYS) {
+            for (int sq = 0; sq < 64; ++sq) {
+                keys[sq] = random.nextLong();
+            }
+        }
+        for (int i = 1; i < 16; ++i) {
+            CASTLING_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < 8; ++i) {
+            EN_PASSANT_KEYS[i] = random.nextLong();
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    final long[] pieces = new long[12];
+    final long[] colors = new long[2];
+    final int[] board = new int[64];
+    int side;
+    // Castling rights: white king side (1), white queen side (2), black king side (4), black queen side (8).
+    int castling;
+    int enPassant = EMPTY;
+    int halfMoveClock;
+    int fullMoveNumber = 1;
+    long hash;
+
+    // State before each move, used to undo moves and to detect repetitions.
+    private int historySize;
+    private final long[] hashHistory = new long[MAX_HISTORY];
+    private final int[] capturedHistory = new int[MAX_HISTORY];
+    private final int[] castlingHistory = new int[MAX_HISTORY];
+    private final int[] enPassantHistory = new int[MAX_HISTORY];
+    private final int[] halfMoveClockHistory = new int[MAX_HISTORY];
+
+    private Position() {
+        Arrays.fill(board, EMPTY);
+    }
+
+    static Position fromFen(String fen) {
+        final var parts = fen.trim().split("\\s+");
+        if (parts.length < 4) {
+            throw new IllegalArgumentException("Invalid FEN: " + fen);
+        }
+        final var pos = new Position();
+        int rank = 7;
+        int file = 0;
+        for (final var c : parts[0].toCharArray()) {
+            if (c == '/') {
+                --rank;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+            } else {
+                final int piece = PIECES.indexOf(c);
+                if (piece < 0 || rank < 0 || file > 7) {
+                    throw new IllegalArgumentException("Invalid FEN: " + fen);
+                }
+                pos.put(rank * 8 + file++, piece);
+            }
+        }
+        pos.side = "b".equals(parts[1]) ? BLACK : WHITE;
+        if (pos.side == BLACK) {
+            pos.hash ^= SIDE_KEY;
+        }
+        for (final var c : parts[2].toCharArray()) {
+            pos.castling |= switch (c) {
+                case 'K' -> 1;
+                case 'Q' -> 2;
+                case 'k' -> 4;
+                case 'q' -> 8;
+                default -> 0;
+            };
+        }
+        pos.hash ^= CASTLING_KEYS[pos.castling];
+        if (!"-".equals(parts[3])) {
+            pos.enPassant = square(parts[3], 0);
+            pos.hash ^= EN_PASSANT_KEYS[pos.enPassant & 7];
+        }
+        if (parts.length > 5) {
+            pos.halfMoveClock = Integer.parseInt(parts[4]);
+            pos.fullMoveNumber = Integer.parseInt(parts[5]);
+        }
+        return pos;
+    }
+
+    String toFen() {
+        final var fen = new StringBuilder(90);
+        for (int rank = 7; rank >= 0; --rank) {
+            int empty = 0;
+            for (int file = 0; file < 8; ++file) {
+                final int piece = board[rank * 8 + file];
+                if (piece == EMPTY) {
+                    ++empty;
+                    continue;
+                }
+                if (empty != 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(PIECES.charAt(piece));
+            }
+            if (empty != 0) {
+                fen.append(empty);
+            }
+            if (rank != 0) {
+                fen.append('/');
+            }
+        }
+        fen.append(side == WHITE ? " w " : " b ");
+        if (castling == 0) {
+            fen.append('-');
+        }
+        for (int i = 0; i < 4; ++i) {
+            if ((castling & 1 << i) != 0) {
+                fen.append("KQkq".charAt(i));
+            }
+        }
+        fen.append(' ').append(enPassant == EMPTY ? "-" : squareName(enPassant));
+        return fen.append(' ').append(halfMoveClock).append(' ').append(fullMoveNumber).toString();
+    }
+
+    /**
+     * Play a move from a game (not from a search).
+     */
+    void play(String uci) {
+        final int move = parseMove(uci);
+        if (move == 0 || !make(move)) {
+            throw new IllegalArgumentException("Illegal move: " + uci);
+        }
+        if (halfMoveClock == 0) {
+            // This move is irreversible: no previous position may be repeated.
+            historySize = 0;
+        }
+    }
+
+    int parseMove(String uci) {
+        final int from = square(uci, 0);
+        final int to = square(uci, 2);
+        final int promotion = uci.length() > 4 ? PROMOTIONS.indexOf(Character.toLowerCase(uci.charAt(4))) : 0;
+        final var moves = new int[MAX_MOVES];
+        final int count = generate(moves, false);
+        for (int i = 0; i < count; ++i) {
+            final int move = moves[i];
+            if (from(move) == from && to(move) == to && promotion(move) == promotion) {
+                return move;
+            }
+        }
+        return 0;
+    }
+
+    static String toUci(int move) {
+        final var uci = squareName(from(move)) + squareName(to(move));
+        return promotion(move) == 0 ? uci : uci + PROMOTIONS.charAt(promotion(move));
+    }
+
+    static int from(int move) {
+        return move & 63;
+    }
+
+    static int to(int move) {
+        return move >>> 6 & 63;
+    }
+
+    static int promotion(int move) {
+        return move >>> 12 & 7;
+    }
+
+    static int kind(int move) {
+        return move >>> 15 & 3;
+    }
+
+    private static int move(int from, int to, int promotion, int kind) {
+        return from | to << 6 | promotion << 12 | kind << 15;
+    }
+
+    boolean inCheck() {
+        return isAttacked(Long.numberOfTrailingZeros(pieces[side * 6 + KING]), side ^ 1);
+    }
+
+    boolean isAttacked(int sq, int by) {
+        final int offset = by * 6;
+        final long occupied = colors[WHITE] | colors[BLACK];
+        return (PAWN_ATTACKS[by ^ 1][sq] & pieces[offset + PAWN]) != 0
+                || (KNIGHT_ATTACKS[sq] & pieces[offset + KNIGHT]) != 0
+                || (KING_ATTACKS[sq] & pieces[offset + KING]) != 0
+                || (bishopAttacks(sq, occupied) & (pieces[offset + BISHOP] | pieces[offset + QUEEN])) != 0
+                || (rookAttacks(sq, occupied) & (pieces[offset + ROOK] | pieces[offset + QUEEN])) != 0;
+    }
+
+    /**
+     * Check if the current position was already reached since the last irreversible move.
+     */
+    boolean isRepetition() {
+        for (int i = historySize - 2; i >= 0 && i >= historySize - halfMoveClock; i -= 2) {
+            if (hashHistory[i] == hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Generate pseudo-legal moves: a move may leave the king in check, which is detected by {@link #make(int)}.
+     *
+     * @param moves        buffer for generated moves (at least {@link #MAX_MOVES} entries)
+     * @param capturesOnly only generate captures and queen promotions
+     * @return the number of generated moves
+     */
+    int generate(int[] moves, boolean capturesOnly) {
+        final int us = side;
+        final int offset = us * 6;
+        final long own = colors[us];
+        final long opponent = colors[us ^ 1];
+        final long occupied = own | opponent;
+        int count = 0;
+
+        // Pawns move forward, depending on their color.
+        final long pawns = pieces[offset + PAWN];
+        final int up = us == WHITE ? 8 : -8;
+        final long lastRank = us == WHITE ? RANK_8 : RANK_1;
+        final long singlePushes = (us == WHITE ? pawns << 8 : pawns >>> 8) & ~occupied;
+        for (long b = singlePushes; b != 0; b &= b - 1) {
+            final int to = Long.numberOfTrailingZeros(b);
+            if ((1L << to & lastRank) != 0) {
+                count = addPromotions(moves, count, to - up, to, capturesOnly);
+            } else if (!capturesOnly) {
+                moves[count++] = move(to - up, to, 0, NORMAL);
+            }
+        }
+        if (!capturesOnly) {
+            final long candidates = singlePushes & (us == WHITE ? RANK_3 : RANK_6);
+            final long doublePushes = (us == WHITE ? candidates << 8 : candidates >>> 8) & ~occupied;
+            for (long b = doublePushes; b != 0; b &= b - 1) {
+                final int to = Long.numberOfTrailingZeros(b);
+                moves[count++] = move(to - 2 * up, to, 0, DOUBLE_PUSH);
+            }
+        }
+        for (long b = pawns; b != 0; b &= b - 1) {
+            final int from = Long.numberOfTrailingZeros(b);
+            final long attacks = PAWN_ATTACKS[us][from];
+            for (long t = attacks & opponent; t != 0; t &= t - 1) {
+                final int to = Long.numberOfTrailingZeros(t);
+                if ((1L << to & lastRank) != 0) {
+                    count = addPromotions(moves, count, from, to, false);
+                } else {
+                    moves[count++] = move(from, to, 0, NORMAL);
+                }
+            }
+            if (enPassant != EMPTY && (attacks & 1L << enPassant) != 0) {
+                moves[count++] = move(from, enPassant, 0, EN_PASSANT);
+            }
+        }
+
+        final long targets = capturesOnly ? opponent : ~own;
+        for (long b = pieces[offset + KNIGHT]; b != 0; b &= b - 1) {
+            final int from = Long.numberOfTrailingZeros(b);
+            count = addMoves(moves, count, from, KNIGHT_ATTACKS[from] & targets);
+        }
+        for (long b = pieces[offset + BISHOP] | pieces[offset + QUEEN]; b != 0; b &= b - 1) {
+            final int from = Long.numberOfTrailingZeros(b);
+            count = addMoves(moves, count, from, bishopAttacks(from, occupied) & targets);
+        }
+        for (long b = pieces[offset + ROOK] | pieces[offset + QUEEN]; b != 0; b &= b - 1) {
+            final int from = Long.numberOfTrailingZeros(b);
+            count = addMoves(moves, count, from, rookAttacks(from, occupied) & targets);
+        }
+        final int king = Long.numberOfTrailingZeros(pieces[offset + KING]);
+        count = addMoves(moves, count, king, KING_ATTACKS[king] & targets);
+
+        // The king must not castle out of, through or into check:
+        // the target square is checked when the move is played.
+        if (!capturesOnly && (castling & (us == WHITE ? 3 : 12)) != 0) {
+            final int base = us == WHITE ? 0 : 56;
+            final int kingSideRight = us == WHITE ? 1 : 4;
+            if ((castling & kingSideRight) != 0 && (occupied & 0x60L << base) == 0
+                    && !isAttacked(base + 4, us ^ 1) && !isAttacked(base + 5, us ^ 1)) {
+                moves[count++] = move(base + 4, base + 6, 0, CASTLING);
+            }
+            if ((castling & kingSideRight << 1) != 0 && (occupied & 0xeL << base) == 0
+                    && !isAttacked(base + 4, us ^ 1) && !isAttacked(base + 3, us ^ 1)) {
+                moves[count++] = move(base + 4, base + 2, 0, CASTLING);
+            }
+        }
+        return count;
+    }
+
+    private static int addMoves(int[] moves, int count, int from, long targets) {
+        for (long t = targets; t != 0; t &= t - 1) {
+            moves[count++] = move(from, Long.numberOfTrailingZeros(t), 0, NORMAL);
+        }
+        return count;
+    }
+
+    private static int addPromotions(int[] moves, int count, int from, int to, boolean queenOnly) {
+        moves[count++] = move(from, to, QUEEN, NORMAL);
+        if (!queenOnly) {
+            for (int type = KNIGHT; type < QUEEN; ++type) {
+                moves[count++] = move(from, to, type, NORMAL);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Play a move.
+     *
+     * @return <code>false</code> if this move is not legal (the move is undone)
+     */
+    boolean make(int move) {
+        final int from = from(move);
+        final int to = to(move);
+        final int promotion = promotion(move);
+        final int kind = kind(move);
+        final int piece = board[from];
+
+        hashHistory[historySize] = hash;
+        castlingHistory[historySize] = castling;
+        enPassantHistory[historySize] = enPassant;
+        halfMoveClockHistory[historySize] = halfMoveClock;
+        int captured;
+        if (kind == EN_PASSANT) {
+            final int capturedSquare = to + (side == WHITE ? -8 : 8);
+            captured = board[capturedSquare];
+            remove(capturedSquare);
+        } else {
+            captured = board[to];
+            if (captured != EMPTY) {
+                remove(to);
+            }
+        }
+        capturedHistory[historySize++] = captured;
+
+        remove(from);
+        put(to, promotion == 0 ? piece : side * 6 + promotion);
+        if (kind == CASTLING) {
+            switch (to) {
+                case 6 -> movePiece(7, 5);
+                case 2 -> movePiece(0, 3);
+                case 62 -> movePiece(63, 61);
+                default -> movePiece(56, 59);
+            }
+        }
+
+        hash ^= CASTLING_KEYS[castling];
+        castling &= CASTLING_MASKS[from] & CASTLING_MASKS[to];
+        hash ^= CASTLING_KEYS[castling];
+        if (enPassant != EMPTY) {
+            hash ^= EN_PASSANT_KEYS[enPassant & 7];
+        }
+        enPassant = kind == DOUBLE_PUSH ? (from + to) >>> 1 : EMPTY;
+        if (enPassant != EMPTY) {
+            hash ^= EN_PASSANT_KEYS[enPassant & 7];
+        }
+        halfMoveClock = piece % 6 == PAWN || captured != EMPTY ? 0 : halfMoveClock + 1;
+        if (side == BLACK) {
+            ++fullMoveNumber;
+        }
+        side ^= 1;
+        hash ^= SIDE_KEY;
+
+        if (isAttacked(Long.numberOfTrailingZeros(pieces[(side ^ 1) * 6 + KING]), side)) {
+            unmake(move);
+            return false;
+        }
+        return true;
+    }
+
+    void unmake(int move) {
+        final int from = from(move);
+        final int to = to(move);
+        final int kind = kind(move);
+        side ^= 1;
+        if (side == BLACK) {
+            --fullMoveNumber;
+        }
+        --historySize;
+
+        if (kind == CASTLING) {
+            switch (to) {
+                case 6 -> movePiece(5, 7);
+                case 2 -> movePiece(3, 0);
+                case 62 -> movePiece(61, 63);
+                default -> movePiece(59, 56);
+            }
+        }
+        final int piece = board[to];
+        remove(to);
+        put(from, promotion(move) == 0 ? piece : side * 6 + PAWN);
+        final int captured = capturedHistory[historySize];
+        if (captured != EMPTY) {
+            put(kind == EN_PASSANT ? to + (side == WHITE ? -8 : 8) : to, captured);
+        }
+
+        castling = castlingHistory[historySize];
+        enPassant = enPassantHistory[historySize];
+        halfMoveClock = halfMoveClockHistory[historySize];
+        hash = hashHistory[historySize];
+    }
+
+    private void movePiece(int from, int to) {
+        final int piece = board[from];
+        remove(from);
+        put(to, piece);
+    }
+
+    private void put(int sq, int piece) {
+        final long bit = 1L << sq;
+        pieces[piece] |= bit;
+        colors[piece / 6] |= bit;
+        board[sq] = piece;
+        hash ^= PIECE_KEYS[piece][sq];
+    }
+
+    private void remove(int sq) {
+        final int piece = board[sq];
+        final long bit = 1L << sq;
+        pieces[piece] &= ~bit;
+        colors[piece / 6] &= ~bit;
+        board[sq] = EMPTY;
+        hash ^= PIECE_KEYS[piece][sq];
+    }
+
+    private static int square(String name, int offset) {
+        final int file = name.charAt(offset) - 'a';
+        final int rank = name.charAt(offset + 1) - '1';
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            throw new IllegalArgumentException("Invalid square: " + name);
+        }
+        return rank * 8 + file;
+    }
+
+    private static String squareName(int sq) {
+        return "" + (char) ('a' + (sq & 7)) + (char) ('1' + (sq >>> 3));
+    }
+}
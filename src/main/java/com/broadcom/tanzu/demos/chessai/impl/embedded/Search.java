@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai.impl.embedded;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static com.broadcom.tanzu.demos.chessai.impl.embedded.TranspositionTable.*;
+
+/**
+ * Iterative deepening alpha-beta search (principal variation search), with a quiescence search
+ * for captures. Moves are ordered using the transposition table, captures (most valuable victim first)
+ * and killer moves.
+ * <p>
+ * A search instance is not thread-safe: use a new instance for each search.
+ */
+final class Search {
+    static final int MATE = 30000;
+    static final int MAX_PLY = 128;
+    private static final int INFINITY = 32000;
+
+    private final Position position;
+    private final TranspositionTable table;
+    private final int[][] moves = new int[MAX_PLY][Position.MAX_MOVES];
+    private final int[][] scores = new int[MAX_PLY][Position.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private long nodes;
+    private long deadline;
+    private long nodeLimit;
+    private boolean stopped;
+    private int completedDepth;
+    private int rootMove;
+    private int[] excludedMoves = new int[0];
+
+    /**
+     * Search result.
+     *
+     * @param move    best move (0 if there is no legal move)
+     * @param score   score in centipawns, from the side to move
+     * @param depth   last completed depth
+     * @param nodes   number of visited nodes
+     * @param elapsed search time
+     */
+    record Result(int move, int score, int depth, long nodes, Duration elapsed) {
+        long nodesPerSecond() {
+            return nodes * 1_000_000_000L / Math.max(1, elapsed.toNanos());
+        }
+    }
+
+    Search(Position position, TranspositionTable table) {
+        this.position = position;
+        this.table = table;
+    }
+
+    /**
+     * Search the best move, until the given depth is reached or the time is up.
+     * The first iteration is always completed, so that a move is found whatever the time limit.
+     */
+    Result search(int maxDepth, Duration timeLimit) {
+        return search(maxDepth, timeLimit, 0);
+    }
+
+    /**
+     * Search the best move, until the given depth is reached, the time is up or enough nodes are visited
+     * (no node limit when <code>maxNodes</code> is 0).
+     */
+    Result search(int maxDepth, Duration timeLimit, long maxNodes) {
+        return search(maxDepth, timeLimit, maxNodes, new int[0]);
+    }
+
+    /**
+     * Search the best move, ignoring some moves at the root: this is how the next best moves are found
+     * in a multi-PV search.
+     */
+    Result search(int maxDepth, Duration timeLimit, long maxNodes, int[] excludedMoves) {
+        this.excludedMoves = excludedMoves;
+        final long start = System.nanoTime();
+        deadline = start + timeLimit.toNanos();
+        nodeLimit = maxNodes > 0 ? maxNodes : Long.MAX_VALUE;
+        int bestMove = 0;
+        int bestScore = 0;
+        for (int depth = 1; depth <= Math.min(maxDepth, MAX_PLY / 2); ++depth) {
+            rootMove = 0;
+            final int score = negamax(depth, -INFINITY, INFINITY, 0);
+            if (stopped) {
+                break;
+            }
+            bestMove = rootMove;
+            bestScore = score;
+            completedDepth = depth;
+            if (bestMove == 0 || Math.abs(score) >= MATE - MAX_PLY) {
+                // No legal move, or a forced mate: there is no need to search deeper.
+                break;
+            }
+        }
+        return new Result(bestMove, bestScore, completedDepth, nodes, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        if ((++nodes & 2047) == 0) {
+            checkTime();
+        }
+        if (stopped) {
+            return 0;
+        }
+        final boolean root = ply == 0;
+        if (!root && (position.halfMoveClock >= 100 || position.isRepetition())) {
+            return 0;
+        }
+        final boolean inCheck = position.inCheck();
+        if (inCheck) {
+            // Check extension: don't stop the search right after a check.
+            ++depth;
+        }
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiesce(alpha, beta, ply);
+        }
+
+        int tableMove = 0;
+        final long entry = table.probe(position.hash);
+        if (entry != 0) {
+            tableMove = TranspositionTable.move(entry);
+            if (!root && TranspositionTable.depth(entry) >= depth) {
+                final int score = fromTable(TranspositionTable.score(entry), ply);
+                final int bound = TranspositionTable.bound(entry);
+                if (bound == EXACT || bound == LOWER_BOUND && score >= beta || bound == UPPER_BOUND && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+
+        final int[] list = moves[ply];
+        final int count = position.generate(list, false);
+        scoreMoves(list, count, ply, tableMove);
+        final int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = 0;
+        int legalMoves = 0;
+        for (int i = 0; i < count; ++i) {
+            final int move = nextMove(list, scores[ply], i, count);
+            if (root && isExcluded(move) || !position.make(move)) {
+                continue;
+            }
+            ++legalMoves;
+            int score;
+            if (legalMoves == 1) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            } else {
+                // Other moves are expected to be worse than the first one:
+                // let's prove it with a null window, and search again if this is not the case.
+                score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1);
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+                }
+            }
+            position.unmake(move);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (root) {
+                        rootMove = move;
+                    }
+                    if (score >= beta) {
+                        if (!isCapture(move) && killers[ply][0] != move) {
+                            killers[ply][1] = killers[ply][0];
+                            killers[ply][0] = move;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        if (legalMoves == 0) {
+            // Checkmate or stalemate: faster mates get better scores.
+            return inCheck ? -MATE + ply : 0;
+        }
+
+        if (root && excludedMoves.length > 0) {
+            // Some moves were not searched: this score is not the actual score of this position.
+            return best;
+        }
+        final int bound = best >= beta ? LOWER_BOUND : best > originalAlpha ? EXACT : UPPER_BOUND;
+        table.store(position.hash, bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Get the principal variation starting with a root move, by following best moves
+     * from the transposition table.
+     *
+     * @param move      root move
+     * @param maxLength maximum number of moves
+     * @return moves in the principal variation
+     */
+    int[] principalVariation(int move, int maxLength) {
+        final int[] pv = new int[Math.min(maxLength, MAX_PLY)];
+        int length = 0;
+        int next = move;
+        while (next != 0 && length < pv.length && isPseudoLegal(next, length) && position.make(next)) {
+            pv[length++] = next;
+            if (position.isRepetition()) {
+                break;
+            }
+            final long entry = table.probe(position.hash);
+            next = entry == 0 ? 0 : TranspositionTable.move(entry);
+        }
+        for (int i = length - 1; i >= 0; --i) {
+            position.unmake(pv[i]);
+        }
+        return Arrays.copyOf(pv, length);
+    }
+
+    private boolean isPseudoLegal(int move, int ply) {
+        // Table entries may come from another position (hash collision): make sure this move can be played.
+        final int[] list = moves[ply];
+        final int count = position.generate(list, false);
+        for (int i = 0; i < count; ++i) {
+            if (list[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isExcluded(int move) {
+        for (final int excluded : excludedMoves) {
+            if (excluded == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int quiesce(int alpha, int beta, int ply) {
+        if ((++nodes & 2047) == 0) {
+            checkTime();
+        }
+        if (stopped) {
+            return 0;
+        }
+        // Only captures are searched here: the side to move may also keep the current position.
+        final int standPat = Evaluation.evaluate(position);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        final int[] list = moves[ply];
+        final int count = position.generate(list, true);
+        scoreMoves(list, count, ply, 0);
+        for (int i = 0; i < count; ++i) {
+            final int move = nextMove(list, scores[ply], i, count);
+            if (!position.make(move)) {
+                continue;
+            }
+            final int score = -quiesce(-beta, -alpha, ply + 1);
+            position.unmake(move);
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    private void scoreMoves(int[] list, int count, int ply, int tableMove) {
+        final int[] moveScores = scores[ply];
+        for (int i = 0; i < count; ++i) {
+            final int move = list[i];
+            final int score;
+            if (move == tableMove) {
+                score = 1_000_000;
+            } else if (isCapture(move)) {
+                // Most valuable victim, least valuable attacker.
+                final int victim = Position.kind(move) == Position.EN_PASSANT ?
+                        Position.PAWN : position.board[Position.to(move)] % 6;
+                final int attacker = position.board[Position.from(move)] % 6;
+                score = 100_000 + victim * 10 - attacker;
+            } else if (Position.promotion(move) != 0) {
+                score = 90_000 + Position.promotion(move);
+            } else if (move == killers[ply][0]) {
+                score = 80_000;
+            } else if (move == killers[ply][1]) {
+                score = 70_000;
+            } else {
+                score = 0;
+            }
+            moveScores[i] = score;
+        }
+    }
+
+    private boolean isCapture(int move) {
+        return position.board[Position.to(move)] != Position.EMPTY || Position.kind(move) == Position.EN_PASSANT;
+    }
+
+    private static int nextMove(int[] list, int[] moveScores, int index, int count) {
+        // Selection sort: most of the time, only the first moves are searched.
+        int best = index;
+        for (int i = index + 1; i < count; ++i) {
+            if (moveScores[i] > moveScores[best]) {
+                best = i;
+            }
+        }
+        final int move = list[best];
+        list[best] = list[index];
+        list[index] = move;
+        final int score = moveScores[best];
+        moveScores[best] = moveScores[index];
+        moveScores[index] = score;
+        return move;
+    }
+
+    private void checkTime() {
+        if (completedDepth > 0 && (nodes >= nodeLimit || System.nanoTime() > deadline)) {
+            stopped = true;
+        }
+    }
+
+    // Mate scores are stored relative to the current node, so that they can be used at any ply.
+    private static int toTable(int score, int ply) {
+        return score >= MATE - MAX_PLY ? score + ply : score <= -MATE + MAX_PLY ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return score >= MATE - MAX_PLY ? score - ply : score <= -MATE + MAX_PLY ? score + ply : score;
+    }
+}
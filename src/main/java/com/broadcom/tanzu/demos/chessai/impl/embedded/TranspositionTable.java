@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai.impl.embedded;
+
+/**
+ * Fixed-size transposition table, backed by primitive arrays.
+ * <p>
+ * Each entry takes 16 bytes: the position hash, and search data packed into a single long.
+ * This table is shared by concurrent searches without any lock:
+ * the hash is stored XOR'ed with the data, so that an entry which was partially
+ * updated by another thread is just ignored.
+ */
+final class TranspositionTable {
+    static final int EXACT = 0;
+    static final int LOWER_BOUND = 1;
+    static final int UPPER_BOUND = 2;
+    private static final long VALID = 1L << 62;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    TranspositionTable(long sizeInBytes) {
+        // The number of entries is rounded down to a power of 2.
+        final long entries = Long.highestOneBit(Math.max(2, sizeInBytes / 16));
+        if (entries > 1 << 30) {
+            throw new IllegalArgumentException("Transposition table is too large: " + sizeInBytes + " bytes");
+        }
+        this.keys = new long[(int) entries];
+        this.data = new long[(int) entries];
+        this.mask = (int) entries - 1;
+    }
+
+    /**
+     * Get the entry for a position hash.
+     *
+     * @return the packed entry, or 0 if there is no entry for this hash
+     */
+    long probe(long hash) {
+        final int index = (int) hash & mask;
+        final long entry = data[index];
+        return (keys[index] ^ entry) == hash ? entry : 0;
+    }
+
+    void store(long hash, int move, int score, int depth, int bound) {
+        final long entry = VALID
+                | move & 0x3ffffL
+                | (long) (score + 32768 & 0xffff) << 18
+                | (long) (depth & 0xff) << 34
+                | (long) bound << 42;
+        final int index = (int) hash & mask;
+        keys[index] = hash ^ entry;
+        data[index] = entry;
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    static int move(long entry) {
+        return (int) (entry & 0x3ffff);
+    }
+
+    static int score(long entry) {
+        return (int) (entry >>> 18 & 0xffff) - 32768;
+    }
+
+    static int depth(long entry) {
+        return (int) (entry >>> 34 & 0xff);
+    }
+
+    static int bound(long entry) {
+        return (int) (entry >>> 42 & 3);
+    }
+}
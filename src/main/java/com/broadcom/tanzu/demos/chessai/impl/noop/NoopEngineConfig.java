@@ -16,15 +16,17 @@
 
 package com.broadcom.tanzu.demos.chessai.impl.noop;
 
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import com.broadcom.tanzu.demos.chessai.ConditionalOnChessEngine;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration(proxyBeanMethods = false)
-@ConditionalOnProperty(value = "app.chess.engine", havingValue = "none")
+@ConditionalOnChessEngine("none")
 class NoopEngineConfig {
     @Bean
-    NoopChessEngine chessEngine() {
+    @Qualifier("none")
+    NoopChessEngine noopChessEngine() {
         return new NoopChessEngine();
     }
 }
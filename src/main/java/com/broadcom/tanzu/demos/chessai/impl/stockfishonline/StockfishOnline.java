@@ -18,15 +18,9 @@ package com.broadcom.tanzu.demos.chessai.impl.stockfishonline;
 
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.service.annotation.GetExchange;
+import reactor.core.publisher.Mono;
 
 interface StockfishOnline {
     @GetExchange("/api/s/v2.php")
-    StockfishOnlineResponse getNextMove(@RequestParam String fen, @RequestParam(defaultValue = "10") int depth);
-}
-
-record StockfishOnlineResponse(
-        boolean success,
-        Integer mate,
-        String bestmove
-) {
+    Mono<StockfishOnlineResponse> getNextMove(@RequestParam String fen, @RequestParam int depth);
 }
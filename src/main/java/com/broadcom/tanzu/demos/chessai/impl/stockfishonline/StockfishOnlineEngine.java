@@ -16,17 +16,26 @@
 
 package com.broadcom.tanzu.demos.chessai.impl.stockfishonline;
 
+import com.broadcom.tanzu.demos.chessai.AnalysisLine;
 import com.broadcom.tanzu.demos.chessai.ChessEngine;
+import com.broadcom.tanzu.demos.chessai.SearchBudget;
 import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.board.Side;
 import io.github.wolfraam.chessgame.move.Move;
 import io.github.wolfraam.chessgame.notation.NotationType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
 
 class StockfishOnlineEngine implements ChessEngine {
+    private static final int DEPTH = 3;
+    private static final int MAX_DEPTH = 15;
     private final Logger logger = LoggerFactory.getLogger(StockfishOnlineEngine.class);
     private final Pattern bestmovePattern = Pattern.compile("bestmove\\s(\\S+)");
     private final StockfishOnline api;
@@ -35,11 +44,30 @@ class StockfishOnlineEngine implements ChessEngine {
         this.api = api;
     }
 
+    @Override
     public Optional<Move> getNextMove(ChessGame game) {
+        return getNextMove(game, SearchBudget.DEFAULT);
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game, SearchBudget budget) {
+        return getNextMoveAsync(game, budget).join();
+    }
+
+    @Override
+    public CompletableFuture<Optional<Move>> getNextMoveAsync(ChessGame game, SearchBudget budget) {
+        // Only the search depth is supported by this API.
+        final var depth = Math.min(budget.depthOr(DEPTH), MAX_DEPTH);
         final var fen = game.getFen();
         logger.atDebug().log("Using Stockfish.online to guess next move using FEN: {}", fen);
-        final var resp = api.getNextMove(fen, 3);
-        if (resp == null || !resp.success()) {
+        return api.getNextMove(fen, depth)
+                .map(resp -> toMove(game, fen, resp))
+                .defaultIfEmpty(Optional.empty())
+                .toFuture();
+    }
+
+    private Optional<Move> toMove(ChessGame game, String fen, StockfishOnlineResponse resp) {
+        if (!resp.success()) {
             logger.atWarn().log("No next move found using Stockfish.online using FEN: {}", fen);
             return Optional.empty();
         }
@@ -56,6 +84,41 @@ class StockfishOnlineEngine implements ChessEngine {
         return Optional.of(nextMove);
     }
 
+    @Override
+    public List<AnalysisLine> analyze(ChessGame game, int lines, SearchBudget budget) {
+        // This API only returns the best line, with its score and continuation.
+        final var depth = Math.min(budget.depthOr(DEPTH), MAX_DEPTH);
+        final var fen = game.getFen();
+        logger.atDebug().log("Using Stockfish.online to analyze game using FEN: {}", fen);
+        return api.getNextMove(fen, depth)
+                .map(resp -> toMove(game, fen, resp).map(move -> toAnalysis(game, move, resp)).orElse(List.of()))
+                .defaultIfEmpty(List.of())
+                .toFuture().join();
+    }
+
+    private List<AnalysisLine> toAnalysis(ChessGame game, Move move, StockfishOnlineResponse resp) {
+        final var bestMove = game.getNotation(NotationType.UCI, move);
+        final var pv = new ArrayList<String>();
+        if (resp.continuation() != null) {
+            pv.addAll(Arrays.asList(resp.continuation().trim().split("\\s+")));
+        }
+        if (pv.isEmpty() || !bestMove.equals(pv.getFirst())) {
+            pv.addFirst(bestMove);
+        }
+        // Scores are converted to the side to move.
+        final var sign = game.getSideToMove() == Side.WHITE ? 1 : -1;
+        final var mate = resp.mate() == null ? null : resp.mate() * sign;
+        final var centipawns = mate != null || resp.evaluation() == null ?
+                null : (int) Math.round(resp.evaluation() * 100) * sign;
+        final var line = AnalysisLine.of(game, pv, centipawns, mate);
+        return line == null ? List.of() : List.of(line);
+    }
+
+    @Override
+    public int searchDepth() {
+        return DEPTH;
+    }
+
     @Override
     public String toString() {
         return "Stockfish.online";
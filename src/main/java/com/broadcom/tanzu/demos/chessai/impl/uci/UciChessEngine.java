@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai.impl.uci;
+
+import com.broadcom.tanzu.demos.chessai.AnalysisLine;
+import com.broadcom.tanzu.demos.chessai.ChessEngine;
+import com.broadcom.tanzu.demos.chessai.SearchBudget;
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.move.Move;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+class UciChessEngine implements ChessEngine {
+    private final Logger logger = LoggerFactory.getLogger(UciChessEngine.class);
+    private final UciEnginePool pool;
+    private final Duration moveTime;
+    private final Duration timeout;
+
+    UciChessEngine(UciEnginePool pool, Duration moveTime, Duration timeout) {
+        this.pool = pool;
+        this.moveTime = moveTime;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game) {
+        return getNextMove(game, SearchBudget.DEFAULT);
+    }
+
+    @Override
+    public Optional<Move> getNextMove(ChessGame game, SearchBudget budget) {
+        final var fen = game.getFen();
+        logger.atDebug().log("Using UCI engine to guess next move using FEN: {}", fen);
+        final var bestMove = search(game, budget, (process, initialFen, moves, timeout) ->
+                process.bestMove(initialFen, moves, goCommand(budget), timeout));
+        if (bestMove == null) {
+            logger.atWarn().log("No next move found with UCI engine using FEN: {}", fen);
+            return Optional.empty();
+        }
+
+        final var nextMove = game.getMove(NotationType.UCI, bestMove);
+        logger.atInfo().log("Found next move with UCI engine using FEN '{}': {}", fen, nextMove);
+        return Optional.of(nextMove);
+    }
+
+    @Override
+    public List<AnalysisLine> analyze(ChessGame game, int lines, SearchBudget budget) {
+        final var fen = game.getFen();
+        logger.atDebug().log("Using UCI engine to analyze {} lines using FEN: {}", lines, fen);
+        final var infos = search(game, budget, (process, initialFen, moves, timeout) ->
+                process.analyze(initialFen, moves, Math.max(1, lines), goCommand(budget), timeout));
+        if (infos == null) {
+            return List.of();
+        }
+        final var analysis = new ArrayList<AnalysisLine>(infos.size());
+        for (final var info : infos) {
+            final var line = toAnalysisLine(game, info);
+            if (line != null) {
+                analysis.add(line);
+            }
+        }
+        logger.atDebug().log("Analyzed {} lines with UCI engine using FEN '{}': {}", analysis.size(), fen, analysis);
+        return analysis;
+    }
+
+    private static AnalysisLine toAnalysisLine(ChessGame game, String info) {
+        // For instance: info depth 12 multipv 2 score cp -35 nodes 12345 pv e7e5 g1f3 b8c6
+        final var parts = info.split("\\s+");
+        Integer centipawns = null;
+        Integer mate = null;
+        for (int i = 0; i < parts.length - 1; ++i) {
+            if ("score".equals(parts[i]) && i + 2 < parts.length) {
+                if ("cp".equals(parts[i + 1])) {
+                    centipawns = Integer.parseInt(parts[i + 2]);
+                } else if ("mate".equals(parts[i + 1])) {
+                    mate = Integer.parseInt(parts[i + 2]);
+                }
+            } else if ("pv".equals(parts[i])) {
+                return AnalysisLine.of(game, Arrays.asList(parts).subList(i + 1, parts.length), centipawns, mate);
+            }
+        }
+        return null;
+    }
+
+    private <T> T search(ChessGame game, SearchBudget budget, UciSearch<T> search) {
+        // The position is sent as the initial position and the moves played since then,
+        // so that the engine is able to detect repetitions.
+        final var fen = game.getFen();
+        final var initialFen = game.getInitialFen();
+        final var moves = game.getNotationList(NotationType.UCI);
+        final UciProcess process;
+        try {
+            process = pool.lease(initialFen, moves, timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (process == null) {
+            logger.atWarn().log("No UCI engine process available to search using FEN: {}", fen);
+            return null;
+        }
+
+        try {
+            final var result = search.run(process, initialFen, moves, budget.moveTimeOr(moveTime).plus(timeout));
+            pool.release(process);
+            return result;
+        } catch (InterruptedIOException e) {
+            // This search was cancelled, and the engine was stopped: this process is still warm.
+            logger.atDebug().log("Cancelled search with UCI engine using FEN: {}", fen);
+            pool.release(process);
+            return null;
+        } catch (IOException | TimeoutException e) {
+            logger.atWarn().log("Failed to search with UCI engine using FEN: {}", fen, e);
+            pool.discard(process);
+            return null;
+        }
+    }
+
+    private String goCommand(SearchBudget budget) {
+        // The search stops as soon as any limit is reached: there is always a time limit.
+        final var cmd = new StringBuilder("go");
+        if (budget.depth() > 0) {
+            cmd.append(" depth ").append(budget.depth());
+        }
+        if (budget.nodes() > 0) {
+            cmd.append(" nodes ").append(budget.nodes());
+        }
+        cmd.append(" movetime ").append(budget.moveTimeOr(moveTime).toMillis());
+        return cmd.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "UCI engine";
+    }
+
+    @FunctionalInterface
+    private interface UciSearch<T> {
+        T run(UciProcess process, String initialFen, List<String> moves, Duration timeout)
+                throws IOException, TimeoutException;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai.impl.uci;
+
+import com.broadcom.tanzu.demos.chessai.ConditionalOnChessEngine;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnChessEngine("uci")
+@EnableScheduling
+class UciEngineConfig {
+    @Bean
+    UciEnginePool uciEnginePool(@Value("${app.chess.uci.command:stockfish}") String command,
+                                @Value("${app.chess.uci.pool-size:2}") int poolSize,
+                                @Value("${app.chess.uci.hash-size:16MB}") DataSize hashSize,
+                                @Value("${app.chess.uci.threads:1}") int threads,
+                                @Value("${app.chess.uci.timeout:5s}") Duration timeout) throws IOException, TimeoutException {
+        // Engine processes are started right away: the app fails to start if the engine is not installed.
+        final var options = Map.of("Hash", String.valueOf(hashSize.toMegabytes()), "Threads", String.valueOf(threads));
+        return new UciEnginePool(() -> new UciProcess(List.of(command.trim().split("\\s+")), options, timeout),
+                poolSize, timeout);
+    }
+
+    @Bean
+    @Qualifier("uci")
+    UciChessEngine uciChessEngine(UciEnginePool pool,
+                                  @Value("${app.chess.uci.move-time:500ms}") Duration moveTime,
+                                  @Value("${app.chess.uci.timeout:5s}") Duration timeout) {
+        return new UciChessEngine(pool, moveTime, timeout);
+    }
+}
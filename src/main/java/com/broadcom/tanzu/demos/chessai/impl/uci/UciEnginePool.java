@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai.impl.uci;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of warm UCI engine processes: processes are started once, and they are leased
+ * to a single search at a time.
+ * <p>
+ * A process which fails or doesn't answer in time is replaced by a new one.
+ */
+class UciEnginePool implements Closeable {
+    private final Logger logger = LoggerFactory.getLogger(UciEnginePool.class);
+    private final ProcessFactory factory;
+    private final int size;
+    private final Duration timeout;
+    // Most recently used processes come first.
+    private final BlockingDeque<UciProcess> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger missing = new AtomicInteger();
+    private final AtomicInteger restarts = new AtomicInteger();
+    private volatile boolean closed;
+
+    interface ProcessFactory {
+        UciProcess start() throws IOException, TimeoutException;
+    }
+
+    UciEnginePool(ProcessFactory factory, int size, Duration timeout) throws IOException, TimeoutException {
+        this.factory = factory;
+        this.size = size;
+        this.timeout = timeout;
+        try {
+            for (int i = 0; i < size; ++i) {
+                idle.add(factory.start());
+            }
+        } catch (IOException | TimeoutException e) {
+            close();
+            throw e;
+        }
+        logger.atInfo().log("Started {} UCI engine process(es)", size);
+    }
+
+    /**
+     * Lease a process to search a position.
+     * A process which was last used for the same game is preferred.
+     *
+     * @return a process, or <code>null</code> if no process is available in time
+     */
+    UciProcess lease(String initialFen, List<String> moves, Duration leaseTimeout) throws InterruptedException {
+        for (final var process : idle) {
+            if (process.continues(initialFen, moves) && idle.remove(process)) {
+                return process;
+            }
+        }
+        // Otherwise the least recently used process is picked, so that other processes
+        // are kept for the games they were used for.
+        return idle.pollLast(leaseTimeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    void release(UciProcess process) {
+        if (closed) {
+            process.close();
+        } else {
+            idle.addFirst(process);
+        }
+    }
+
+    /**
+     * Stop a failed process, and start a new one.
+     */
+    void discard(UciProcess process) {
+        logger.atWarn().log("Restarting UCI engine process: {}", process.pid());
+        process.close();
+        restarts.incrementAndGet();
+        missing.incrementAndGet();
+        startMissingProcesses();
+    }
+
+    @Scheduled(initialDelayString = "${app.chess.uci.health-check-interval:30s}",
+            fixedDelayString = "${app.chess.uci.health-check-interval:30s}")
+    void checkHealth() {
+        // Only idle processes are checked: a leased process is checked when its search is over.
+        final var checked = new ArrayList<UciProcess>(size);
+        for (UciProcess process; (process = idle.pollLast()) != null; ) {
+            if (process.isReady(timeout)) {
+                checked.add(process);
+            } else {
+                logger.atWarn().log("UCI engine process is not responding: {}", process.pid());
+                process.close();
+                restarts.incrementAndGet();
+                missing.incrementAndGet();
+            }
+        }
+        checked.forEach(this::release);
+        startMissingProcesses();
+    }
+
+    int restarts() {
+        return restarts.get();
+    }
+
+    int idleProcesses() {
+        return idle.size();
+    }
+
+    private void startMissingProcesses() {
+        while (!closed && missing.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            try {
+                idle.addLast(factory.start());
+            } catch (IOException | TimeoutException e) {
+                // Let's try again during the next health check.
+                missing.incrementAndGet();
+                logger.atError().log("Failed to start UCI engine process", e);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (UciProcess process; (process = idle.pollFirst()) != null; ) {
+            process.close();
+        }
+    }
+}
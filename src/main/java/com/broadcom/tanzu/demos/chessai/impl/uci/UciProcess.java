@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai.impl.uci;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Chess engine process, using the UCI protocol over stdin / stdout.
+ * <p>
+ * A process is used by a single thread at a time (see {@link UciEnginePool}).
+ * Engine output is read by a background thread, so that any command may time out.
+ */
+class UciProcess implements Closeable {
+    // This marker is added to the output lines when the process exits.
+    private static final String EOF = "\0";
+    private final Logger logger = LoggerFactory.getLogger(UciProcess.class);
+    private final Process process;
+    private final Writer writer;
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    private String initialFen;
+    private List<String> moves = List.of();
+    private int newGames;
+
+    UciProcess(List<String> command, Map<String, String> options, Duration timeout) throws IOException, TimeoutException {
+        this.process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        this.writer = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        Thread.ofPlatform().daemon().name("uci-" + process.pid()).start(this::readLines);
+        try {
+            send("uci");
+            await("uciok", timeout);
+            for (final var e : options.entrySet()) {
+                send("setoption name " + e.getKey() + " value " + e.getValue());
+            }
+            send("isready");
+            await("readyok", timeout);
+        } catch (IOException | TimeoutException e) {
+            close();
+            throw e;
+        }
+        logger.atDebug().log("Started UCI engine process: {}", process.pid());
+    }
+
+    /**
+     * Check if this process was last used for the same game: in this case,
+     * the engine may reuse what it learned from previous searches.
+     */
+    boolean continues(String initialFen, List<String> moves) {
+        return Objects.equals(this.initialFen, initialFen) && moves.size() >= this.moves.size()
+                && moves.subList(0, this.moves.size()).equals(this.moves);
+    }
+
+    /**
+     * Search the best move.
+     *
+     * @param goCommand UCI command used to start the search (such as <code>go movetime 500</code>)
+     * @return the best move in UCI notation, or <code>null</code> if there is no legal move
+     */
+    String bestMove(String initialFen, List<String> moves, String goCommand, Duration timeout)
+            throws IOException, TimeoutException {
+        return search(initialFen, moves, goCommand, timeout, line -> {
+        });
+    }
+
+    /**
+     * Search the best lines (multi-PV search).
+     *
+     * @param lines number of lines to search
+     * @return the last <code>info</code> line sent by the engine for each line, best line first
+     */
+    List<String> analyze(String initialFen, List<String> moves, int lines, String goCommand, Duration timeout)
+            throws IOException, TimeoutException {
+        // Engines send many info lines while searching: only the latest (deepest) line is kept for each PV.
+        final var infos = new TreeMap<Integer, String>();
+        send("setoption name MultiPV value " + lines);
+        try {
+            search(initialFen, moves, goCommand, timeout, line -> {
+                if (line.startsWith("info ") && line.contains(" pv ")) {
+                    infos.put(multiPv(line), line);
+                }
+            });
+        } finally {
+            // Back to a single line: searches for the next move are faster.
+            send("setoption name MultiPV value 1");
+        }
+        return List.copyOf(infos.values());
+    }
+
+    private static int multiPv(String info) {
+        final var parts = info.split("\\s+");
+        for (int i = 0; i < parts.length - 1; ++i) {
+            if ("multipv".equals(parts[i])) {
+                return Integer.parseInt(parts[i + 1]);
+            }
+        }
+        // Engines not supporting this option don't send this field.
+        return 1;
+    }
+
+    private String search(String initialFen, List<String> moves, String goCommand, Duration timeout,
+                          Consumer<String> info) throws IOException, TimeoutException {
+        if (!continues(initialFen, moves)) {
+            send("ucinewgame");
+            ++newGames;
+        }
+        send("position fen " + initialFen + (moves.isEmpty() ? "" : " moves " + String.join(" ", moves)));
+        send(goCommand);
+        final String line;
+        try {
+            line = await("bestmove", timeout, info);
+        } catch (InterruptedIOException e) {
+            // The search was cancelled: the engine is stopped, so that this process can be used again.
+            stop(timeout);
+            this.initialFen = initialFen;
+            this.moves = List.copyOf(moves);
+            throw e;
+        }
+        this.initialFen = initialFen;
+        this.moves = List.copyOf(moves);
+
+        final var parts = line.split("\\s+");
+        return parts.length < 2 || "(none)".equals(parts[1]) || "0000".equals(parts[1]) ? null : parts[1];
+    }
+
+    private void stop(Duration timeout) throws IOException, TimeoutException {
+        // The interrupt flag is cleared while waiting for the engine, and it's set again afterwards.
+        final var interrupted = Thread.interrupted();
+        try {
+            send("stop");
+            // The engine always sends the best move found so far: this result is discarded.
+            await("bestmove", timeout);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    boolean isReady(Duration timeout) {
+        try {
+            send("isready");
+            await("readyok", timeout);
+            return true;
+        } catch (IOException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    int newGames() {
+        return newGames;
+    }
+
+    long pid() {
+        return process.pid();
+    }
+
+    @Override
+    public void close() {
+        try {
+            send("quit");
+        } catch (IOException ignore) {
+        }
+        try {
+            if (!process.waitFor(1, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+        logger.atDebug().log("Stopped UCI engine process: {}", process.pid());
+    }
+
+    private void send(String command) throws IOException {
+        logger.atTrace().log("Sending UCI command to process {}: {}", process.pid(), command);
+        writer.write(command);
+        writer.write('\n');
+        writer.flush();
+    }
+
+    private String await(String prefix, Duration timeout) throws IOException, TimeoutException {
+        return await(prefix, timeout, line -> {
+        });
+    }
+
+    private String await(String prefix, Duration timeout, Consumer<String> others) throws IOException, TimeoutException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            while (true) {
+                final var line = lines.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (line == null) {
+                    throw new TimeoutException("No response from UCI engine process " + process.pid()
+                            + " after " + timeout.toMillis() + " ms");
+                }
+                if (EOF.equals(line)) {
+                    // Keep the marker for any later call.
+                    lines.add(EOF);
+                    throw new IOException("UCI engine process has exited: " + process.pid());
+                }
+                if (line.startsWith(prefix)) {
+                    return line;
+                }
+                others.accept(line);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            final var ex = new InterruptedIOException("Interrupted while waiting for UCI engine process: " + process.pid());
+            ex.initCause(e);
+            throw ex;
+        }
+    }
+
+    private void readLines() {
+        try (final var reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line.trim());
+            }
+        } catch (IOException ignore) {
+        }
+        lines.add(EOF);
+    }
+}
@@ -0,0 +1,11 @@
+-- Remove an archived board from Redis (the AI dialog is archived with the board, and removed as well).
+-- KEYS: current square, error, snapshot, moves, question, conversation, events (all keys are stored in the same slot)
+-- ARGV: revision, update channel, update message
+-- Returns 1 if the board was removed, or 0 if the board was updated since it was archived.
+local storedRevision = redis.call('HGET', KEYS[3], 'revision') or '0'
+if storedRevision ~= ARGV[1] then
+    return 0
+end
+redis.call('DEL', KEYS[1], KEYS[2], KEYS[3], KEYS[4], KEYS[5], KEYS[6], KEYS[7])
+redis.call('PUBLISH', ARGV[2], ARGV[3])
+return 1
@@ -0,0 +1,16 @@
+-- Load a board state in a single round trip.
+-- KEYS: current square, error, snapshot, moves
+-- Moves are stored as a single string (2 bytes per move), but boards saved by
+-- a previous version of this app use a list of UCI moves: this list is returned as is.
+local moves
+if redis.call('TYPE', KEYS[4]).ok == 'list' then
+    moves = redis.call('LRANGE', KEYS[4], 0, -1)
+else
+    moves = redis.call('GET', KEYS[4])
+end
+return {
+    redis.call('GET', KEYS[1]),
+    redis.call('GET', KEYS[2]),
+    redis.call('HGETALL', KEYS[3]),
+    moves
+}
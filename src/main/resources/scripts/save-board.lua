@@ -0,0 +1,72 @@
+-- Save a board state in a single round trip.
+-- KEYS: current square, error, snapshot, moves, events (all keys are stored in the same slot)
+-- ARGV: current square mode, current square, error mode, error, moves mode, stored moves count,
+--       initial FEN, checkpoint, checkpoint FEN, FEN, version, encoded moves,
+--       update channel, update message, expected revision, revision, TTL (in seconds),
+--       archive time (empty if disabled), followed by game events (field count, then field names and values)
+-- Modes: "keep" (leave the key untouched), "set", "del" (current square and error),
+--        "append", "replace" (moves).
+-- Returns {1, backlog, event ids...} if the board was saved, where backlog is 1 if the events stream
+-- already had entries (which were not relayed to the event log yet), {0} if the stored moves are not
+-- the expected ones, or {-1} if the board was updated since it was loaded (the stored revision is not the expected one).
+local revision = ARGV[16]
+local storedRevision = redis.call('HGET', KEYS[3], 'revision') or '0'
+if storedRevision ~= ARGV[15] then
+    return { -1 }
+end
+
+local movesMode = ARGV[5]
+if movesMode == 'append' then
+    -- Moves stored using the previous format (a list) must be replaced.
+    if redis.call('TYPE', KEYS[4]).ok == 'list'
+            or redis.call('STRLEN', KEYS[4]) ~= 2 * tonumber(ARGV[6]) then
+        return { 0 }
+    end
+end
+
+local function update(key, mode, value)
+    if mode == 'set' then
+        redis.call('SET', key, value)
+    elseif mode == 'del' then
+        redis.call('DEL', key)
+    end
+end
+update(KEYS[1], ARGV[1], ARGV[2])
+update(KEYS[2], ARGV[3], ARGV[4])
+
+if movesMode ~= 'keep' then
+    if movesMode == 'replace' then
+        redis.call('DEL', KEYS[4])
+    end
+    if #ARGV[12] > 0 then
+        redis.call('APPEND', KEYS[4], ARGV[12])
+    end
+    redis.call('HSET', KEYS[3], 'initial', ARGV[7], 'checkpoint', ARGV[8],
+            'checkpoint-fen', ARGV[9], 'fen', ARGV[10], 'version', ARGV[11])
+end
+redis.call('HSET', KEYS[3], 'revision', revision)
+
+-- Board keys expire if the board is not updated for some time.
+for i = 1, 4 do
+    redis.call('EXPIRE', KEYS[i], ARGV[17])
+end
+if #ARGV[18] > 0 then
+    redis.call('HSET', KEYS[3], 'archive-at', ARGV[18])
+end
+-- Game events are written with the board, and removed once they're relayed to the event log.
+local result = { 1, 0 }
+if redis.call('XLEN', KEYS[5]) > 0 then
+    result[2] = 1
+end
+local i = 19
+while i <= #ARGV do
+    local n = 2 * tonumber(ARGV[i])
+    table.insert(result, redis.call('XADD', KEYS[5], '*', unpack(ARGV, i + 1, i + n)))
+    i = i + n + 1
+end
+if #result > 2 then
+    redis.call('EXPIRE', KEYS[5], ARGV[17])
+end
+
+redis.call('PUBLISH', ARGV[13], ARGV[14])
+return result
@@ -0,0 +1,33 @@
+const CLASSIFICATIONS = {
+    BEST: {label: "Best", style: "text-bg-success"},
+    GOOD: {label: "Good", style: "text-bg-secondary"},
+    INACCURACY: {label: "Inaccuracy", style: "text-bg-info"},
+    MISTAKE: {label: "Mistake", style: "text-bg-warning"},
+    BLUNDER: {label: "Blunder", style: "text-bg-danger"},
+};
+
+function subscribeToGameAnalysis(cid) {
+    // Reviews are sent by the server as soon as positions are evaluated (not in order).
+    const events = new EventSource('/chess/' + cid + '/analyze/reviews');
+    events.addEventListener('review', (e) => _showReview(JSON.parse(e.data)));
+    events.addEventListener('done', () => events.close());
+    events.onerror = () => events.close();
+}
+
+function _showReview(review) {
+    const row = document.getElementById('ply-' + review.ply);
+    if (!row) {
+        return;
+    }
+    row.querySelector('.evaluation').textContent = review.evaluation;
+    if (review.classification !== 'BEST' && review.bestMove) {
+        row.querySelector('.best-move').textContent = review.bestMove;
+    }
+    const classification = CLASSIFICATIONS[review.classification];
+    if (classification) {
+        const badge = document.createElement('span');
+        badge.className = 'badge ' + classification.style;
+        badge.textContent = classification.label;
+        row.querySelector('.classification').replaceChildren(badge);
+    }
+}
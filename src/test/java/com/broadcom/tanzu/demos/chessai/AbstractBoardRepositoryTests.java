@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.notation.NotationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests (and benchmark) run against every {@link BoardRepository} implementation.
+ */
+abstract class AbstractBoardRepositoryTests {
+    private static final List<String> MOVES = List.of(
+            "e2e4", "e7e5", "g1f3", "b8c6", "f1c4", "g8f6", "e1g1", "f8c5", "d2d3", "d7d6",
+            "c1g5", "h7h6", "g5f6", "d8f6", "b1c3", "c8g4", "c3d5", "f6d8", "c2c3", "e8g8");
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private BoardRepository repo;
+
+    abstract BoardRepository createRepository();
+
+    @BeforeEach
+    void setUp() {
+        repo = createRepository();
+    }
+
+    @Test
+    void testSaveAndLoad() {
+        var board = repo.newInstance();
+        for (final var move : MOVES) {
+            board = repo.update(board.id(), b -> {
+                b.game().playMove(NotationType.UCI, move);
+                return new Board(b.id(), b.game(), null, null, b.snapshot());
+            });
+        }
+        board = repo.update(board.id(), b -> new Board(b.id(), b.game(), "d1", Board.Error.SERVER_ERROR, b.snapshot()));
+
+        final var loaded = repo.load(board.id()).orElseThrow();
+        assertThat(loaded.moves()).isEqualTo(MOVES);
+        assertThat(loaded.game().getFen()).isEqualTo(board.game().getFen());
+        assertThat(loaded.currentSquare()).isEqualTo("d1");
+        assertThat(loaded.error()).isEqualTo(Board.Error.SERVER_ERROR);
+    }
+
+    @Test
+    void testLoadUnknownBoard() {
+        final var board = repo.load("unknown").orElseThrow();
+        assertThat(board.moves()).isEmpty();
+        assertThat(board.currentSquare()).isNull();
+    }
+
+    @Test
+    void testRevision() {
+        assertThat(repo.revision("unknown")).isZero();
+        final var id = repo.newInstance().id();
+        final var revision = repo.revision(id);
+        assertThat(revision).isPositive();
+        final var board = repo.update(id, b -> new Board(b.id(), b.game(), "e2", null, b.snapshot()));
+        assertThat(repo.revision(id)).isGreaterThan(revision).isEqualTo(board.snapshot().revision());
+    }
+
+    @Test
+    void testConcurrentUpdate() {
+        final var id = repo.newInstance().id();
+        final var staleBoard = repo.load(id).orElseThrow();
+        repo.update(id, b -> new Board(b.id(), b.game(), "e2", null, b.snapshot()));
+        assertThatThrownBy(() -> repo.save(new Board(id, staleBoard.game(), "d2", null, staleBoard.snapshot())))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        // The first attempt conflicts with another update: the mutation is applied again to the latest board.
+        final var attempts = new AtomicInteger();
+        final var board = repo.update(id, b -> {
+            if (attempts.incrementAndGet() == 1) {
+                repo.update(id, other -> new Board(other.id(), other.game(), "g1", null, other.snapshot()));
+            }
+            assertThat(b.currentSquare()).isEqualTo(attempts.get() == 1 ? "e2" : "g1");
+            return new Board(b.id(), b.game(), "f1", null, b.snapshot());
+        });
+        assertThat(attempts).hasValue(2);
+        assertThat(board.currentSquare()).isEqualTo("f1");
+        assertThat(repo.load(id).orElseThrow().currentSquare()).isEqualTo("f1");
+    }
+
+    @Test
+    void testConversation() {
+        final var id = repo.newInstance().id();
+        repo.saveQuestion(id, "What's next?");
+        assertThat(repo.findQuestion(id)).contains("What's next?");
+        repo.saveQuestion(id, null);
+        assertThat(repo.findQuestion(id)).isEmpty();
+
+        for (int i = 0; i < 5; ++i) {
+            repo.addConversationEntry(id, "entry" + i, 3);
+        }
+        assertThat(repo.findConversation(id)).containsExactly("entry2", "entry3", "entry4");
+    }
+
+    @Test
+    void benchmarkLoadSave() {
+        // Not a strict benchmark, but this gives an idea of the latency for each storage backend
+        // when the player selects a square (one load and one save).
+        var board = repo.newInstance();
+        for (final var move : MOVES) {
+            board.game().playMove(NotationType.UCI, move);
+        }
+        board = repo.save(board);
+        final var id = board.id();
+
+        final var iterations = 2000;
+        for (int i = 0; i < iterations; ++i) {
+            // Warm up.
+            selectSquare(id, i);
+        }
+        final var t0 = System.nanoTime();
+        for (int i = 0; i < iterations; ++i) {
+            selectSquare(id, i);
+        }
+        final var t1 = System.nanoTime();
+        logger.atInfo().log("Load + save latency with {}: {}µs", repo.getClass().getSimpleName(),
+                (t1 - t0) / iterations / 1000);
+    }
+
+    private void selectSquare(String id, int i) {
+        repo.update(id, b -> new Board(b.id(), b.game(), i % 2 == 0 ? "e1" : null, null, b.snapshot()));
+    }
+}
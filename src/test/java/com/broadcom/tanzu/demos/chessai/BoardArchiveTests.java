@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoardArchiveTests {
+    @TempDir
+    private Path dir;
+
+    @Test
+    void testAppendAndFind() throws IOException {
+        final var entry = new BoardArchive.Entry("foo", ChessGame.STANDARD_INITIAL_FEN,
+                List.of("e2e4", "e7e5", "g1f3"), Board.Error.CHECK_MATE, 42);
+        try (final var archive = new BoardArchive(dir, 1024)) {
+            archive.append(entry);
+            assertThat(archive.find("foo")).contains(entry);
+            assertThat(archive.find("bar")).isEmpty();
+        }
+        // The index is rebuilt when the archive is opened again.
+        try (final var archive = new BoardArchive(dir, 1024)) {
+            assertThat(archive.find("foo")).contains(entry);
+        }
+    }
+
+    @Test
+    void testArchiveDialog() throws IOException {
+        final var entry = new BoardArchive.Entry("foo", ChessGame.STANDARD_INITIAL_FEN, List.of("e2e4"), null, 1,
+                "What's the best opening?", List.of("USER: Hello", "AI: " + "Hi! ".repeat(20_000)));
+        try (final var archive = new BoardArchive(dir, 1024)) {
+            archive.append(entry);
+        }
+        try (final var archive = new BoardArchive(dir, 1024)) {
+            assertThat(archive.find("foo")).contains(entry);
+        }
+    }
+
+    @Test
+    void testLatestEntryWins() throws IOException {
+        try (final var archive = new BoardArchive(dir, 1024)) {
+            archive.append(new BoardArchive.Entry("foo", ChessGame.STANDARD_INITIAL_FEN, List.of("e2e4"), null, 1));
+            archive.append(new BoardArchive.Entry("foo", ChessGame.STANDARD_INITIAL_FEN, List.of("e2e4", "e7e5"), null, 1));
+            assertThat(archive.find("foo").orElseThrow().moves()).containsExactly("e2e4", "e7e5");
+        }
+        try (final var archive = new BoardArchive(dir, 1024)) {
+            assertThat(archive.find("foo").orElseThrow().moves()).containsExactly("e2e4", "e7e5");
+        }
+    }
+
+    @Test
+    void testSegmentRollover() throws IOException {
+        try (final var archive = new BoardArchive(dir, 256)) {
+            for (int i = 0; i < 20; ++i) {
+                archive.append(new BoardArchive.Entry("board-" + i, ChessGame.STANDARD_INITIAL_FEN, List.of("e2e4", "e7e5"), null, 1));
+            }
+        }
+        try (final var files = Files.list(dir)) {
+            assertThat(files.count()).isGreaterThan(1);
+        }
+        try (final var archive = new BoardArchive(dir, 256)) {
+            assertThat(archive.size()).isEqualTo(20);
+            assertThat(archive.find("board-0")).isPresent();
+            assertThat(archive.find("board-19")).isPresent();
+        }
+    }
+
+    @Test
+    void testSharedDirectory() throws IOException {
+        // Both archives are opened at the same time, as if they were used by different app instances.
+        try (final var archive1 = new BoardArchive(dir, 256);
+             final var archive2 = new BoardArchive(dir, 256)) {
+            for (int i = 0; i < 10; ++i) {
+                (i % 2 == 0 ? archive1 : archive2).append(new BoardArchive.Entry("board-" + i,
+                        ChessGame.STANDARD_INITIAL_FEN, List.of("e2e4", "e7e5"), null, i));
+            }
+            for (int i = 0; i < 10; ++i) {
+                assertThat(archive1.find("board-" + i).orElseThrow().revision()).isEqualTo(i);
+                assertThat(archive2.find("board-" + i).orElseThrow().revision()).isEqualTo(i);
+            }
+
+            // The latest record wins, whatever the instance which archived it.
+            archive2.append(new BoardArchive.Entry("board-0", ChessGame.STANDARD_INITIAL_FEN, List.of("d2d4"), null, 42));
+            assertThat(archive1.find("board-0").orElseThrow().revision()).isEqualTo(42);
+        }
+        try (final var archive = new BoardArchive(dir, 256)) {
+            assertThat(archive.size()).isEqualTo(10);
+        }
+    }
+
+    @Test
+    void testIgnoreIncompleteRecord() throws IOException {
+        try (final var archive = new BoardArchive(dir, 1024)) {
+            archive.append(new BoardArchive.Entry("foo", ChessGame.STANDARD_INITIAL_FEN, List.of("e2e4"), null, 1));
+        }
+        // Simulate a crash while writing a record.
+        try (final var files = Files.list(dir)) {
+            Files.write(files.findFirst().orElseThrow(), new byte[]{0, 0, 1, 0, 42}, StandardOpenOption.APPEND);
+        }
+        try (final var archive = new BoardArchive(dir, 1024)) {
+            assertThat(archive.size()).isEqualTo(1);
+            archive.append(new BoardArchive.Entry("bar", ChessGame.STANDARD_INITIAL_FEN, List.of("d2d4"), null, 1));
+        }
+        try (final var archive = new BoardArchive(dir, 1024)) {
+            assertThat(archive.find("foo")).isPresent();
+            assertThat(archive.find("bar")).isPresent();
+        }
+    }
+}
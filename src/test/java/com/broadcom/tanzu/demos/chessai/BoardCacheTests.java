@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoardCacheTests {
+    private final BoardCache cache = new BoardCache(10, Duration.ofMinutes(1));
+
+    @Test
+    void testCachedBoardIsNotShared() {
+        cache.put(new Board("test", new ChessGame(), null, null), cache.stamp());
+        cache.get("test").orElseThrow().game().playMove(NotationType.UCI, "e2e4");
+        assertThat(cache.get("test").orElseThrow().game().getFen()).isEqualTo(ChessGame.STANDARD_INITIAL_FEN);
+    }
+
+    @Test
+    void testEvictBoardUpdatedByAnotherInstance() {
+        cache.put(new Board("test", new ChessGame(), null, null), cache.stamp());
+        cache.onMessage(message(cache.updateMessage("test")), null);
+        assertThat(cache.get("test")).isPresent();
+
+        cache.onMessage(message("other-instance test"), null);
+        assertThat(cache.get("test")).isEmpty();
+    }
+
+    @Test
+    void testIgnoreStaleBoard() {
+        // The board is updated by another instance while it's being loaded.
+        final var stamp = cache.stamp();
+        cache.onMessage(message("other-instance test"), null);
+        cache.put(new Board("test", new ChessGame(), null, null), stamp);
+        assertThat(cache.get("test")).isEmpty();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(BoardCache.CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoardFormatterTests {
+    private final BoardFormatter formatter = new BoardFormatter();
+
+    @Test
+    void testFormatNewGame() {
+        final var view = formatter.format(new Board("test", new ChessGame(), "g1", null));
+        assertThat(view.ranks()).hasNumberOfRows(8);
+        assertThat(view.lastMove()).isNull();
+        assertThat(view.result()).isNull();
+        assertThat(view.sideToMove()).isEqualTo("WHITE");
+
+        // The top left square is a8, and the bottom right square is h1.
+        final var a8 = view.ranks()[0][0];
+        assertThat(a8.name()).isEqualTo("a8");
+        assertThat(a8.cssClass()).isEqualTo("light");
+        assertThat(a8.piece()).isEqualTo("fa-solid fa-chess-rook");
+        assertThat(a8.rankLabel()).isEqualTo("8");
+        assertThat(a8.fileLabel()).isNull();
+        final var a1 = view.ranks()[7][0];
+        assertThat(a1.cssClass()).isEqualTo("dark");
+        assertThat(a1.labelClass()).isEqualTo("text-light");
+        assertThat(a1.rankLabel()).isEqualTo("1");
+        assertThat(a1.fileLabel()).isEqualTo("a");
+        assertThat(view.ranks()[7][6].cssClass()).isEqualTo("current");
+
+        // The knight on g1 can only move to f3 or h3.
+        assertThat(Arrays.stream(view.ranks()).flatMap(Arrays::stream)
+                .filter(BoardView.SquareView::legalTarget).map(BoardView.SquareView::name))
+                .containsExactlyInAnyOrder("f3", "h3");
+    }
+
+    @Test
+    void testFormatCheck() {
+        final var game = new ChessGame();
+        game.playMoves(NotationType.UCI, "e2e4 f7f6 d2d4 g7g5 d1h5");
+        final var view = formatter.format(new Board("test", game, null, null));
+        assertThat(view.lastMove()).isEqualTo("d1h5");
+        assertThat(view.result()).isEqualTo("WHITE_WINS");
+        // The black king is on e8, and the queen came from d1.
+        assertThat(view.ranks()[0][4].cssClass()).isEqualTo("king-attacked");
+        assertThat(view.ranks()[7][3].cssClass()).isEqualTo("last-move");
+        assertThat(view.ranks()[3][7].cssClass()).isEqualTo("last-move");
+        assertThat(Arrays.stream(view.ranks()).flatMap(Arrays::stream)
+                .noneMatch(BoardView.SquareView::legalTarget)).isTrue();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.board.Piece;
+import io.github.wolfraam.chessgame.board.Square;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+@WebMvcTest(value = BoardController.class, properties = "app.chess.storage=memory")
+@Import({BoardFragmentCache.class, MemoryBoardRepository.class, BoardFragmentTests.Config.class})
+class BoardFragmentTests {
+    @Autowired
+    private WebTestClient client;
+    @MockitoSpyBean
+    private BoardRepository repo;
+    @MockitoBean
+    private ChessEngine chessEngine;
+    @MockitoBean
+    private ChatClient chatClient;
+    @MockitoBean
+    private SimpMessagingTemplate stomp;
+    @MockitoBean
+    private TaskExecutor taskExecutor;
+
+    @Test
+    void testNotModified() {
+        final var id = repo.newInstance().id();
+        final var etag = client.get().uri("/chess/{id}/board", id).exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .expectBody(String.class).value(body -> assertThat(body).contains("square-e2"))
+                .returnResult().getResponseHeaders().getETag();
+
+        // Nothing has changed: the board is not even loaded.
+        clearInvocations(repo);
+        client.get().uri("/chess/{id}/board", id).header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+                .expectStatus().isNotModified();
+        verify(repo, never()).load(any());
+    }
+
+    @Test
+    void testModified() {
+        final var id = repo.newInstance().id();
+        final var etag = client.get().uri("/chess/{id}/board", id).exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders().getETag();
+
+        // Selecting a square creates a new revision, which is rendered right away.
+        client.post().uri("/chess/{id}/click/e2", id).exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).value(body -> assertThat(body).contains("current"));
+
+        // The fragment for the new revision is served from the cache.
+        clearInvocations(repo);
+        client.get().uri("/chess/{id}/board", id).header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.ETAG, value -> assertThat(value).isNotEqualTo(etag))
+                .expectBody(String.class).value(body -> assertThat(body).contains("current"));
+        verify(repo, never()).load(any());
+    }
+
+    @Test
+    void testPromotionWithCapture() {
+        final var id = "promotion-" + UUID.randomUUID();
+        repo.save(new Board(id, new ChessGame("rn2k3/1P6/8/8/8/8/8/4K3 w - - 0 1"), "b7", null));
+
+        client.post().uri("/chess/{id}/click/a8", id).exchange()
+                .expectStatus().isOk();
+        final var piece = repo.load(id).orElseThrow().game().getPiece(Square.A8);
+        assertThat(piece).isEqualTo(Piece.WHITE_QUEEN);
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        BoardFormatter boardFormatter() {
+            // The board template refers to this bean by name.
+            return new BoardFormatter();
+        }
+
+        @Bean
+        SearchBudget searchBudget() {
+            return SearchBudget.DEFAULT;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.move.Move;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoardSnapshotTests {
+    private final Logger logger = LoggerFactory.getLogger(BoardSnapshotTests.class);
+
+    @Test
+    void testRestoreSpecialMoves() {
+        // Castling, en passant and promotion.
+        final var game = new ChessGame();
+        game.playMoves(NotationType.UCI, List.of(
+                "e2e4", "g8f6", "e4e5", "d7d5", "e5d6", "e7e6", "g1f3", "f8e7",
+                "f1c4", "e8g8", "e1g1", "b7b5", "d6c7", "b5c4", "c7d8n"));
+        final var snapshot = BoardSnapshot.of(new Board("test", game, null, null));
+        assertThat(snapshot.version()).isEqualTo(15);
+        assertThat(snapshot.checkpoint()).isEqualTo(14);
+
+        final var board = new Board("test", snapshot.restore(), null, null, snapshot);
+        assertThat(board.game().getFen()).isEqualTo(game.getFen());
+        assertThat(board.moves()).isEqualTo(game.getNotationList(NotationType.UCI));
+        assertThat(board.fullGame().getNotationList(NotationType.UCI)).isEqualTo(game.getNotationList(NotationType.UCI));
+    }
+
+    @Test
+    void testRestoreCustomInitialPosition() {
+        final var game = new ChessGame("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+        game.playMoves(NotationType.UCI, List.of("e2e4", "e8d7", "e4e5", "d7e6"));
+        final var snapshot = BoardSnapshot.of(new Board("test", game, null, null));
+        final var board = new Board("test", snapshot.restore(), null, null, snapshot);
+        assertThat(board.game().getFen()).isEqualTo(game.getFen());
+        assertThat(board.fullGame().getInitialFen()).isEqualTo(game.getInitialFen());
+    }
+
+    @Test
+    void testRestoreAfterSuccessiveSaves() {
+        // Simulate a game where the board is loaded and saved after each move.
+        final var expected = randomGame(new Random(7), 120);
+        final var moves = expected.getNotationList(NotationType.UCI);
+        var board = new Board("test", new ChessGame(), null, null);
+        for (final var move : moves) {
+            board.game().playMove(NotationType.UCI, move);
+            final var snapshot = BoardSnapshot.of(board);
+            board = new Board("test", snapshot.restore(), null, null, snapshot);
+            assertThat(board.moves()).hasSize(snapshot.version());
+        }
+        assertThat(board.game().getFen()).isEqualTo(expected.getFen());
+        assertThat(board.game().getGameResultType()).isEqualTo(expected.getGameResultType());
+        assertThat(board.moves()).isEqualTo(moves);
+        assertThat(board.snapshot().checkpoint()).isPositive();
+    }
+
+    @Test
+    void testRevisionsOfRecreatedBoard() {
+        final var first = BoardSnapshot.of(new Board("board", new ChessGame(), null, null));
+        final var second = BoardSnapshot.of(new Board("board", new ChessGame(), null, null));
+        assertThat(first.revision()).isPositive().isNotEqualTo(second.revision());
+
+        final var next = BoardSnapshot.of(first.toSavedBoard(new Board("board", new ChessGame(), "e2", null)));
+        assertThat(next.revision()).isEqualTo(first.revision() + 1);
+    }
+
+    @Test
+    void testRestoreInconsistentSnapshot() {
+        final var snapshot = new BoardSnapshot(ChessGame.STANDARD_INITIAL_FEN, List.of("e2e4"), 0,
+                ChessGame.STANDARD_INITIAL_FEN, "8/8/8/8/8/8/8/8 w - - 0 1", null, null, 1);
+        assertThatThrownBy(snapshot::restore).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void benchmarkLoadLatencyByGameLength() {
+        // Not a strict benchmark, but this gives an idea of the load latency
+        // against the game length, compared to a full replay of the moves.
+        final var allMoves = randomGame(new Random(42), 150).getNotationList(NotationType.UCI);
+        for (final var length : new int[]{5, 25, 50, 100, 150}) {
+            final var moves = allMoves.subList(0, Math.min(length, allMoves.size()));
+            final var game = BoardSnapshot.replay(ChessGame.STANDARD_INITIAL_FEN, moves);
+            final var snapshot = BoardSnapshot.of(new Board("test", game, null, null));
+
+            final var iterations = 500;
+            for (int i = 0; i < iterations; ++i) {
+                // Warm up.
+                snapshot.restore();
+                BoardSnapshot.replay(snapshot.initialFen(), snapshot.moves());
+            }
+            final var t0 = System.nanoTime();
+            for (int i = 0; i < iterations; ++i) {
+                snapshot.restore();
+            }
+            final var t1 = System.nanoTime();
+            for (int i = 0; i < iterations; ++i) {
+                BoardSnapshot.replay(snapshot.initialFen(), snapshot.moves());
+            }
+            final var t2 = System.nanoTime();
+            logger.atInfo().log("Load latency with {} moves: snapshot={}µs ({} moves played), replay={}µs",
+                    moves.size(), (t1 - t0) / iterations / 1000, snapshot.version() - snapshot.checkpoint(),
+                    (t2 - t1) / iterations / 1000);
+            assertThat(snapshot.restore().getFen()).isEqualTo(game.getFen());
+        }
+    }
+
+    private static ChessGame randomGame(Random random, int maxMoves) {
+        final var game = new ChessGame();
+        while (game.getMoves().size() < maxMoves && game.getGameResultType() == null) {
+            final var legalMoves = new ArrayList<>(game.getLegalMoves());
+            legalMoves.sort(Comparator.comparing(Move::toString));
+            game.playMove(legalMoves.get(random.nextInt(legalMoves.size())));
+        }
+        return game;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingChessEngineTests {
+    private final AtomicInteger calls = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CachingChessEngine engine = new CachingChessEngine(game -> {
+        calls.incrementAndGet();
+        return Optional.of(game.getMove(NotationType.UCI, "e7e5"));
+    }, Caffeine.newBuilder().maximumSize(10).build(), null, Duration.ofMinutes(1), meterRegistry);
+
+    @Test
+    void testSamePositionFromDifferentGames() {
+        final var game1 = new ChessGame();
+        game1.playMove(NotationType.UCI, "e2e4");
+        final var game2 = new ChessGame();
+        game2.playMoves(NotationType.UCI, List.of("g1f3", "g8f6", "f3g1", "f6g8", "e2e4"));
+
+        assertThat(engine.getNextMove(game1).map(m -> game1.getNotation(NotationType.UCI, m))).hasValue("e7e5");
+        assertThat(engine.getNextMove(game2).map(m -> game2.getNotation(NotationType.UCI, m))).hasValue("e7e5");
+        assertThat(calls).hasValue(1);
+        assertThat(meterRegistry.get("chess.engine.cache.requests").tag("result", "local").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("chess.engine.cache.requests").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testZobristHashIgnoresMoveCounters() {
+        assertThat(ZobristHash.of("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1"))
+                .isEqualTo(ZobristHash.of("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 4 3"))
+                .isNotEqualTo(ZobristHash.of("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 1"));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.board.Square;
+import io.github.wolfraam.chessgame.move.Move;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChessPositionTests {
+    private static final int RENDERS = 200;
+    private final Logger logger = LoggerFactory.getLogger(ChessPositionTests.class);
+
+    @Test
+    void testMatchesGame() {
+        final var game = new ChessGame("r1bqkbnr/pppp1ppp/2n5/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 2 4");
+        game.playMove(NotationType.UCI, "h5f7");
+        final var position = ChessPosition.of(game);
+        assertThat(position.fen()).isEqualTo(game.getFen());
+        assertThat(position.sideToMove()).isEqualTo(game.getSideToMove());
+        assertThat(position.isKingAttacked()).isTrue();
+        assertThat(position.kingSquare()).isEqualTo(ChessPosition.index(Square.E8));
+        assertThat(position.legalMoveCount()).isEqualTo(game.getLegalMoves().size());
+        assertThat(position.occupiedCount()).isEqualTo(game.getOccupiedSquares().size());
+        assertThat(position.result()).isEqualTo(game.getGameResultType());
+        assertThat(position.lastMoveUci()).isEqualTo("h5f7");
+        for (final var from : Square.values()) {
+            assertThat(position.piece(from)).isEqualTo(game.getPiece(from));
+            for (final var to : Square.values()) {
+                assertThat(position.isLegalTarget(ChessPosition.index(from), ChessPosition.index(to)))
+                        .isEqualTo(game.isLegalMove(new Move(from, to)));
+            }
+        }
+    }
+
+    @Test
+    void testPromotion() {
+        final var game = new ChessGame("8/4P3/8/8/8/8/k7/4K3 w - - 0 1");
+        final var position = ChessPosition.of(game);
+        assertThat(position.isLegalMove(new Move(Square.E7, Square.E8))).isFalse();
+        assertThat(position.isLegalMove(game.getMove(NotationType.UCI, "e7e8q"))).isTrue();
+        assertThat(position.legalMoveCount()).isEqualTo(game.getLegalMoves().size());
+
+        game.playMove(NotationType.UCI, "e7e8n");
+        assertThat(ChessPosition.of(game).lastMoveUci()).isEqualTo("e7e8n");
+    }
+
+    @Test
+    void testReusedUntilMovePlayed() {
+        final var game = new ChessGame();
+        final var position = ChessPosition.of(game);
+        assertThat(ChessPosition.of(game)).isSameAs(position);
+        game.playMove(NotationType.UCI, "e2e4");
+        final var next = ChessPosition.of(game);
+        assertThat(next).isNotSameAs(position);
+        assertThat(next.fen()).isEqualTo(game.getFen());
+        assertThat(ChessPosition.of(game.clone())).isNotSameAs(next);
+    }
+
+    @Test
+    void testRenderAllocations() {
+        // Compare the memory allocated when a board is rendered,
+        // using the game directly or the board view built from the position snapshot.
+        final var game = new ChessGame("r1bqkb1r/pppp1ppp/2n2n2/4p2Q/2B1P3/8/PPPP1PPP/RNB1K1NR w KQkq - 4 4");
+        final var board = new Board("test", game, "c4", null);
+        final var formatter = new BoardFormatter();
+
+        // Warm up the JIT before measuring anything.
+        for (int i = 0; i < RENDERS; ++i) {
+            renderFromGame(board);
+            renderFromPosition(formatter, board);
+        }
+        final long fromGame = allocatedBytes(() -> renderFromGame(board));
+        final long fromPosition = allocatedBytes(() -> renderFromPosition(formatter, board));
+        logger.atInfo().log("Allocated bytes per render: {} from game, {} from board view",
+                fromGame / RENDERS, fromPosition / RENDERS);
+        assertThat(fromPosition).isLessThan(fromGame / 10);
+    }
+
+    private static long allocatedBytes(Runnable render) {
+        final var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long start = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < RENDERS; ++i) {
+            render.run();
+        }
+        return threads.getCurrentThreadAllocatedBytes() - start;
+    }
+
+    private static int renderFromGame(Board board) {
+        // This is what the board template used to do for each square.
+        final var game = board.game();
+        final var current = Square.fromName(board.currentSquare());
+        int n = 0;
+        for (final var sq : Square.values()) {
+            if (game.getPiece(sq) != null) {
+                n += 1;
+            }
+            if (game.isLegalMove(new Move(current, sq))) {
+                n += 1;
+            }
+            if (game.isKingAttacked()) {
+                n += 1;
+            }
+        }
+        return n + game.getNotationList(NotationType.UCI).size() + game.getFen().length();
+    }
+
+    private static int renderFromPosition(BoardFormatter formatter, Board board) {
+        final var view = formatter.format(board);
+        int n = 0;
+        for (final var rank : view.ranks()) {
+            for (final var sq : rank) {
+                if (sq.piece() != null) {
+                    n += 1;
+                }
+                if (sq.legalTarget()) {
+                    n += 1;
+                }
+            }
+        }
+        return n + (view.lastMove() == null ? 0 : view.lastMove().length()) + view.fen().length();
+    }
+}
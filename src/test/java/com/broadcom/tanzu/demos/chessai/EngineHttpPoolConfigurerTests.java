@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EngineHttpPoolConfigurerTests {
+    private static final String POOL_SIZE = "jdk.httpclient.connectionPoolSize";
+    private static final String KEEP_ALIVE = "jdk.httpclient.keepalive.timeout";
+    private final EngineHttpPoolConfigurer configurer = new EngineHttpPoolConfigurer();
+
+    @BeforeEach
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty(POOL_SIZE);
+        System.clearProperty(KEEP_ALIVE);
+    }
+
+    @Test
+    void testPoolSettings() {
+        final var env = new MockEnvironment()
+                .withProperty("app.chess.engine-http.pool-size", "16")
+                .withProperty("app.chess.engine-http.keep-alive", "2m");
+        configurer.postProcessEnvironment(env, new SpringApplication());
+        assertThat(System.getProperty(POOL_SIZE)).isEqualTo("16");
+        assertThat(System.getProperty(KEEP_ALIVE)).isEqualTo("120");
+    }
+
+    @Test
+    void testKeepSystemProperties() {
+        System.setProperty(KEEP_ALIVE, "5");
+        final var env = new MockEnvironment().withProperty("app.chess.engine-http.keep-alive", "2m");
+        configurer.postProcessEnvironment(env, new SpringApplication());
+        assertThat(System.getProperty(KEEP_ALIVE)).isEqualTo("5");
+        assertThat(System.getProperty(POOL_SIZE)).isNull();
+    }
+}
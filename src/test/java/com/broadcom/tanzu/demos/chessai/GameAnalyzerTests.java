@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.move.Move;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GameAnalyzerTests {
+    private final AtomicInteger engineCalls = new AtomicInteger();
+    private final GameAnalyzer analyzer = new GameAnalyzer(new MateInOneEngine(), SearchBudget.DEFAULT, 4,
+            Caffeine.newBuilder().<String, GameAnalysis>build());
+
+    @AfterEach
+    void close() {
+        analyzer.close();
+    }
+
+    @Test
+    void testClassifyMoves() {
+        // Scholar's mate: Black misses the threat on f7.
+        final var board = board("e2e4", "e7e5", "d1h5", "b8c6", "f1c4", "g8f6", "h5f7");
+        final var analysis = analyzer.analyze(board);
+        assertThat(analysis.moves()).extracting(GameAnalysis.PlayedMove::san)
+                .containsExactly("e4", "e5", "Qh5", "Nc6", "Bc4", "Nf6", "Qxf7#");
+
+        final var reviews = analysis.reviews().stream().map(CompletableFuture::join).toList();
+        assertThat(reviews.get(5).classification()).isEqualTo(GameAnalysis.Classification.BLUNDER);
+        assertThat(reviews.get(5).evaluation()).isEqualTo("#1");
+        assertThat(reviews.get(5).bestMove()).isNotEqualTo("Nf6");
+        assertThat(reviews.get(6).classification()).isEqualTo(GameAnalysis.Classification.BEST);
+        assertThat(reviews.get(6).evaluation()).isEqualTo("#");
+        assertThat(reviews.subList(0, 5)).extracting(GameAnalysis.MoveReview::classification)
+                .doesNotContain(GameAnalysis.Classification.BLUNDER, GameAnalysis.Classification.MISTAKE);
+    }
+
+    @Test
+    void testCacheAnalysis() {
+        final var board = board("e2e4", "e7e5");
+        final var analysis = analyzer.analyze(board);
+        analysis.reviews().forEach(CompletableFuture::join);
+        assertThat(engineCalls).hasValue(3);
+
+        assertThat(analyzer.analyze(board)).isSameAs(analysis);
+        assertThat(engineCalls).hasValue(3);
+
+        // A new move is a new game version.
+        board.game().playMove(board.game().getMove(NotationType.UCI, "g1f3"));
+        analyzer.analyze(board).reviews().forEach(CompletableFuture::join);
+        assertThat(engineCalls).hasValue(7);
+    }
+
+    @Test
+    void testClassify() {
+        assertThat(GameAnalyzer.classify(GameAnalyzer.winPercent(0) - GameAnalyzer.winPercent(-30)))
+                .isEqualTo(GameAnalysis.Classification.GOOD);
+        assertThat(GameAnalyzer.classify(GameAnalyzer.winPercent(0) - GameAnalyzer.winPercent(-500)))
+                .isEqualTo(GameAnalysis.Classification.BLUNDER);
+        // Losing a pawn doesn't matter much when the game is already won.
+        assertThat(GameAnalyzer.classify(GameAnalyzer.winPercent(900) - GameAnalyzer.winPercent(800)))
+                .isEqualTo(GameAnalysis.Classification.GOOD);
+    }
+
+    private static Board board(String... moves) {
+        final var game = new ChessGame();
+        for (final var move : moves) {
+            game.playMove(game.getMove(NotationType.UCI, move));
+        }
+        return new Board("test", game, null, null);
+    }
+
+    /**
+     * Only find checkmates in one move: other positions are balanced.
+     */
+    private class MateInOneEngine implements ChessEngine {
+        @Override
+        public Optional<Move> getNextMove(ChessGame game) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<AnalysisLine> analyze(ChessGame game, int lines, SearchBudget budget) {
+            engineCalls.incrementAndGet();
+            for (final var move : game.getLegalMoves()) {
+                final var next = game.clone();
+                next.playMove(move);
+                if (next.getGameResultType() != null && next.isKingAttacked()) {
+                    return List.of(new AnalysisLine(move, null, 1, List.of(move)));
+                }
+            }
+            final var move = game.getLegalMoves().stream()
+                    .min(Comparator.comparing(m -> game.getNotation(NotationType.UCI, m))).orElseThrow();
+            return List.of(new AnalysisLine(move, 0, null, List.of(move)));
+        }
+    }
+}
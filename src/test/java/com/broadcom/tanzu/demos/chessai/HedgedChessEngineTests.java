@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.board.Square;
+import io.github.wolfraam.chessgame.move.Move;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgedChessEngineTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testHedgeSlowEngine() {
+        final var engine = hedged(engine("e2e4", Duration.ofSeconds(5)), engine("d2d4", Duration.ZERO));
+        final var start = System.nanoTime();
+        assertThat(nextMove(engine)).hasValue("d2d4");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(meterRegistry.get("chess.engine.hedge.requests").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testPrimaryEngineWins() {
+        final var engine = hedged(engine("e2e4", Duration.ZERO), engine("d2d4", Duration.ZERO));
+        assertThat(nextMove(engine)).hasValue("e2e4");
+        assertThat(meterRegistry.get("chess.engine.hedge.requests").counter().count()).isZero();
+    }
+
+    @Test
+    void testIgnoreFailedEngine() {
+        final ChessEngine failing = game -> {
+            throw new IllegalStateException("Engine failure");
+        };
+        final ChessEngine illegal = game -> Optional.of(new Move(Square.E2, Square.E5));
+        assertThat(nextMove(hedged(failing, illegal, engine("g1f3", Duration.ZERO)))).hasValue("g1f3");
+        assertThat(nextMove(hedged(failing, illegal))).isEmpty();
+    }
+
+    @Test
+    void testHedgeDelayFollowsLatencies() {
+        final var engine = hedged(engine("e2e4", Duration.ZERO));
+        assertThat(engine.hedgeDelay()).isEqualTo(Duration.ofMillis(200));
+        for (int i = 0; i < 20; ++i) {
+            nextMove(engine);
+        }
+        assertThat(engine.hedgeDelay()).isEqualTo(Duration.ofMillis(50));
+    }
+
+    @Test
+    void testHedgeDelayIncludesLosingPrimaryCalls() {
+        // The primary engine always loses the race: its latency is at least the time the secondary engine needs.
+        final var engine = hedged(engine("e2e4", Duration.ofSeconds(5)), engine("d2d4", Duration.ofMillis(150)));
+        for (int i = 0; i < 10; ++i) {
+            assertThat(nextMove(engine)).hasValue("d2d4");
+        }
+        assertThat(engine.hedgeDelay()).isGreaterThanOrEqualTo(Duration.ofMillis(350));
+    }
+
+    private HedgedChessEngine hedged(ChessEngine... engines) {
+        final var contenders = new ArrayList<HedgedChessEngine.Contender>();
+        for (int i = 0; i < engines.length; ++i) {
+            contenders.add(new HedgedChessEngine.Contender("engine" + i, engines[i], Duration.ofSeconds(10)));
+        }
+        return new HedgedChessEngine(contenders, 0.9, Duration.ofMillis(50), Duration.ofMillis(200), meterRegistry);
+    }
+
+    private static ChessEngine engine(String move, Duration latency) {
+        return game -> {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                return Optional.empty();
+            }
+            return Optional.of(game.getMove(NotationType.UCI, move));
+        };
+    }
+
+    private static Optional<String> nextMove(ChessEngine engine) {
+        final var game = new ChessGame();
+        return engine.getNextMove(game).map(m -> game.getNotation(NotationType.UCI, m));
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoveCodecTests {
+    @Test
+    void testEncodeDecode() {
+        final var moves = List.of("e2e4", "a1h8", "h8a1", "e7e8q", "b2a1n", "g7g8r", "c2c1b");
+        final var data = MoveCodec.encode(moves);
+        assertThat(data).hasSize(moves.size() * 2);
+        assertThat(MoveCodec.decode(data)).isEqualTo(moves);
+    }
+
+    @Test
+    void testPolyglotLayout() {
+        // e2 = 12, e4 = 28
+        assertThat(MoveCodec.encode("e2e4")).isEqualTo(12 << 6 | 28);
+        // Queen promotion is encoded as 4.
+        assertThat(MoveCodec.encode("a7a8q")).isEqualTo(4 << 12 | 48 << 6 | 56);
+    }
+
+    @Test
+    void testInvalidMoves() {
+        assertThatThrownBy(() -> MoveCodec.encode("e2e9")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MoveCodec.encode("e7e8k")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> MoveCodec.decode(new byte[3])).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OpeningBookTests {
+    private static final String CASTLING_FEN = "r3k2r/pppq1ppp/2npbn2/2b1p3/2B1P3/2NPBN2/PPPQ1PPP/R3K2R w KQkq - 0 1";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWeightedBookMoves() throws IOException {
+        final var book = OpeningBook.open(writeBook(), ZobristHash.DEFAULT);
+        final var game = new ChessGame();
+        assertThat(book.entries(game)).hasSize(2);
+
+        final var random = new Random(42);
+        final var counts = new HashMap<String, Integer>();
+        for (int i = 0; i < 1000; ++i) {
+            final var move = book.pick(game, random).orElseThrow();
+            counts.merge(game.getNotation(NotationType.UCI, move), 1, Integer::sum);
+        }
+        assertThat(counts).containsOnlyKeys("e2e4", "d2d4");
+        assertThat(counts.get("e2e4")).isBetween(700, 800);
+    }
+
+    @Test
+    void testCastlingMove() throws IOException {
+        final var book = OpeningBook.open(writeBook(), ZobristHash.DEFAULT);
+        final var game = new ChessGame(CASTLING_FEN);
+        final var move = book.pick(game, new Random()).orElseThrow();
+        assertThat(game.getNotation(NotationType.UCI, move)).isEqualTo("e1g1");
+    }
+
+    @Test
+    void testFallThroughToEngine() throws IOException {
+        final var book = OpeningBook.open(writeBook(), ZobristHash.DEFAULT);
+        final var engine = new OpeningBookChessEngine(game -> Optional.of(game.getMove(NotationType.UCI, "g1f3")),
+                book, new Random(), new SimpleMeterRegistry());
+        final var game = new ChessGame();
+        game.playMoves(NotationType.UCI, "e2e4 e7e5");
+        assertThat(engine.getNextMove(game).map(m -> game.getNotation(NotationType.UCI, m))).hasValue("g1f3");
+    }
+
+    @Test
+    void testPolyglotKeys() throws IOException {
+        // The bundled table matches the keys published with the Polyglot book format.
+        final var keys = ZobristHash.polyglot(new ClassPathResource("polyglot/random64.txt"));
+        ZobristHash.POLYGLOT_REFERENCE_KEYS.forEach((fen, key) -> assertThat(keys.hash(fen)).as(fen).isEqualTo(key));
+    }
+
+    @Test
+    void testRejectOtherKeys() throws IOException {
+        // Only the side to move is hashed with this table: the initial position gets the Polyglot key.
+        final var table = new long[ZobristHash.TABLE_SIZE];
+        table[ZobristHash.TABLE_SIZE - 1] = ZobristHash.POLYGLOT_REFERENCE_KEYS.get(ChessGame.STANDARD_INITIAL_FEN);
+        assertThatThrownBy(() -> ZobristHash.polyglot(writeKeys(table)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Resource writeKeys(long[] table) throws IOException {
+        final var text = new StringBuilder();
+        for (final var value : table) {
+            text.append(String.format("0x%016X,%n", value));
+        }
+        final var path = tempDir.resolve("random64.txt");
+        Files.writeString(path, text);
+        return new FileSystemResource(path);
+    }
+
+    private Path writeBook() throws IOException {
+        final var initialKey = ZobristHash.of(ChessGame.STANDARD_INITIAL_FEN);
+        final var castlingKey = ZobristHash.of(CASTLING_FEN);
+        // Entries are sorted by unsigned key.
+        final var entries = new TreeMap<Long, short[][]>(Long::compareUnsigned);
+        entries.put(initialKey, new short[][]{
+                {move("e2e4"), 3}, {move("d2d4"), 1}, {move("g1f3"), 0}
+        });
+        entries.put(castlingKey, new short[][]{{move("e1h1"), 1}});
+
+        final var buffer = ByteBuffer.allocate(4 * 16);
+        for (final Map.Entry<Long, short[][]> e : entries.entrySet()) {
+            for (final var m : e.getValue()) {
+                buffer.putLong(e.getKey()).putShort(m[0]).putShort(m[1]).putInt(0);
+            }
+        }
+        final var path = tempDir.resolve("book.bin");
+        Files.write(path, buffer.array());
+        return path;
+    }
+
+    private static short move(String uci) {
+        final int fromFile = uci.charAt(0) - 'a';
+        final int fromRow = uci.charAt(1) - '1';
+        final int toFile = uci.charAt(2) - 'a';
+        final int toRow = uci.charAt(3) - '1';
+        return (short) (toFile | toRow << 3 | fromFile << 6 | fromRow << 9);
+    }
+}
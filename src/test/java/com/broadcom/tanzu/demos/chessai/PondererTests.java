@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PondererTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> searches = new CopyOnWriteArrayList<>();
+    private final ChessEngine slowEngine = game -> {
+        searches.add(game.getFen());
+        try {
+            Thread.sleep(game.getLastMove().to.name.equals("d5") ? 200 : 10_000);
+        } catch (InterruptedException e) {
+            return Optional.empty();
+        }
+        return Optional.of(game.getLegalMoves().iterator().next());
+    };
+
+    @Test
+    void testExpectedReply() throws InterruptedException {
+        final var ponderer = new Ponderer(SearchBudget.DEFAULT, 3, 3, Duration.ofMinutes(1), meterRegistry);
+        final var engine = ponderer.decorate(slowEngine);
+        final var game = game("e2e4", "d7d5");
+        ponderer.ponder("board", game);
+
+        // Checks and captures are the most likely replies: these positions are searched first.
+        Thread.sleep(500);
+        game.playMove(game.getMove(NotationType.UCI, "e4d5"));
+        ponderer.settle("board", game);
+        final var start = System.nanoTime();
+        assertThat(engine.getNextMove(game)).isPresent();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(100));
+
+        assertThat(searches).hasSize(3).contains(game.getFen());
+        assertThat(meterRegistry.get("chess.engine.ponder.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+        // Searches for other replies were running: they've been cancelled.
+        assertThat(meterRegistry.get("chess.engine.ponder.cancelled").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testUnexpectedReply() {
+        final var ponderer = new Ponderer(SearchBudget.DEFAULT, 1, 1, Duration.ofMinutes(1), meterRegistry);
+        final var engine = ponderer.decorate(game -> {
+            searches.add(game.getFen());
+            return Optional.of(game.getLegalMoves().iterator().next());
+        });
+        final var game = game("e2e4", "d7d5");
+        ponderer.ponder("board", game);
+
+        game.playMove(game.getMove(NotationType.UCI, "g1f3"));
+        ponderer.settle("board", game);
+        assertThat(engine.getNextMove(game)).isPresent();
+        assertThat(searches).last().isEqualTo(game.getFen());
+        assertThat(meterRegistry.get("chess.engine.ponder.requests").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testPonderedReply() {
+        final var ponderer = new Ponderer(SearchBudget.DEFAULT, 3, 1, Duration.ofMinutes(1), meterRegistry);
+        final var engine = ponderer.decorate(game -> {
+            searches.add(game.getFen());
+            return Optional.of(game.getLegalMoves().iterator().next());
+        });
+        final var replies = new CopyOnWriteArrayList<String>();
+        final var game = game("e2e4", "d7d5");
+        // The AI reply uses the engine, just like the LLM does with chess game tools.
+        ponderer.ponder("board", game, g -> {
+            replies.add(g.getFen());
+            return g.getNotation(NotationType.UCI, engine.getNextMove(g).orElseThrow());
+        });
+
+        // Checks are the most likely replies: the AI reply is computed for this move.
+        game.playMove(game.getMove(NotationType.UCI, "f1b5"));
+        final var reply = ponderer.settle("board", game, String.class);
+        assertThat(reply).isPresent();
+        assertThat(game.isLegalMove(game.getMove(NotationType.UCI, reply.get()))).isTrue();
+        assertThat(replies).containsExactly(game.getFen());
+        // The AI reply used the speculative search for this position.
+        assertThat(searches).containsOnlyOnce(game.getFen());
+        assertThat(meterRegistry.get("chess.ai.ponder.replies").tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testPonderedReplyCancelled() throws InterruptedException {
+        final var ponderer = new Ponderer(SearchBudget.DEFAULT, 1, 1, Duration.ofMinutes(1), meterRegistry);
+        ponderer.decorate(slowEngine);
+        final var interrupted = new CountDownLatch(1);
+        final var game = game("e2e4", "d7d5");
+        ponderer.ponder("board", game, g -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "e7e5";
+        });
+
+        game.playMove(game.getMove(NotationType.UCI, "g1f3"));
+        assertThat(ponderer.settle("board", game, String.class)).isEmpty();
+        // The AI reply for the expected move is no longer needed.
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("chess.ai.ponder.replies").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testSpeculativeSearchUsesEngineCache() throws InterruptedException {
+        // The ponderer decorates the engine cache: cached positions are not searched again.
+        final var cachingEngine = new CachingChessEngine(game -> {
+            searches.add(game.getFen());
+            return Optional.of(game.getLegalMoves().iterator().next());
+        }, Caffeine.newBuilder().maximumSize(10).build(), null, Duration.ofMinutes(1), meterRegistry);
+        final var expected = game("e2e4", "d7d5", "f1b5");
+        cachingEngine.getNextMove(expected);
+        searches.clear();
+
+        final var ponderer = new Ponderer(SearchBudget.DEFAULT, 1, 1, Duration.ofMinutes(1), meterRegistry);
+        final var engine = ponderer.decorate(cachingEngine);
+        final var game = game("e2e4", "d7d5");
+        ponderer.ponder("board", game);
+        Thread.sleep(200);
+        game.playMove(game.getMove(NotationType.UCI, "f1b5"));
+        ponderer.settle("board", game);
+        assertThat(engine.getNextMove(game)).isPresent();
+        assertThat(searches).isEmpty();
+        assertThat(ponderer.getOrder()).isGreaterThan(Ordered.LOWEST_PRECEDENCE - 100);
+    }
+
+    private static ChessGame game(String... moves) {
+        final var game = new ChessGame();
+        for (final var move : moves) {
+            game.playMove(game.getMove(NotationType.UCI, move));
+        }
+        return game;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import com.redis.testcontainers.RedisContainer;
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+class RedisBoardRepositoryTests extends AbstractBoardRepositoryTests {
+    @Container
+    private static final RedisContainer redis = new RedisContainer(DockerImageName.parse("redis:7"));
+    private static LettuceConnectionFactory connectionFactory;
+
+    @BeforeAll
+    static void init() {
+        connectionFactory = new LettuceConnectionFactory(redis.getHost(), redis.getFirstMappedPort());
+        connectionFactory.start();
+    }
+
+    @AfterAll
+    static void destroy() {
+        connectionFactory.destroy();
+    }
+
+    @Override
+    BoardRepository createRepository() {
+        final var redisTemplate = redisTemplate();
+        final var beanFactory = new StaticListableBeanFactory();
+        return new RedisBoardRepository(redisTemplate, ChessGame.STANDARD_INITIAL_FEN,
+                new ClassPathResource("scripts/load-board.lua"), new ClassPathResource("scripts/save-board.lua"),
+                new ClassPathResource("scripts/archive-board.lua"),
+                Duration.ofMinutes(10), Duration.ofMinutes(5), Duration.ofMinutes(1), true,
+                beanFactory.getBeanProvider(BoardCache.class), beanFactory.getBeanProvider(BoardArchive.class),
+                beanFactory.getBeanProvider(GameEventLog.class));
+    }
+
+    @Test
+    void testMigrateLegacyKeys() {
+        // Boards saved by a previous version of this app use keys without a hash tag.
+        final var redisTemplate = redisTemplate();
+        final var id = "legacy-" + UUID.randomUUID();
+        redisTemplate.opsForList().rightPushAll("chess::" + id + "::moves", "e2e4", "e7e5");
+        redisTemplate.opsForValue().set("chess::" + id + "::current", "g1");
+        redisTemplate.opsForValue().set("chess::" + id + "::question", "What's next?");
+
+        final var repo = createRepository();
+        final var board = repo.load(id).orElseThrow();
+        assertThat(board.moves()).containsExactly("e2e4", "e7e5");
+        assertThat(board.currentSquare()).isEqualTo("g1");
+        assertThat(repo.findQuestion(id)).hasValue("What's next?");
+        assertThat(redisTemplate.keys("chess::" + id + "::*")).isEmpty();
+        assertThat(redisTemplate.keys("chess::{" + id + "}::*")).isNotEmpty();
+    }
+
+    @Test
+    void testMigrateLegacyBoards() {
+        final var redisTemplate = redisTemplate();
+        final var id = "legacy-" + UUID.randomUUID();
+        redisTemplate.opsForList().rightPushAll("chess::" + id + "::moves", "d2d4");
+        // Without a board, this question is just deleted.
+        final var orphanId = "legacy-" + UUID.randomUUID();
+        redisTemplate.opsForValue().set("chess::" + orphanId + "::question", "Hello?");
+
+        final var repo = (RedisBoardRepository) createRepository();
+        assertThat(repo.migrateLegacyBoards()).isGreaterThanOrEqualTo(1);
+        assertThat(redisTemplate.keys("chess::" + id + "::*")).isEmpty();
+        assertThat(redisTemplate.keys("chess::" + orphanId + "::*")).isEmpty();
+        assertThat(repo.load(id).orElseThrow().moves()).containsExactly("d2d4");
+    }
+
+    @Test
+    void testGameEvents() {
+        final var redisTemplate = redisTemplate();
+        final var eventLog = new GameEventLog(redisTemplate, 1000);
+        final var beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("eventLog", eventLog);
+        final var repo = new RedisBoardRepository(redisTemplate, ChessGame.STANDARD_INITIAL_FEN,
+                new ClassPathResource("scripts/load-board.lua"), new ClassPathResource("scripts/save-board.lua"),
+                new ClassPathResource("scripts/archive-board.lua"),
+                Duration.ofMinutes(10), Duration.ofMinutes(5), Duration.ofMinutes(1), false,
+                beanFactory.getBeanProvider(BoardCache.class), beanFactory.getBeanProvider(BoardArchive.class),
+                beanFactory.getBeanProvider(GameEventLog.class));
+        final var group = "test-" + UUID.randomUUID();
+        redisTemplate.opsForStream().add(GameEventLog.STREAM_KEY, Map.of("type", "GAME_CREATED", "board", "-"));
+        eventLog.createGroup(group);
+
+        final var id = repo.newInstance().id();
+        // This event was saved with the board, but it was not relayed to the event log (as if this app had stopped).
+        redisTemplate.opsForStream().add(BoardKeys.of(id).events(), Map.of("type", "AI_ERROR", "board", id, "error", "SERVER_ERROR"));
+        repo.update(id, b -> {
+            b.game().playMove(NotationType.UCI, "e2e4");
+            return b;
+        });
+
+        final var events = eventLog.read(group, "test", 10, Duration.ofSeconds(1));
+        assertThat(events).extracting(GameEvent::type)
+                .containsExactly(GameEvent.Type.GAME_CREATED, GameEvent.Type.MOVE_PLAYED, GameEvent.Type.AI_ERROR);
+        assertThat(events).allMatch(e -> e.boardId().equals(id));
+        assertThat(redisTemplate.opsForStream().size(BoardKeys.of(id).events())).isZero();
+    }
+
+    private static StringRedisTemplate redisTemplate() {
+        return new StringRedisTemplate(connectionFactory);
+    }
+}
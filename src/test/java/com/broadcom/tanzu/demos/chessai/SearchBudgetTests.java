@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchBudgetTests {
+    private final SearchBudget budget = new SearchBudget(6, Duration.ofSeconds(1), 100_000);
+
+    @Test
+    void testForcedMove() {
+        // The black king has a single move.
+        final var game = new ChessGame("7k/8/6QK/8/8/8/8/8 b - - 0 1");
+        assertThat(budget.adaptTo(game).depth()).isEqualTo(1);
+    }
+
+    @Test
+    void testCheck() {
+        final var game = new ChessGame("4k3/8/8/8/8/8/4R3/4K3 b - - 0 1");
+        assertThat(budget.adaptTo(game)).isEqualTo(new SearchBudget(6, Duration.ofMillis(500), 50_000));
+    }
+
+    @Test
+    void testComplexPosition() {
+        final var game = new ChessGame("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        assertThat(budget.adaptTo(game)).isEqualTo(new SearchBudget(6, Duration.ofMillis(1500), 150_000));
+        assertThat(budget.adaptTo(new ChessGame())).isEqualTo(budget);
+    }
+
+    @Test
+    void testDefaultBudget() {
+        assertThat(SearchBudget.DEFAULT.depthOr(3)).isEqualTo(3);
+        assertThat(SearchBudget.DEFAULT.moveTimeOr(Duration.ofSeconds(1))).isEqualTo(Duration.ofSeconds(1));
+        assertThat(SearchBudget.DEFAULT.adaptTo(new ChessGame())).isEqualTo(SearchBudget.DEFAULT);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String> singleFlight = new SingleFlight<>("test", meterRegistry);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void testCollapseConcurrentCalls() throws Exception {
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("e2e4", () -> {
+            started.countDown();
+            await(release);
+            return "e7e5#" + calls.incrementAndGet();
+        }));
+        started.await();
+        final var follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("e2e4", () -> "e7e5#" + calls.incrementAndGet()));
+        final var other = singleFlight.execute("d2d4", () -> "d7d5#" + calls.incrementAndGet());
+        // Let the follower wait for the leader.
+        Thread.sleep(200);
+        release.countDown();
+
+        assertThat(leader.get()).isEqualTo("e7e5#2");
+        assertThat(follower.get()).isEqualTo("e7e5#2");
+        assertThat(other).isEqualTo("d7d5#1");
+        assertThat(calls).hasValue(2);
+        assertThat(count("executed")).isEqualTo(2);
+        assertThat(count("collapsed")).isEqualTo(1);
+
+        // Results are not kept.
+        assertThat(singleFlight.execute("e2e4", () -> "c7c5")).isEqualTo("c7c5");
+    }
+
+    @Test
+    void testShareFailure() throws Exception {
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var leader = CompletableFuture.runAsync(() -> singleFlight.execute("e2e4", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("Engine failure");
+        }));
+        started.await();
+        final var follower = CompletableFuture.supplyAsync(() -> singleFlight.execute("e2e4", () -> "e7e5"));
+        Thread.sleep(200);
+        release.countDown();
+
+        assertThatThrownBy(leader::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(follower::join).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void testNewLeaderWhenCancelled() throws Exception {
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var leaderThread = new AtomicReference<Thread>();
+        // Each caller must run in its own thread.
+        final var executor = Executors.newVirtualThreadPerTaskExecutor();
+        final var leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("e2e4", () -> {
+            leaderThread.set(Thread.currentThread());
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "stale";
+        }), executor);
+        started.await();
+        final var followers = new ArrayList<CompletableFuture<String>>();
+        for (int i = 0; i < 3; ++i) {
+            followers.add(CompletableFuture.supplyAsync(() -> singleFlight.execute("e2e4", () -> {
+                await(release);
+                return "e7e5#" + calls.incrementAndGet();
+            }), executor));
+        }
+        // Let the followers wait for the leader, then cancel the leader.
+        Thread.sleep(200);
+        leaderThread.get().interrupt();
+        assertThat(leader.get()).isEqualTo("stale");
+        // Let the remaining followers wait for the new leader.
+        Thread.sleep(200);
+        release.countDown();
+
+        for (final var f : followers) {
+            assertThat(f.get()).isEqualTo("e7e5#1");
+        }
+        assertThat(calls).hasValue(1);
+        executor.close();
+    }
+
+    @Test
+    void testNewLeaderWhenInterrupted() throws Exception {
+        final var started = new CountDownLatch(1);
+        final var leaderRelease = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var leaderThread = new AtomicReference<Thread>();
+        final var executor = Executors.newVirtualThreadPerTaskExecutor();
+        // The leader fails with a wrapped InterruptedException (the interrupt flag is cleared).
+        final var leader = CompletableFuture.supplyAsync(() -> singleFlight.execute("e2e4", () -> {
+            leaderThread.set(Thread.currentThread());
+            started.countDown();
+            await(leaderRelease);
+            return "stale";
+        }), executor);
+        started.await();
+        final var followers = new ArrayList<CompletableFuture<String>>();
+        for (int i = 0; i < 3; ++i) {
+            followers.add(CompletableFuture.supplyAsync(() -> singleFlight.execute("e2e4", () -> {
+                await(release);
+                return "e7e5#" + calls.incrementAndGet();
+            }), executor));
+        }
+        Thread.sleep(200);
+        leaderThread.get().interrupt();
+        assertThatThrownBy(leader::join).hasRootCauseInstanceOf(InterruptedException.class);
+        Thread.sleep(200);
+        release.countDown();
+
+        for (final var f : followers) {
+            assertThat(f.get()).isEqualTo("e7e5#1");
+        }
+        assertThat(calls).hasValue(1);
+        executor.close();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("chess.single-flight.calls").tag("name", "test").tag("result", result).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.result.ChessGameResultType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TablebasesTests {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testLongestCheckmates() throws Exception {
+        final var tablebases = new Tablebases(tempDir, 16 * 1024 * 1024);
+        tablebases.generate();
+        // Known results: mate in 10 moves with a queen, and mate in 16 moves with a rook.
+        assertThat(longestWin(tablebases, Tablebases.Material.KQK)).isEqualTo(19);
+        assertThat(longestWin(tablebases, Tablebases.Material.KRK)).isEqualTo(31);
+        assertThat(tempDir.resolve("KQK.tb")).exists();
+    }
+
+    @Test
+    void testPawnEndgame() throws Exception {
+        final var tablebases = new Tablebases(tempDir, 16 * 1024 * 1024);
+        tablebases.generate();
+        // A rook pawn cannot win against a king in the corner.
+        assertThat(tablebases.probe("k7/8/8/8/8/8/P7/K7 w - - 0 1")).hasValue(Tablebases.DRAW);
+        // A king on the 6th rank in front of its pawn wins, whoever is to move.
+        assertThat(tablebases.probe("4k3/8/4K3/4P3/8/8/8/8 w - - 0 1").orElseThrow() % 2).isOne();
+        assertThat(tablebases.probe("4k3/8/4K3/4P3/8/8/8/8 b - - 0 1").orElseThrow() % 2).isZero();
+        // Same position, with black as the strong side.
+        assertThat(tablebases.probe("8/8/8/8/4p3/4k3/8/4K3 w - - 0 1"))
+                .isEqualTo(tablebases.probe("4k3/8/4K3/4P3/8/8/8/8 b - - 0 1"));
+        assertThat(tablebases.probe("4k3/8/4K3/4P3/8/8/8/7R w - - 0 1")).isEmpty();
+    }
+
+    @Test
+    void testPlayPerfectEndgame() throws Exception {
+        final var tablebases = new Tablebases(tempDir, 1024 * 1024);
+        tablebases.generate();
+        final var engine = new TablebaseChessEngine(game -> Optional.empty(), tablebases, 3, new SimpleMeterRegistry());
+        final var game = new ChessGame("8/8/8/4k3/8/8/8/R3K3 w - - 0 1");
+        final var plies = tablebases.probe(game.getFen()).orElseThrow();
+        for (int i = 0; i < plies; ++i) {
+            game.playMove(engine.getNextMove(game).orElseThrow());
+        }
+        assertThat(game.getGameResultType()).isEqualTo(ChessGameResultType.WHITE_WINS);
+        // The cache size only allows one mapped table, but files are kept.
+        assertThat(Files.exists(tempDir.resolve("KRK.tb"))).isTrue();
+    }
+
+    @Test
+    void testNotGeneratedYet() {
+        final var tablebases = new Tablebases(tempDir, 16 * 1024 * 1024);
+        // Positions are not covered until tablebases are generated, except trivial draws.
+        assertThat(tablebases.probe("8/8/8/4k3/8/8/8/R3K3 w - - 0 1")).isEmpty();
+        assertThat(tablebases.probe("8/8/8/4k3/8/8/8/4K3 w - - 0 1")).hasValue(Tablebases.DRAW);
+        assertThat(tablebases.table(Tablebases.Material.KRK)).isNull();
+        assertThat(tempDir.resolve("KRK.tb")).doesNotExist();
+    }
+
+    private static int longestWin(Tablebases tablebases, Tablebases.Material material) {
+        final var table = tablebases.table(material);
+        return IntStream.range(0, Tablebases.TABLE_SIZE)
+                .map(i -> Tablebases.value(table, i))
+                .filter(v -> v % 2 == 1)
+                .max().orElseThrow();
+    }
+}
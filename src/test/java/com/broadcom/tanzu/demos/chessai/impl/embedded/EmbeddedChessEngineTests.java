@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai.impl.embedded;
+
+import com.broadcom.tanzu.demos.chessai.AnalysisLine;
+import com.broadcom.tanzu.demos.chessai.SearchBudget;
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddedChessEngineTests {
+    private final Logger logger = LoggerFactory.getLogger(EmbeddedChessEngineTests.class);
+    private final TranspositionTable table = new TranspositionTable(16 * 1024 * 1024);
+
+    @Test
+    void testMateInOne() {
+        final var engine = new EmbeddedChessEngine(table, 6, Duration.ofSeconds(5));
+        final var game = new ChessGame("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+        final var move = engine.getNextMove(game).orElseThrow();
+        assertThat(game.getNotation(NotationType.UCI, move)).isEqualTo("a1a8");
+    }
+
+    @Test
+    void testWinQueen() {
+        // The knight fork wins the black queen.
+        final var engine = new EmbeddedChessEngine(table, 6, Duration.ofSeconds(5));
+        final var game = new ChessGame("4k3/8/8/3q4/6N1/8/8/4K3 w - - 0 1");
+        final var move = engine.getNextMove(game).orElseThrow();
+        assertThat(game.getNotation(NotationType.UCI, move)).isEqualTo("g4f6");
+    }
+
+    @Test
+    void testAnalyzeLines() {
+        final var engine = new EmbeddedChessEngine(table, 6, Duration.ofSeconds(5));
+        final var game = new ChessGame("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+        final var lines = engine.analyze(game, 3, SearchBudget.DEFAULT);
+        assertThat(lines).hasSize(3);
+        assertThat(lines.stream().map(AnalysisLine::move).distinct()).hasSize(3);
+
+        final var best = lines.getFirst();
+        assertThat(game.getNotation(NotationType.UCI, best.move())).isEqualTo("a1a8");
+        assertThat(best.mate()).isEqualTo(1);
+        assertThat(best.centipawns()).isNull();
+        assertThat(best.principalVariation()).containsExactly(best.move());
+
+        // Other lines are not winning: the engine expects a reply from Black.
+        assertThat(lines.get(1).mate()).isNull();
+        assertThat(lines.get(1).centipawns()).isGreaterThanOrEqualTo(lines.get(2).centipawns());
+        assertThat(lines.get(1).principalVariation()).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void testNoMoveWhenGameIsOver() {
+        final var engine = new EmbeddedChessEngine(table, 6, Duration.ofSeconds(5));
+        final var game = new ChessGame("R5k1/5ppp/8/8/8/8/5PPP/6K1 b - - 1 1");
+        assertThat(engine.getNextMove(game)).isEmpty();
+    }
+
+    @Test
+    void testPlayGame() {
+        // The engine plays against itself: every move must be legal.
+        final var engine = new EmbeddedChessEngine(table, 4, Duration.ofMillis(200));
+        final var game = new ChessGame();
+        for (int i = 0; i < 40 && game.getGameResultType() == null; ++i) {
+            final var move = engine.getNextMove(game).orElseThrow();
+            assertThat(game.isLegalMove(move)).isTrue();
+            game.playMove(move);
+        }
+    }
+
+    @Test
+    void testNodeLimit() {
+        final var result = new Search(Position.fromFen(ChessGame.STANDARD_INITIAL_FEN), table)
+                .search(20, Duration.ofSeconds(10), 20_000);
+        assertThat(result.move()).isNotZero();
+        // The node limit is checked from time to time: the search stops shortly after this limit.
+        assertThat(result.nodes()).isLessThan(25_000);
+    }
+
+    @Test
+    void testBenchmark() {
+        final var positions = List.of(
+                ChessGame.STANDARD_INITIAL_FEN,
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10");
+        long nodes = 0;
+        long nanos = 0;
+        for (final var fen : positions) {
+            final var result = new Search(Position.fromFen(fen), new TranspositionTable(16 * 1024 * 1024))
+                    .search(6, Duration.ofSeconds(10));
+            assertThat(result.move()).isNotZero();
+            logger.atInfo().log("Search for '{}': depth {}, score {}, {} nodes in {} ms ({} nodes/s)",
+                    fen, result.depth(), result.score(), result.nodes(), result.elapsed().toMillis(),
+                    result.nodesPerSecond());
+            nodes += result.nodes();
+            nanos += result.elapsed().toNanos();
+        }
+        logger.atInfo().log("Search benchmark: {} nodes/s", nodes * 1_000_000_000L / Math.max(1, nanos));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai.impl.embedded;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Check move generation by counting leaf nodes for well-known positions
+ * (see <a href="https://www.chessprogramming.org/Perft_Results">Perft results</a>).
+ */
+class PerftTests {
+    private final Logger logger = LoggerFactory.getLogger(PerftTests.class);
+
+    @ParameterizedTest
+    @CsvSource(delimiter = ';', value = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1; 5; 4865609",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1; 4; 4085603",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1; 5; 674624",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1; 4; 422333",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8; 4; 2103487",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10; 4; 3894594",
+    })
+    void testPerft(String fen, int depth, long expectedNodes) {
+        final var position = Position.fromFen(fen);
+        final var hash = position.hash;
+        final long start = System.nanoTime();
+        final long nodes = perft(position, depth);
+        final long elapsed = System.nanoTime() - start;
+        logger.atInfo().log("Perft {} for '{}': {} nodes ({} nodes/s)", depth, fen, nodes,
+                nodes * 1_000_000_000L / Math.max(1, elapsed));
+        assertThat(nodes).isEqualTo(expectedNodes);
+        // Every move must be undone.
+        assertThat(position.toFen()).isEqualTo(fen);
+        assertThat(position.hash).isEqualTo(hash);
+    }
+
+    private static long perft(Position position, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        final var moves = new int[Position.MAX_MOVES];
+        final int count = position.generate(moves, false);
+        long nodes = 0;
+        for (int i = 0; i < count; ++i) {
+            if (position.make(moves[i])) {
+                nodes += perft(position, depth - 1);
+                position.unmake(moves[i]);
+            }
+        }
+        return nodes;
+    }
+}
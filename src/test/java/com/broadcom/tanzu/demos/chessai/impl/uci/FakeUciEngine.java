@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai.impl.uci;
+
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.notation.NotationType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Fake UCI engine, run as a separate process: the best move is the first legal move
+ * (in UCI notation order).
+ * When started with the <code>hang</code> argument, this engine never answers a search
+ * until it's stopped.
+ */
+public class FakeUciEngine {
+    public static void main(String[] args) throws IOException {
+        final var hang = args.length > 0 && "hang".equals(args[0]);
+        final var reader = new BufferedReader(new InputStreamReader(System.in));
+        var game = new ChessGame();
+        var searching = false;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            final var parts = line.trim().split("\\s+");
+            switch (parts[0]) {
+                case "uci" -> System.out.println("id name Fake\nuciok");
+                case "isready" -> {
+                    if (!searching) {
+                        System.out.println("readyok");
+                    }
+                }
+                case "position" -> game = parsePosition(parts);
+                case "go" -> {
+                    if (hang) {
+                        searching = true;
+                    } else {
+                        final var current = game;
+                        final var best = current.getLegalMoves().stream()
+                                .map(m -> current.getNotation(NotationType.UCI, m))
+                                .min(Comparator.naturalOrder()).orElse("(none)");
+                        System.out.println("info depth 1 score cp 0\nbestmove " + best);
+                    }
+                }
+                case "stop" -> {
+                    if (searching) {
+                        searching = false;
+                        System.out.println("bestmove (none)");
+                    }
+                }
+                case "quit" -> System.exit(0);
+                default -> {
+                }
+            }
+            System.out.flush();
+        }
+    }
+
+    private static ChessGame parsePosition(String[] parts) {
+        final var args = Arrays.asList(parts).subList(1, parts.length);
+        final int movesIndex = args.indexOf("moves");
+        final List<String> fenParts = movesIndex < 0 ? args : args.subList(0, movesIndex);
+        final var game = "startpos".equals(fenParts.getFirst()) ? new ChessGame() :
+                new ChessGame(String.join(" ", fenParts.subList(1, fenParts.size())));
+        if (movesIndex >= 0) {
+            game.playMoves(NotationType.UCI, args.subList(movesIndex + 1, args.size()));
+        }
+        return game;
+    }
+}
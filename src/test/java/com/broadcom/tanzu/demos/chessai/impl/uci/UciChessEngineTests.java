@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2025 Broadcom, Inc. or its affiliates
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.broadcom.tanzu.demos.chessai.impl.uci;
+
+import com.broadcom.tanzu.demos.chessai.SearchBudget;
+import io.github.wolfraam.chessgame.ChessGame;
+import io.github.wolfraam.chessgame.notation.NotationType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UciChessEngineTests {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private final List<UciProcess> processes = new ArrayList<>();
+    private UciEnginePool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void testNextMove() throws Exception {
+        pool = createPool("normal", 1);
+        final var engine = new UciChessEngine(pool, Duration.ofMillis(10), TIMEOUT);
+        final var game = new ChessGame();
+        game.playMove(NotationType.UCI, "e2e4");
+        final var move = engine.getNextMove(game).orElseThrow();
+        assertThat(game.getNotation(NotationType.UCI, move)).isEqualTo("a7a5");
+    }
+
+    @Test
+    void testReuseProcessForSameGame() throws Exception {
+        pool = createPool("normal", 2);
+        final var engine = new UciChessEngine(pool, Duration.ofMillis(10), TIMEOUT);
+        final var game1 = new ChessGame();
+        final var game2 = new ChessGame();
+        game2.playMove(NotationType.UCI, "d2d4");
+        for (int i = 0; i < 3; ++i) {
+            game1.playMove(engine.getNextMove(game1).orElseThrow());
+            game2.playMove(engine.getNextMove(game2).orElseThrow());
+        }
+        // Each game is played by its own process: a single new game is started by each process.
+        assertThat(processes).hasSize(2).allSatisfy(p -> assertThat(p.newGames()).isEqualTo(1));
+    }
+
+    @Test
+    void testRestartHungProcess() throws Exception {
+        pool = createPool("hang", 1);
+        final var engine = new UciChessEngine(pool, Duration.ofMillis(10), Duration.ofMillis(500));
+        assertThat(engine.getNextMove(new ChessGame())).isEmpty();
+        assertThat(pool.restarts()).isEqualTo(1);
+        assertThat(pool.idleProcesses()).isEqualTo(1);
+    }
+
+    @Test
+    void testCancelSearch() throws Exception {
+        pool = createPool("hang", 1);
+        final var engine = new UciChessEngine(pool, Duration.ofMinutes(1), TIMEOUT);
+        final var result = engine.getNextMoveAsync(new ChessGame(), SearchBudget.DEFAULT);
+        await(() -> pool.idleProcesses() == 0);
+        result.cancel(true);
+
+        // The engine is stopped, and the warm process goes back to the pool.
+        await(() -> pool.idleProcesses() == 1);
+        assertThat(pool.restarts()).isZero();
+        final var process = pool.lease(ChessGame.STANDARD_INITIAL_FEN, List.of(), TIMEOUT);
+        assertThat(process).isSameAs(processes.getFirst());
+        assertThat(process.isReady(TIMEOUT)).isTrue();
+        pool.release(process);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private UciEnginePool createPool(String mode, int size) throws Exception {
+        final var java = ProcessHandle.current().info().command().orElse("java");
+        final var command = List.of(java, "-cp", System.getProperty("java.class.path"),
+                FakeUciEngine.class.getName(), mode);
+        return new UciEnginePool(() -> {
+            final var process = new UciProcess(command, Map.of("Hash", "16"), TIMEOUT);
+            processes.add(process);
+            return process;
+        }, size, TIMEOUT);
+    }
+}